@@ -3,6 +3,7 @@ plugins {
     id("com.github.johnrengelman.shadow").version("7.1.2")
     id("io.papermc.paperweight.userdev").version("1.3.5")
     id("net.minecrell.plugin-yml.bukkit").version("0.5.1")
+    id("me.champeau.jmh").version("0.6.6")
 }
 
 java {
@@ -19,6 +20,17 @@ dependencies {
     compileOnly(files("R:\\Evil Kingdom\\sources\\Commons (Server)\\build\\libs\\Commons (Server)-unspecified.jar"))
 }
 
+configurations {
+    named("jmhImplementation") {
+        extendsFrom(configurations.compileOnly.get())
+    }
+}
+
+jmh {
+    jmhVersion.set("1.35")
+    profilers.add("gc")
+}
+
 tasks {
     assemble {
         dependsOn(reobfJar)
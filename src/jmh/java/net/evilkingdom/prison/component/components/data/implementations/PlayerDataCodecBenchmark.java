@@ -0,0 +1,135 @@
+package net.evilkingdom.prison.component.components.data.implementations;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.evilkingdom.prison.component.components.data.objects.PlayerData;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlayerDataCodecBenchmark {
+
+    private static final String JOURNAL = "benchmark";
+
+    private PlayerDataCodec playerDataCodec;
+    private DocumentCodec documentCodec;
+    private PlayerData playerData;
+    private RawBsonDocument rawBsonDocument;
+
+    /**
+     * Allows you to set up the player data and its encoded document.
+     * Both paths start from (and end at) the raw BSON the driver reads from and writes to the socket, so the old path pays for the Document it went through as well.
+     */
+    @Setup
+    public void setup() {
+        this.playerDataCodec = new PlayerDataCodec(JOURNAL);
+        this.documentCodec = new DocumentCodec();
+        this.playerData = new PlayerData(UUID.randomUUID(), Optional.of(UUID.randomUUID()), 1250L, 987654321L, 123456L, 4567890L, 2.5, 42L, 17L);
+        final BasicOutputBuffer outputBuffer = new BasicOutputBuffer();
+        this.playerDataCodec.encode(new BsonBinaryWriter(outputBuffer), this.playerData, EncoderContext.builder().build());
+        this.rawBsonDocument = new RawBsonDocument(outputBuffer.toByteArray());
+    }
+
+    /**
+     * The benchmark for decoding the player data through its codec.
+     */
+    @Benchmark
+    public PlayerData codecDecode() {
+        return this.playerDataCodec.decode(this.rawBsonDocument.asBsonReader(), DecoderContext.builder().build());
+    }
+
+    /**
+     * The benchmark for encoding the player data through its codec.
+     */
+    @Benchmark
+    public byte[] codecEncode() {
+        final BasicOutputBuffer outputBuffer = new BasicOutputBuffer();
+        this.playerDataCodec.encode(new BsonBinaryWriter(outputBuffer), this.playerData, EncoderContext.builder().build());
+        return outputBuffer.toByteArray();
+    }
+
+    /**
+     * The benchmark for decoding the player data the old way, through a Document, its JSON and a Gson JsonObject.
+     */
+    @Benchmark
+    public PlayerData gsonDecode() {
+        final Document document = this.documentCodec.decode(this.rawBsonDocument.asBsonReader(), DecoderContext.builder().build());
+        final JsonObject jsonObject = JsonParser.parseString(document.toJson()).getAsJsonObject();
+        Optional<UUID> mine = Optional.empty();
+        long rank = 1L, tokens = 0L, gems = 0L, blocksMined = 0L, journalSequence = 0L;
+        double multiplier = 1.0;
+        if (jsonObject.has("mine")) {
+            mine = Optional.of(UUID.fromString(jsonObject.get("mine").getAsString()));
+        }
+        if (jsonObject.has("tokens")) {
+            tokens = jsonObject.get("tokens").getAsLong();
+        }
+        if (jsonObject.has("gems")) {
+            gems = jsonObject.get("gems").getAsLong();
+        }
+        if (jsonObject.has("rank")) {
+            rank = jsonObject.get("rank").getAsLong();
+        }
+        if (jsonObject.has("blocksMined")) {
+            blocksMined = jsonObject.get("blocksMined").getAsLong();
+        }
+        if (jsonObject.has("multiplier")) {
+            multiplier = jsonObject.get("multiplier").getAsDouble();
+        }
+        if (jsonObject.has("journalSequences")) {
+            journalSequence = jsonObject.getAsJsonObject("journalSequences").get(JOURNAL).getAsLong();
+        }
+        return new PlayerData(UUID.fromString(jsonObject.get("_id").getAsString()), mine, rank, tokens, gems, blocksMined, multiplier, journalSequence, jsonObject.get("version").getAsLong());
+    }
+
+    /**
+     * The benchmark for encoding the player data the old way, through a Gson JsonObject, its JSON and a Document.
+     */
+    @Benchmark
+    public byte[] gsonEncode() {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("_id", this.playerData.getUUID().toString());
+        this.playerData.getMine().ifPresent(mine -> jsonObject.addProperty("mine", mine.toString()));
+        jsonObject.addProperty("tokens", this.playerData.getTokens());
+        jsonObject.addProperty("gems", this.playerData.getGems());
+        jsonObject.addProperty("rank", this.playerData.getRank());
+        jsonObject.addProperty("blocksMined", this.playerData.getBlocksMined());
+        jsonObject.addProperty("multiplier", this.playerData.getMultiplier());
+        final JsonObject journalSequences = new JsonObject();
+        journalSequences.addProperty(JOURNAL, this.playerData.getJournalSequence());
+        jsonObject.add("journalSequences", journalSequences);
+        jsonObject.addProperty("version", this.playerData.getVersion());
+        final BasicOutputBuffer outputBuffer = new BasicOutputBuffer();
+        this.documentCodec.encode(new BsonBinaryWriter(outputBuffer), Document.parse(jsonObject.toString()), EncoderContext.builder().build());
+        return outputBuffer.toByteArray();
+    }
+
+}
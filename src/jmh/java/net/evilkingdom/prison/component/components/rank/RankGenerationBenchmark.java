@@ -0,0 +1,73 @@
+package net.evilkingdom.prison.component.components.rank;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.prison.component.components.rank.objects.Rank;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RankGenerationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private long ranks;
+
+    private RankComponent rankComponent;
+
+    /**
+     * Allows you to set up a fresh component before every generation, so the price table is always grown from empty.
+     * The settings mirror configuration.yml (with the mine blocks reversed, like RankComponent#initialize), they're set directly since there's no server to read them through.
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws ReflectiveOperationException {
+        this.rankComponent = new RankComponent();
+        this.set("firstPrice", 25000L);
+        this.set("multiplier", 1.15);
+        this.set("segmentSize", 1000L);
+        this.set("maximumRank", 1000000L);
+        this.set("blocks", new Material[] {Material.EMERALD_BLOCK, Material.EMERALD_ORE, Material.DIAMOND_BLOCK, Material.DIAMOND_ORE, Material.REDSTONE_BLOCK, Material.REDSTONE_ORE, Material.LAPIS_BLOCK, Material.LAPIS_ORE, Material.GOLD_BLOCK, Material.GOLD_ORE, Material.IRON_BLOCK, Material.IRON_ORE, Material.COAL_BLOCK, Material.COAL_ORE, Material.STONE, Material.COBBLESTONE});
+    }
+
+    /**
+     * Allows you to set one of the component's settings.
+     *
+     * @param name ~ The setting's field name.
+     * @param value ~ The setting's value.
+     */
+    private void set(final String name, final Object value) throws ReflectiveOperationException {
+        final Field field = RankComponent.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(this.rankComponent, value);
+    }
+
+    /**
+     * The benchmark for generating the ranks (their prices and block pallets) from the first rank.
+     */
+    @Benchmark
+    public ArrayList<Rank> generate() {
+        return this.rankComponent.generate(0L, this.ranks).join();
+    }
+
+}
@@ -10,6 +10,7 @@ import net.evilkingdom.prison.Prison;
 import net.evilkingdom.prison.component.components.currency.CurrencyComponent;
 import net.evilkingdom.prison.component.components.data.DataComponent;
 import net.evilkingdom.prison.component.components.file.FileComponent;
+import net.evilkingdom.prison.component.components.leaderboard.LeaderboardComponent;
 import net.evilkingdom.prison.component.components.mine.MineComponent;
 import net.evilkingdom.prison.component.components.scoreboard.ScoreboardComponent;
 import org.bukkit.Bukkit;
@@ -20,6 +21,7 @@ public class ComponentManager {
 
     private FileComponent fileComponent;
     private DataComponent dataComponent;
+    private LeaderboardComponent leaderboardComponent;
     private CurrencyComponent currencyComponent;
     private RankComponent rankComponent;
     private MineComponent mineComponent;
@@ -47,6 +49,8 @@ public class ComponentManager {
         this.mineComponent.initialize();
         this.dataComponent = new DataComponent();
         this.dataComponent.initialize();
+        this.leaderboardComponent = new LeaderboardComponent();
+        this.leaderboardComponent.initialize();
         this.scoreboardComponent = new ScoreboardComponent();
         this.scoreboardComponent.initialize();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » ComponentManager] &aInitialized."));
@@ -69,6 +73,9 @@ public class ComponentManager {
         if (this.currencyComponent != null) {
             this.currencyComponent.terminate();
         }
+        if (this.leaderboardComponent != null) {
+            this.leaderboardComponent.terminate();
+        }
         if (this.dataComponent != null) {
             this.dataComponent.terminate();
         }
@@ -96,6 +103,15 @@ public class ComponentManager {
         return this.dataComponent;
     }
 
+    /**
+     * Allows you to retrieve the Leaderboard component.
+     *
+     * @return The Leaderboard component.
+     */
+    public LeaderboardComponent getLeaderboardComponent() {
+        return this.leaderboardComponent;
+    }
+
     /**
      * Allows you to retrieve the Mine component.
      *
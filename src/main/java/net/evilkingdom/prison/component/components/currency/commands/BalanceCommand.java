@@ -6,20 +6,19 @@ package net.evilkingdom.prison.component.components.currency.commands;
 
 import net.evilkingdom.commons.command.abstracts.CommandHandler;
 import net.evilkingdom.commons.command.objects.Command;
-import net.evilkingdom.commons.utilities.mojang.MojangUtilities;
 import net.evilkingdom.commons.utilities.number.NumberUtilities;
 import net.evilkingdom.commons.utilities.number.enums.NumberFormatType;
 import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.prison.component.components.data.objects.PlayerData;
 import net.evilkingdom.prison.Prison;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.Sound;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class BalanceCommand extends CommandHandler {
@@ -82,17 +81,18 @@ public class BalanceCommand extends CommandHandler {
                     player.chat("/balance " + currency);
                     return;
                 }
-                MojangUtilities.getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
+                this.plugin.getComponentManager().getDataComponent().getNameIndex().getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
                     if (optionalTargetUUID.isEmpty()) {
                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.currency.commands.balance.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", arguments[1]))));
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.pitch"));
                         return;
                     }
-                    final OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(optionalTargetUUID.get());
-                    PlayerData.get(offlineTarget.getUniqueId()).whenComplete((targetData, targetDataThrowable) -> {
+                    final UUID targetUUID = optionalTargetUUID.get();
+                    final String targetName = this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(targetUUID).orElse(arguments[1]);
+                    PlayerData.get(targetUUID).whenComplete((targetData, targetDataThrowable) -> {
                         targetData.exists().whenComplete((targetDataExists, targetDataExistsThrowable) -> {
                             if (!targetDataExists) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.currency.commands.balance.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.currency.commands.balance.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.pitch"));
                                 return;
                             }
@@ -102,7 +102,7 @@ public class BalanceCommand extends CommandHandler {
                                 case "tokens" -> amount = targetData.getTokens();
                             }
                             final String formattedAmount = this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.currency.symbols." + currency) + NumberUtilities.format(amount, NumberFormatType.COMMAS);
-                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.currency.commands.balance.messages.success.player-with-target").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()).replace("%currency%", currency).replace("%amount%", formattedAmount))));
+                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.currency.commands.balance.messages.success.player-with-target").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName).replace("%currency%", currency).replace("%amount%", formattedAmount))));
                             player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.currency.commands.balance.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.currency.commands.balance.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.currency.commands.balance.sounds.success.pitch"));
                         });
                     });
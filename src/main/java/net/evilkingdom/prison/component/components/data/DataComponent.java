@@ -4,46 +4,129 @@ package net.evilkingdom.prison.component.components.data;
  * Made with love by https://kodirati.com/.
  */
 
-import com.mongodb.MongoClientException;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.Sorts;
-import io.papermc.paper.text.PaperComponents;
-import net.evilkingdom.commons.cooldown.CooldownImplementor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.bulk.BulkWriteError;
 import net.evilkingdom.commons.datapoint.DataImplementor;
 import net.evilkingdom.commons.datapoint.enums.DatasiteType;
 import net.evilkingdom.commons.datapoint.objects.Datapoint;
 import net.evilkingdom.commons.datapoint.objects.Datasite;
 import net.evilkingdom.commons.utilities.string.StringUtilities;
+import net.evilkingdom.prison.component.components.data.abstracts.InvalidationChannel;
+import net.evilkingdom.prison.component.components.data.enums.DataOperation;
+import net.evilkingdom.prison.component.components.data.enums.DataWriteResult;
+import net.evilkingdom.prison.component.components.data.implementations.LoopbackInvalidationChannel;
+import net.evilkingdom.prison.component.components.data.implementations.MongoInvalidationChannel;
+import net.evilkingdom.prison.component.components.data.objects.CurrencyJournal;
+import net.evilkingdom.prison.component.components.data.objects.CurrencyJournalEntry;
+import net.evilkingdom.prison.component.components.data.implementations.MineDataCodec;
+import net.evilkingdom.prison.component.components.data.implementations.PlayerDataCodec;
+import net.evilkingdom.prison.component.components.data.implementations.SelfDataCodec;
+import net.evilkingdom.prison.component.components.data.objects.DataFallback;
+import net.evilkingdom.prison.component.components.data.objects.DataMetrics;
+import net.evilkingdom.prison.component.components.data.objects.DataRepository;
+import net.evilkingdom.prison.component.components.data.objects.Invalidation;
+import net.evilkingdom.prison.component.components.data.objects.LatencyHistogram;
 import net.evilkingdom.prison.component.components.data.objects.MineData;
+import net.evilkingdom.prison.component.components.data.objects.NameIndex;
 import net.evilkingdom.prison.component.components.data.objects.SelfData;
-import net.evilkingdom.prison.component.components.mine.objects.MineLocation;
+import net.evilkingdom.prison.component.components.mine.objects.PlotAllocator;
 import net.evilkingdom.prison.Prison;
 import net.evilkingdom.prison.component.components.data.commands.DataCommand;
 import net.evilkingdom.prison.component.components.data.listeners.ConnectionListener;
 import net.evilkingdom.prison.component.components.data.objects.PlayerData;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
 
-import javax.xml.crypto.Data;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public class DataComponent {
 
     private final Prison plugin;
 
+    private final String instance;
+    private BukkitTask task, journalTask, leaseTask, statsTask;
+    private MongoClient mongoClient;
+    private MongoDatabase mongoDatabase;
+    private ExecutorService executor;
+    private CompletableFuture<Void> pendingFlush;
+    private final DataFallback fallback;
+    private CurrencyJournal journal;
+    private ArrayList<CurrencyJournalEntry> journalEntries;
+    private DataRepository<PlayerData> playerRepository;
+    private DataRepository<MineData> mineRepository;
+    private DataRepository<SelfData> selfRepository;
+    private NameIndex nameIndex;
+    private InvalidationChannel invalidationChannel;
+    private final AtomicBoolean flushing;
+    private int slots, slotSeed;
+    private long slotCursor;
+    private AtomicLongArray slotLoads;
+    private final ConcurrentHashMap<String, DataMetrics> metrics;
+    private final AtomicLong flushes, flushedDocuments, failedDocuments, lastFlushLatency, maxFlushLatency;
+
     /**
      * Allows you to create the component.
      */
     public DataComponent() {
         this.plugin = Prison.getPlugin();
+
+        this.instance = UUID.randomUUID().toString();
+        this.pendingFlush = CompletableFuture.completedFuture(null);
+        this.fallback = new DataFallback(new File(this.plugin.getDataFolder(), "data-fallback.json"));
+        this.flushing = new AtomicBoolean(false);
+        this.metrics = new ConcurrentHashMap<String, DataMetrics>();
+        this.flushes = new AtomicLong(0L);
+        this.flushedDocuments = new AtomicLong(0L);
+        this.failedDocuments = new AtomicLong(0L);
+        this.lastFlushLatency = new AtomicLong(0L);
+        this.maxFlushLatency = new AtomicLong(0L);
     }
 
     /**
@@ -51,8 +134,13 @@ public class DataComponent {
      */
     public void initialize() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aInitializing..."));
+        this.openJournal();
+        this.initializeExecutor();
         this.connectToDatabase();
+        this.replayFallback();
+        this.replayJournal();
         this.initializeData();
+        this.initializeTask();
         this.registerListeners();
         this.registerCommands();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aInitialized."));
@@ -63,7 +151,9 @@ public class DataComponent {
      */
     public void terminate() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cTerminating..."));
+        this.terminateTask();
         this.terminateData();
+        this.journal.close();
         this.disconnectFromDatabase();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cTerminated."));
     }
@@ -86,6 +176,37 @@ public class DataComponent {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aRegistered listeners."));
     }
 
+    /**
+     * Allows you to initialize the executor.
+     * Every blocking database call runs on its own bounded pool of threads, so a slow database can't starve the common pool the rest of the server shares.
+     */
+    private void initializeExecutor() {
+        final int threads = Math.max(1, this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.data.database.threads"));
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "Prison Data #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Allows you to terminate the executor.
+     * Waits for the database calls still running until the deadline, anything left after it is abandoned.
+     *
+     * @param deadline ~ The deadline (in System#nanoTime).
+     */
+    private void terminateExecutor(final long deadline) {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Some database calls didn't finish before the deadline, abandoning them."));
+            }
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Allows you to connect to the Mongo database.
      */
@@ -94,78 +215,901 @@ public class DataComponent {
         final Datasite datasite = new Datasite(this.plugin, this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.database.name"), DatasiteType.MONGO_DATABASE, new String[]{this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.database.connection-string")});
         try {
             datasite.initialize();
+            this.mongoClient = MongoClients.create(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.database.connection-string"));
+            this.mongoDatabase = this.mongoClient.getDatabase(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.database.name"));
         } catch (final Exception exception) {
             Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to connect to database, terminating to prevent a shitshow."));
             this.plugin.getPluginLoader().disablePlugin(this.plugin);
             return;
         }
-        new Datapoint(datasite, "prison_players").register();
-        new Datapoint(datasite, "prison_mines").register();
-        new Datapoint(datasite, "prison_self").register();
+        final Datapoint playersDatapoint = new Datapoint(datasite, "prison_players");
+        final Datapoint minesDatapoint = new Datapoint(datasite, "prison_mines");
+        final Datapoint selfDatapoint = new Datapoint(datasite, "prison_self");
+        playersDatapoint.register();
+        minesDatapoint.register();
+        selfDatapoint.register();
+        this.playerRepository = new DataRepository<PlayerData>(playersDatapoint, this.mongoDatabase, PlayerData.class, new PlayerDataCodec(this.journal.getIdentifier()), this.getMetrics("prison_players"), this.executor);
+        this.mineRepository = new DataRepository<MineData>(minesDatapoint, this.mongoDatabase, MineData.class, new MineDataCodec(), this.getMetrics("prison_mines"), this.executor);
+        this.selfRepository = new DataRepository<SelfData>(selfDatapoint, this.mongoDatabase, SelfData.class, new SelfDataCodec(), this.getMetrics("prison_self"), this.executor);
+        this.nameIndex = new NameIndex(this.mongoDatabase, this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.data.names.maximum-size"), this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.names.negative-expiry"), this.executor);
+        this.nameIndex.initialize();
+        this.connectToInvalidationChannel();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aConnected to database."));
     }
 
+    /**
+     * Allows you to connect to the invalidation channel.
+     * The backend is either "mongo" (every instance sharing the Mongo database, which must be a replica set) or "loopback" (a single instance).
+     */
+    private void connectToInvalidationChannel() {
+        final String backend = this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.invalidation.backend");
+        if (backend != null && backend.equalsIgnoreCase("mongo")) {
+            this.invalidationChannel = new MongoInvalidationChannel(this.mongoDatabase, this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.invalidation.retention"));
+        } else {
+            this.invalidationChannel = new LoopbackInvalidationChannel();
+        }
+        this.invalidationChannel.subscribe(invalidation -> this.invalidate(invalidation));
+        this.invalidationChannel.start();
+    }
+
     /**
      * Allows you to disconnect to the Mongo database.
      */
     private void disconnectFromDatabase() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cDisconnecting from database..."));
+        if (this.invalidationChannel != null) {
+            this.invalidationChannel.stop();
+        }
         final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
         final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
         datasite.terminate();
+        this.mongoClient.close();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cDisconnected from database."));
     }
 
+    /**
+     * Allows you to initialize the task.
+     */
+    private void initializeTask() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aInitializing task..."));
+        final long interval = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.write-behind.interval");
+        this.slots = (int) Math.max(1L, Math.min(interval, this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.write-behind.slots")));
+        this.slotSeed = new SplittableRandom().nextInt();
+        this.slotLoads = new AtomicLongArray(this.slots);
+        final long slotInterval = Math.max(1L, interval / this.slots);
+        this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, () -> {
+            if (this.flushing.get()) {
+                return;
+            }
+            this.flush((int) (this.slotCursor++ % this.slots), true);
+        }, slotInterval, slotInterval);
+        final long journalInterval = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.journal.sync-interval");
+        this.journalTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.plugin, () -> this.journal.sync(), journalInterval, journalInterval);
+        final long leaseInterval = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.lease.renew-interval");
+        this.leaseTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.plugin, () -> this.renewLeases(), leaseInterval, leaseInterval);
+        final long statsInterval = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.stats.log-interval");
+        if (statsInterval > 0L) {
+            this.statsTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.plugin, () -> this.logStats(), statsInterval, statsInterval);
+        }
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aInitialized task."));
+    }
+
+    /**
+     * Allows you to terminate the task.
+     */
+    private void terminateTask() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cTerminating task..."));
+        if (this.task != null) {
+            this.task.cancel();
+        }
+        if (this.journalTask != null) {
+            this.journalTask.cancel();
+        }
+        if (this.leaseTask != null) {
+            this.leaseTask.cancel();
+        }
+        if (this.statsTask != null) {
+            this.statsTask.cancel();
+        }
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cTerminated task."));
+    }
+
+    /**
+     * Allows you to flush all of the dirty data to the Mongo database.
+     * The updates are built on the calling thread (so the data isn't read while it's being changed) and sent in bulk writes of the configured batch size.
+     * If a flush is already running, this returns it instead of starting another one.
+     *
+     * @param asynchronous ~ If the writes are asynchronous (should always be unless it's an emergency flush).
+     * @return The flush's completion state.
+     */
+    public CompletableFuture<Void> flush(final boolean asynchronous) {
+        return this.flush(-1, asynchronous);
+    }
+
+    /**
+     * Allows you to flush the dirty data in a save slot to the Mongo database.
+     * Every player and mine hashes to one of the slots, and the task flushes one slot at a time so the writes are spread across the write behind interval instead of bursting.
+     *
+     * @param slot ~ The slot (or -1 for every slot).
+     * @param asynchronous ~ If the writes are asynchronous (should always be unless it's an emergency flush).
+     * @return The flush's completion state.
+     */
+    private CompletableFuture<Void> flush(final int slot, final boolean asynchronous) {
+        if (!this.flushing.compareAndSet(false, true)) {
+            return this.pendingFlush;
+        }
+        final long startTime = System.nanoTime();
+        final int batchSize = this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.data.write-behind.batch-size");
+        final Predicate<PlayerData> playerFilter = playerData -> slot == -1 || this.getSlot(playerData.getUUID()) == slot;
+        final Predicate<MineData> mineFilter = mineData -> slot == -1 || this.getSlot(mineData.getUUID()) == slot;
+        if (slot != -1) {
+            this.slotLoads.addAndGet(slot, PlayerData.getDirty().stream().filter(playerFilter).count() + MineData.getDirty().stream().filter(mineFilter).count());
+        }
+        final ArrayList<CompletableFuture<Void>> writes = new ArrayList<CompletableFuture<Void>>();
+        writes.addAll(this.flush("prison_players", PlayerData.getDirty(), playerFilter, playerData -> playerData.getUUID().toString(), playerData -> playerData.toUpdate(), (playerData, update) -> playerData.acknowledge(update), (playerData, update) -> playerData.restore(update), (playerData, update) -> playerData.rebase(update), batchSize, asynchronous));
+        writes.addAll(this.flush("prison_mines", MineData.getDirty(), mineFilter, mineData -> mineData.getUUID().toString(), mineData -> mineData.toUpdate(), (mineData, update) -> mineData.acknowledge(update), (mineData, update) -> mineData.restore(update), (mineData, update) -> mineData.rebase(update), batchSize, asynchronous));
+        final Optional<SelfData> optionalSelfData = SelfData.getViaCache();
+        if ((slot == -1 || slot == 0) && optionalSelfData.isPresent() && optionalSelfData.get().clearDirty()) {
+            writes.addAll(this.flush("prison_self", new HashSet<SelfData>(Collections.singleton(optionalSelfData.get())), selfData -> true, selfData -> "self", selfData -> selfData.toUpdate(), (selfData, update) -> {}, (selfData, update) -> selfData.markDirty(), (selfData, update) -> {}, batchSize, asynchronous));
+        }
+        this.pendingFlush = CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).whenComplete((unused, throwable) -> {
+            final long latency = (System.nanoTime() - startTime) / 1000000L;
+            this.flushes.incrementAndGet();
+            this.lastFlushLatency.set(latency);
+            this.maxFlushLatency.accumulateAndGet(latency, Math::max);
+            this.flushing.set(false);
+        });
+        return this.pendingFlush;
+    }
+
+    /**
+     * Allows you to flush a collection's dirty data.
+     * Drains the dirty data into bulk writes of at most the batch size.
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param dirty ~ The collection's dirty data.
+     * @param filter ~ The filter for the dirty data to flush (the rest is left dirty).
+     * @param identifier ~ The function to retrieve the data's identifier.
+     * @param update ~ The function to drain the data's changes into an update.
+     * @param success ~ The consumer for updates that were written.
+     * @param failure ~ The consumer for updates that failed to write (should restore them onto the data).
+     * @param conflict ~ The consumer for updates that conflicted with another instance's write (they're rebased onto it).
+     * @param batchSize ~ The maximum amount of updates per bulk write.
+     * @param asynchronous ~ If the writes are asynchronous.
+     * @return The writes' completion states.
+     */
+    private <T> ArrayList<CompletableFuture<Void>> flush(final String collectionName, final Set<T> dirty, final Predicate<T> filter, final Function<T, String> identifier, final Function<T, Optional<Document>> update, final BiConsumer<T, Document> success, final BiConsumer<T, Document> failure, final BiConsumer<T, Document> conflict, final int batchSize, final boolean asynchronous) {
+        final ArrayList<CompletableFuture<Void>> writes = new ArrayList<CompletableFuture<Void>>();
+        final MongoCollection<Document> collection = this.mongoDatabase.getCollection(collectionName);
+        ArrayList<Runnable> successes = new ArrayList<Runnable>();
+        ArrayList<Runnable> failures = new ArrayList<Runnable>();
+        ArrayList<Runnable> conflicts = new ArrayList<Runnable>();
+        ArrayList<Optional<Invalidation>> invalidations = new ArrayList<Optional<Invalidation>>();
+        ArrayList<WriteModel<Document>> models = new ArrayList<WriteModel<Document>>();
+        for (final Iterator<T> iterator = dirty.iterator(); iterator.hasNext();) {
+            final T data = iterator.next();
+            final boolean filtered = filter.test(data);
+            if (filtered) {
+                iterator.remove();
+            }
+            final Optional<Document> optionalUpdate = filtered ? update.apply(data) : Optional.empty();
+            if (optionalUpdate.isPresent()) {
+                successes.add(() -> success.accept(data, optionalUpdate.get()));
+                failures.add(() -> failure.accept(data, optionalUpdate.get()));
+                conflicts.add(() -> conflict.accept(data, optionalUpdate.get()));
+                invalidations.add(this.getInvalidation(collectionName, identifier.apply(data), optionalUpdate.get()));
+                models.add(new UpdateOneModel<Document>(this.getFilter(identifier.apply(data), optionalUpdate.get()), optionalUpdate.get(), new UpdateOptions().upsert(true)));
+            }
+            if (!models.isEmpty() && ((models.size() >= batchSize) || !iterator.hasNext())) {
+                writes.add(this.write(collection, models, successes, failures, conflicts, invalidations, asynchronous));
+                successes = new ArrayList<Runnable>();
+                failures = new ArrayList<Runnable>();
+                conflicts = new ArrayList<Runnable>();
+                invalidations = new ArrayList<Optional<Invalidation>>();
+                models = new ArrayList<WriteModel<Document>>();
+            }
+        }
+        return writes;
+    }
+
+    /**
+     * Allows you to send a bulk write.
+     * The bulk write is unordered, so when some of its models fail the rest are still written and each model is handled on its own.
+     *
+     * @param collection ~ The collection to write to.
+     * @param models ~ The bulk write's models.
+     * @param successes ~ The runnables to run for every model that was written.
+     * @param failures ~ The runnables to run for every model that failed to write.
+     * @param conflicts ~ The runnables to run for every model that conflicted with another instance's write.
+     * @param invalidations ~ The invalidations to publish for every model that was written (empty for unversioned models).
+     * @param asynchronous ~ If the write is asynchronous.
+     * @return The write's completion state.
+     */
+    private CompletableFuture<Void> write(final MongoCollection<Document> collection, final List<WriteModel<Document>> models, final List<Runnable> successes, final List<Runnable> failures, final List<Runnable> conflicts, final List<Optional<Invalidation>> invalidations, final boolean asynchronous) {
+        final DataMetrics metrics = this.getMetrics(collection.getNamespace().getCollectionName());
+        final long startTime = metrics.start(DataOperation.FLUSH);
+        final Runnable runnable = () -> {
+            final ArrayList<Invalidation> written = new ArrayList<Invalidation>();
+            try {
+                collection.bulkWrite(models, new BulkWriteOptions().ordered(false));
+                metrics.stop(DataOperation.FLUSH, DataWriteResult.SUCCESS, startTime);
+                this.flushedDocuments.addAndGet(models.size());
+                successes.forEach(Runnable::run);
+                invalidations.forEach(optionalInvalidation -> optionalInvalidation.ifPresent(written::add));
+            } catch (final MongoBulkWriteException mongoBulkWriteException) {
+                final HashMap<Integer, BulkWriteError> errors = new HashMap<Integer, BulkWriteError>();
+                mongoBulkWriteException.getWriteErrors().forEach(error -> errors.put(error.getIndex(), error));
+                long failed = 0L, conflicted = 0L;
+                for (int index = 0; index < models.size(); index++) {
+                    final BulkWriteError error = errors.get(index);
+                    if (error == null) {
+                        successes.get(index).run();
+                        invalidations.get(index).ifPresent(written::add);
+                    } else if (error.getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                        conflicted++;
+                        conflicts.get(index).run();
+                    } else {
+                        failed++;
+                        failures.get(index).run();
+                    }
+                }
+                metrics.stop(DataOperation.FLUSH, failed > 0L ? DataWriteResult.FAILURE : DataWriteResult.CONFLICT, startTime);
+                this.flushedDocuments.addAndGet(models.size() - failed - conflicted);
+                this.failedDocuments.addAndGet(failed + conflicted);
+                if (failed > 0L) {
+                    Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to flush " + failed + " document(s) to " + collection.getNamespace().getCollectionName() + ", they will be retried on the next flush."));
+                }
+                if (conflicted > 0L) {
+                    Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Rebasing " + conflicted + " document(s) for " + collection.getNamespace().getCollectionName() + ", they were changed by another instance since they were loaded."));
+                }
+            } catch (final MongoException mongoException) {
+                metrics.stop(DataOperation.FLUSH, DataWriteResult.FAILURE, startTime);
+                this.failedDocuments.addAndGet(models.size());
+                failures.forEach(Runnable::run);
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to flush " + models.size() + " document(s) to " + collection.getNamespace().getCollectionName() + ", they will be retried on the next flush."));
+            }
+            this.invalidationChannel.publish(written);
+        };
+        if (asynchronous) {
+            return CompletableFuture.runAsync(runnable, this.executor);
+        }
+        runnable.run();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Allows you to send a single update to the Mongo database.
+     * The document is created if it doesn't exist yet.
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifier ~ The document's identifier.
+     * @param update ~ The update.
+     * @param asynchronous ~ If the update is asynchronous (should always be unless it's an emergency save).
+     * @return The update's result.
+     */
+    public CompletableFuture<DataWriteResult> update(final String collectionName, final String identifier, final Document update, final boolean asynchronous) {
+        final MongoCollection<Document> collection = this.mongoDatabase.getCollection(collectionName);
+        final DataMetrics metrics = this.getMetrics(collectionName);
+        final long startTime = metrics.start(DataOperation.SAVE);
+        if (asynchronous) {
+            return CompletableFuture.supplyAsync(() -> {
+                final DataWriteResult writeResult = this.update(collection, identifier, update);
+                metrics.stop(DataOperation.SAVE, writeResult, startTime);
+                return writeResult;
+            }, this.executor);
+        }
+        final DataWriteResult writeResult = this.update(collection, identifier, update);
+        metrics.stop(DataOperation.SAVE, writeResult, startTime);
+        return CompletableFuture.completedFuture(writeResult);
+    }
+
+    /**
+     * Allows you to send a single update to a collection.
+     *
+     * @param collection ~ The collection.
+     * @param identifier ~ The document's identifier.
+     * @param update ~ The update.
+     * @return The update's result.
+     */
+    private DataWriteResult update(final MongoCollection<Document> collection, final String identifier, final Document update) {
+        try {
+            collection.updateOne(this.getFilter(identifier, update), update, new UpdateOptions().upsert(true));
+            this.getInvalidation(collection.getNamespace().getCollectionName(), identifier, update).ifPresent(invalidation -> this.invalidationChannel.publish(Collections.singletonList(invalidation)));
+            return DataWriteResult.SUCCESS;
+        } catch (final MongoWriteException mongoWriteException) {
+            if (mongoWriteException.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Rebasing " + identifier + " for " + collection.getNamespace().getCollectionName() + ", it was changed by another instance since it was loaded."));
+                return DataWriteResult.CONFLICT;
+            }
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to save " + identifier + " to " + collection.getNamespace().getCollectionName() + ", it will be retried on the next flush."));
+            return DataWriteResult.FAILURE;
+        } catch (final MongoException mongoException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to save " + identifier + " to " + collection.getNamespace().getCollectionName() + ", it will be retried on the next flush."));
+            return DataWriteResult.FAILURE;
+        }
+    }
+
+    /**
+     * Allows you to retrieve the filter for an update.
+     * Versioned updates (that set a version) only match the version they were built from, so an update built from stale data fails instead of overwriting another instance's write.
+     * Since updates are upserts, a mismatch fails with a duplicate key error rather than silently matching nothing.
+     *
+     * @param identifier ~ The document's identifier.
+     * @param update ~ The update.
+     * @return The filter.
+     */
+    private Bson getFilter(final String identifier, final Document update) {
+        final Document setDocument = update.get("$set", Document.class);
+        if (setDocument == null || !(setDocument.get("version") instanceof Number)) {
+            return Filters.eq("_id", identifier);
+        }
+        final long version = ((Number) setDocument.get("version")).longValue() - 1L;
+        if (version == 0L) {
+            return Filters.and(Filters.eq("_id", identifier), Filters.or(Filters.exists("version", false), Filters.eq("version", 0L)));
+        }
+        return Filters.and(Filters.eq("_id", identifier), Filters.eq("version", version));
+    }
+
+    /**
+     * Allows you to retrieve the invalidation for an update.
+     * Only versioned updates have one, since the other instances need the version to tell if their copy is stale.
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifier ~ The document's identifier.
+     * @param update ~ The update.
+     * @return The invalidation (or empty if the update isn't versioned).
+     */
+    private Optional<Invalidation> getInvalidation(final String collectionName, final String identifier, final Document update) {
+        final Document setDocument = update.get("$set", Document.class);
+        if (setDocument == null || !(setDocument.get("version") instanceof Number)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Invalidation(collectionName, identifier, ((Number) setDocument.get("version")).longValue(), this.instance));
+    }
+
+    /**
+     * Allows you to handle an invalidation from the invalidation channel.
+     * Only the cached copy of the invalidated document is touched, and only if it's older than the invalidation's version.
+     *
+     * @param invalidation ~ The invalidation.
+     */
+    private void invalidate(final Invalidation invalidation) {
+        if (invalidation.getOrigin().equals(this.instance)) {
+            return;
+        }
+        final UUID uuid;
+        try {
+            uuid = UUID.fromString(invalidation.getIdentifier());
+        } catch (final IllegalArgumentException illegalArgumentException) {
+            return;
+        }
+        switch (invalidation.getCollection()) {
+            case "prison_players" -> PlayerData.getViaCache(uuid).filter(playerData -> playerData.getVersion() < invalidation.getVersion()).ifPresent(playerData -> this.refresh(playerData));
+            case "prison_mines" -> MineData.getViaCache(uuid).filter(mineData -> mineData.getVersion() < invalidation.getVersion()).ifPresent(mineData -> this.refresh(mineData));
+        }
+    }
+
+    /**
+     * Allows you to refresh a player's cached data from the Mongo database.
+     * Used when another instance wrote the document, either announced through the invalidation channel or found through a conflicting write.
+     *
+     * @param playerData ~ The player's data.
+     * @return The refresh's completion state.
+     */
+    public CompletableFuture<Void> refresh(final PlayerData playerData) {
+        return this.playerRepository.find(playerData.getUUID().toString()).thenAccept(optionalPlayerData -> optionalPlayerData.ifPresent(loadedPlayerData -> playerData.refresh(loadedPlayerData))).exceptionally(throwable -> {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to refresh " + playerData.getUUID() + " from prison_players, it will be refreshed on its next invalidation."));
+            return null;
+        });
+    }
+
+    /**
+     * Allows you to refresh a mine's cached data from the Mongo database.
+     * Used when another instance wrote the document, either announced through the invalidation channel or found through a conflicting write.
+     *
+     * @param mineData ~ The mine's data.
+     * @return The refresh's completion state.
+     */
+    public CompletableFuture<Void> refresh(final MineData mineData) {
+        return this.mineRepository.find(mineData.getUUID().toString()).thenAccept(optionalMineData -> optionalMineData.ifPresent(loadedMineData -> mineData.refresh(loadedMineData))).exceptionally(throwable -> {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to refresh " + mineData.getUUID() + " from prison_mines, it will be refreshed on its next invalidation."));
+            return null;
+        });
+    }
+
+    /**
+     * Allows you to acquire the lease on a document.
+     * The lease is acquired if nobody holds it, this instance already holds it, or the holder's lease has expired.
+     * A document that doesn't exist yet has nothing to lease, so it counts as acquired (its first write is guarded by its version instead).
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifier ~ The document's identifier.
+     * @return If the lease was acquired or not.
+     */
+    public CompletableFuture<Boolean> acquireLease(final String collectionName, final String identifier) {
+        final MongoCollection<Document> collection = this.mongoDatabase.getCollection(collectionName);
+        final long duration = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.lease.duration");
+        return CompletableFuture.supplyAsync(() -> {
+            final long now = System.currentTimeMillis();
+            final UpdateResult updateResult = collection.updateOne(Filters.and(Filters.eq("_id", identifier), Filters.or(Filters.exists("leaseOwner", false), Filters.eq("leaseOwner", this.instance), Filters.lt("leaseExpiry", now))), Updates.combine(Updates.set("leaseOwner", this.instance), Updates.set("leaseExpiry", now + duration)));
+            if (updateResult.getMatchedCount() > 0L) {
+                return true;
+            }
+            return collection.countDocuments(Filters.eq("_id", identifier)) == 0L;
+        }, this.executor);
+    }
+
+    /**
+     * Allows you to release the lease on a document.
+     * Should only be called once the document's data has been saved and uncached.
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifier ~ The document's identifier.
+     * @return The release's completion state.
+     */
+    public CompletableFuture<Void> releaseLease(final String collectionName, final String identifier) {
+        final MongoCollection<Document> collection = this.mongoDatabase.getCollection(collectionName);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                collection.updateOne(Filters.and(Filters.eq("_id", identifier), Filters.eq("leaseOwner", this.instance)), Updates.combine(Updates.unset("leaseOwner"), Updates.unset("leaseExpiry")));
+            } catch (final MongoException mongoException) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to release the lease on " + identifier + " in " + collectionName + ", it will expire on its own."));
+            }
+        }, this.executor);
+    }
+
+    /**
+     * Allows you to renew the leases on the cached data.
+     * Cached data whose document isn't leased yet (it was created after being loaded) is leased too.
+     */
+    private void renewLeases() {
+        final long expiry = System.currentTimeMillis() + this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.lease.duration");
+        this.renewLeases("prison_players", PlayerData.getCache().stream().map(playerData -> playerData.getUUID().toString()).collect(Collectors.toList()), expiry);
+        this.renewLeases("prison_mines", MineData.getCache().stream().map(mineData -> mineData.getUUID().toString()).collect(Collectors.toList()), expiry);
+    }
+
+    /**
+     * Allows you to renew the leases on a collection's documents.
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifiers ~ The documents' identifiers.
+     * @param expiry ~ The leases' new expiry (in milliseconds since the epoch).
+     */
+    private void renewLeases(final String collectionName, final List<String> identifiers, final long expiry) {
+        if (identifiers.isEmpty()) {
+            return;
+        }
+        try {
+            this.mongoDatabase.getCollection(collectionName).updateMany(Filters.and(Filters.in("_id", identifiers), Filters.or(Filters.exists("leaseOwner", false), Filters.eq("leaseOwner", this.instance))), Updates.combine(Updates.set("leaseOwner", this.instance), Updates.set("leaseExpiry", expiry)));
+        } catch (final MongoException mongoException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to renew the leases in " + collectionName + ", they will be retried on the next renewal."));
+        }
+    }
+
+    /**
+     * Allows you to release every lease this instance holds.
+     * Only used on shutdown once all of the data has been saved.
+     */
+    private void releaseLeases() {
+        for (final String collectionName : Arrays.asList("prison_players", "prison_mines")) {
+            try {
+                this.mongoDatabase.getCollection(collectionName).updateMany(Filters.eq("leaseOwner", this.instance), Updates.combine(Updates.unset("leaseOwner"), Updates.unset("leaseExpiry")));
+            } catch (final MongoException mongoException) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to release the leases in " + collectionName + ", they will expire on their own."));
+            }
+        }
+    }
+
+    /**
+     * Allows you to log the stats of every collection's operations since the last log.
+     * Operations that didn't happen during the interval are left out.
+     */
+    private void logStats() {
+        for (final DataMetrics collectionMetrics : this.metrics.values()) {
+            for (final DataOperation operation : DataOperation.values()) {
+                final LatencyHistogram histogram = collectionMetrics.getHistogram(operation);
+                final long[] counts = histogram.getIntervalCounts();
+                final long max = histogram.getIntervalMax();
+                final long total = LatencyHistogram.getTotal(counts);
+                if (total == 0L) {
+                    continue;
+                }
+                final String p50 = LatencyHistogram.format(Math.min(max, LatencyHistogram.getPercentile(counts, 50.0)));
+                final String p99 = LatencyHistogram.format(Math.min(max, LatencyHistogram.getPercentile(counts, 99.0)));
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &a" + collectionMetrics.getCollection() + " » " + operation.getName() + ": " + total + " operation(s), p50 " + p50 + ", p99 " + p99 + ", max " + LatencyHistogram.format(max) + ", " + collectionMetrics.getInFlight(operation) + " in flight."));
+            }
+        }
+    }
+
+    /**
+     * Allows you to retrieve a collection's metrics.
+     * They're created the first time they're retrieved.
+     *
+     * @param collectionName ~ The name of the collection.
+     * @return The collection's metrics.
+     */
+    public DataMetrics getMetrics(final String collectionName) {
+        return this.metrics.computeIfAbsent(collectionName, DataMetrics::new);
+    }
+
+    /**
+     * Allows you to retrieve every collection's metrics.
+     *
+     * @return Every collection's metrics.
+     */
+    public Collection<DataMetrics> getMetrics() {
+        return this.metrics.values();
+    }
+
+    /**
+     * Allows you to retrieve the amount of dirty data waiting to be flushed.
+     *
+     * @return The amount of dirty data waiting to be flushed.
+     */
+    public long getQueueDepth() {
+        return PlayerData.getDirty().size() + MineData.getDirty().size() + (SelfData.getViaCache().map(selfData -> selfData.isDirty()).orElse(false) ? 1 : 0);
+    }
+
+    /**
+     * Allows you to retrieve a save slot.
+     * The hash is mixed with a seed picked on every boot, so restarted servers don't line their slots up with each other.
+     *
+     * @param uuid ~ The UUID of the player or mine.
+     * @return The save slot.
+     */
+    public int getSlot(final UUID uuid) {
+        int hash = uuid.hashCode() ^ this.slotSeed;
+        hash *= 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, this.slots);
+    }
+
+    /**
+     * Allows you to retrieve the amount of documents each save slot has flushed.
+     *
+     * @return The amount of documents each save slot has flushed.
+     */
+    public long[] getSlotLoads() {
+        final long[] slotLoads = new long[this.slots];
+        for (int slot = 0; slot < this.slots; slot++) {
+            slotLoads[slot] = this.slotLoads.get(slot);
+        }
+        return slotLoads;
+    }
+
+    /**
+     * Allows you to retrieve the amount of flushes.
+     *
+     * @return The amount of flushes.
+     */
+    public long getFlushes() {
+        return this.flushes.get();
+    }
+
+    /**
+     * Allows you to retrieve the amount of documents flushed.
+     *
+     * @return The amount of documents flushed.
+     */
+    public long getFlushedDocuments() {
+        return this.flushedDocuments.get();
+    }
+
+    /**
+     * Allows you to retrieve the amount of documents that failed to flush.
+     *
+     * @return The amount of documents that failed to flush.
+     */
+    public long getFailedDocuments() {
+        return this.failedDocuments.get();
+    }
+
+    /**
+     * Allows you to retrieve the latest flush's latency.
+     *
+     * @return The latest flush's latency (in milliseconds).
+     */
+    public long getLastFlushLatency() {
+        return this.lastFlushLatency.get();
+    }
+
+    /**
+     * Allows you to retrieve the highest flush latency.
+     *
+     * @return The highest flush latency (in milliseconds).
+     */
+    public long getMaxFlushLatency() {
+        return this.maxFlushLatency.get();
+    }
+
+    /**
+     * Allows you to retrieve the currency journal.
+     *
+     * @return The currency journal.
+     */
+    public CurrencyJournal getJournal() {
+        return this.journal;
+    }
+
+    /**
+     * Allows you to retrieve the players' repository.
+     *
+     * @return The players' repository.
+     */
+    public DataRepository<PlayerData> getPlayerRepository() {
+        return this.playerRepository;
+    }
+
+    /**
+     * Allows you to retrieve the mines' repository.
+     *
+     * @return The mines' repository.
+     */
+    public DataRepository<MineData> getMineRepository() {
+        return this.mineRepository;
+    }
+
+    /**
+     * Allows you to retrieve the self repository.
+     *
+     * @return The self repository.
+     */
+    public DataRepository<SelfData> getSelfRepository() {
+        return this.selfRepository;
+    }
+
+    /**
+     * Allows you to retrieve the instance's identifier.
+     * It's picked on every boot and used to own leases.
+     *
+     * @return The instance's identifier.
+     */
+    public String getInstance() {
+        return this.instance;
+    }
+
+    /**
+     * Allows you to retrieve the name index.
+     *
+     * @return The name index.
+     */
+    public NameIndex getNameIndex() {
+        return this.nameIndex;
+    }
+
+    /**
+     * Allows you to retrieve the executor the blocking database calls run on.
+     *
+     * @return The executor.
+     */
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Allows you to retrieve the Mongo database.
+     *
+     * @return The Mongo database.
+     */
+    public MongoDatabase getMongoDatabase() {
+        return this.mongoDatabase;
+    }
+
     /**
      * Allows you to initialize the data.
      */
     public void initializeData() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aInitializing data..."));
-        final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-        final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-        final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_players")).findFirst().get();
-        datapoint.countAll().thenCompose(count -> {
-            if (count == 0L) {
-                return CompletableFuture.supplyAsync(() -> 1000L);
-            } else {
-                return datapoint.getAll().thenApply(jsonObjects -> jsonObjects.stream().map(jsonObject -> jsonObject.get("rank").getAsLong()).sorted(Collections.reverseOrder()).findFirst().get() + 1000L);
+        SelfData.get().thenApply(selfData -> {
+            if (selfData.getHighestRank().isEmpty()) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aNo highest rank recorded, finding it from the players..."));
+                selfData.updateHighestRank(this.findHighestRank());
             }
-        }).whenComplete((generationAmount, generationAmountThrowable) -> SelfData.get().whenComplete((selfData, selfDataThrowable) -> {
+            return selfData;
+        }).whenComplete((selfData, selfDataThrowable) -> {
             selfData.cache();
-            this.plugin.getComponentManager().getRankComponent().generate(0, generationAmount).whenComplete((generated, generatedThrowable) -> selfData.getRanks().addAll(generated));
-            if (selfData.getMineLocations().isEmpty()) {
-                this.plugin.getComponentManager().getMineComponent().generateLocations(0, 0, 100).whenComplete((generatedLocations, generatedLocationsThrowable) -> {
-                    selfData.getMineLocations().addAll(generatedLocations);
+            this.plugin.getComponentManager().getRankComponent().ensureGenerated(selfData.getHighestRank().get());
+            final PlotAllocator plotAllocator = selfData.getPlotAllocator();
+            if (plotAllocator.isEmpty()) {
+                this.plugin.getComponentManager().getMineComponent().generateLocations(plotAllocator.reserve(100), 100).whenComplete((generatedLocations, generatedLocationsThrowable) -> {
+                    plotAllocator.add(generatedLocations);
+                    selfData.markDirty();
                 });
             } else {
-                final MineLocation latestMineLocation = selfData.getMineLocations().stream().sorted(Collections.reverseOrder()).findFirst().get();
-                this.plugin.getComponentManager().getMineComponent().generateLocations(latestMineLocation.getX(), latestMineLocation.getZ(), 1).whenComplete((generatedLocations, generatedLocationsThrowable) -> {
-                    selfData.getMineLocations().addAll(generatedLocations);
+                if (plotAllocator.getIndex().isEmpty()) {
+                    Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aNo mine location index recorded, finding it from the mine locations..."));
+                    plotAllocator.setIndex(this.plugin.getComponentManager().getMineComponent().findIndex(plotAllocator.getLocations()));
+                    selfData.markDirty();
+                }
+                this.plugin.getComponentManager().getMineComponent().generateLocations(plotAllocator.reserve(1), 1).whenComplete((generatedLocations, generatedLocationsThrowable) -> {
+                    plotAllocator.add(generatedLocations);
+                    selfData.markDirty();
                 });
             }
-        }));
+        });
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aInitialized data."));
     }
 
+    /**
+     * Allows you to find the highest rank of all of the players.
+     * Only used when the SelfData has no highest rank recorded, it streams the players' ranks through a cursor rather than loading every player.
+     *
+     * @return The highest rank (or 0 if there are no players).
+     */
+    private long findHighestRank() {
+        long highestRank = 0L;
+        try (final MongoCursor<Document> cursor = this.mongoDatabase.getCollection("prison_players").find().projection(Projections.include("rank")).batchSize(1000).iterator()) {
+            while (cursor.hasNext()) {
+                final Object rank = cursor.next().get("rank");
+                if (rank instanceof Number) {
+                    highestRank = Math.max(highestRank, ((Number) rank).longValue());
+                }
+            }
+        }
+        return highestRank;
+    }
+
+    /**
+     * Allows you to replay the fallback left by a shutdown that couldn't save everything.
+     * The updates are versioned, so ones that were written before the shutdown after all conflict and are skipped rather than applied twice.
+     * Entries that still can't be sent are kept for the next boot (along with the rest of their document's entries, so they stay in order).
+     */
+    private void replayFallback() {
+        if (this.mongoDatabase == null) {
+            return;
+        }
+        final ArrayList<Document> entries;
+        try {
+            entries = this.fallback.read();
+        } catch (final IOException ioException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to read the fallback at " + this.fallback.getFile().getPath() + ", it will be retried on the next boot."));
+            return;
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aReplaying " + entries.size() + " update(s) from the fallback..."));
+        final ArrayList<Document> remainingEntries = new ArrayList<Document>();
+        final HashSet<String> failedDocuments = new HashSet<String>();
+        long conflicted = 0L;
+        for (final Document entry : entries) {
+            final String document = entry.getString("collection") + "/" + entry.getString("identifier");
+            if (failedDocuments.contains(document)) {
+                remainingEntries.add(entry);
+                continue;
+            }
+            final MongoCollection<Document> collection = this.mongoDatabase.getCollection(entry.getString("collection"));
+            switch (this.update(collection, entry.getString("identifier"), entry.get("update", Document.class))) {
+                case FAILURE -> {
+                    failedDocuments.add(document);
+                    remainingEntries.add(entry);
+                }
+                case CONFLICT -> conflicted++;
+            }
+        }
+        if (conflicted > 0L) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Skipped " + conflicted + " update(s) from the fallback, they were already written or the document has been changed since."));
+        }
+        try {
+            this.fallback.write(remainingEntries);
+        } catch (final IOException ioException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to update the fallback at " + this.fallback.getFile().getPath() + ", its documents will be replayed again on the next boot."));
+        }
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aReplayed " + (entries.size() - remainingEntries.size() - conflicted) + " update(s) from the fallback."));
+    }
+
+    /**
+     * Allows you to open the currency journal.
+     * It's opened before connecting to the database, since the player data's codec needs the journal's identifier (see PlayerDataCodec).
+     */
+    private void openJournal() {
+        this.journal = new CurrencyJournal(new File(this.plugin.getDataFolder(), "journal"), this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.journal.segment-size"));
+        try {
+            this.journalEntries = this.journal.open();
+        } catch (final IOException ioException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to open the currency journal, currency changes won't survive a crash until they're saved."));
+        }
+    }
+
+    /**
+     * Allows you to replay the currency journal left by the last run.
+     * Each entry only applies if the player's document hasn't already saved it (this journal's sequence is lower), so replaying is safe even if the entries were saved before the crash.
+     * Every instance's journal numbers its entries on its own, so only this journal's sequence is compared (or the legacy shared one on documents saved before the sequences were kept per journal).
+     * The journal is only discarded once every entry has been replayed.
+     */
+    private void replayJournal() {
+        final ArrayList<CurrencyJournalEntry> entries = this.journalEntries;
+        this.journalEntries = null;
+        if (entries == null) {
+            return;
+        }
+        if (entries.isEmpty()) {
+            this.journal.discardReplayed();
+            return;
+        }
+        if (this.mongoDatabase == null) {
+            return;
+        }
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aReplaying " + entries.size() + " currency change(s) from the journal..."));
+        final MongoCollection<Document> collection = this.mongoDatabase.getCollection("prison_players");
+        final String journalField = "journalSequences." + this.journal.getIdentifier();
+        long failed = 0L;
+        for (final CurrencyJournalEntry entry : entries) {
+            try {
+                final Bson legacyFilter = Filters.and(Filters.exists(journalField, false), Filters.or(Filters.exists("journalSequence", false), Filters.lt("journalSequence", entry.getSequence())));
+                collection.updateOne(Filters.and(Filters.eq("_id", entry.getUUID().toString()), Filters.or(Filters.lt(journalField, entry.getSequence()), legacyFilter)), Updates.combine(Updates.inc(entry.getCurrency(), entry.getDelta()), Updates.max(journalField, entry.getSequence())), new UpdateOptions().upsert(true));
+            } catch (final MongoWriteException mongoWriteException) {
+                if (mongoWriteException.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                    failed++;
+                }
+            } catch (final MongoException mongoException) {
+                failed++;
+            }
+        }
+        if (failed == 0L) {
+            this.journal.discardReplayed();
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &aReplayed " + entries.size() + " currency change(s) from the journal."));
+        } else {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to replay " + failed + " currency change(s) from the journal, they will be retried on the next boot."));
+        }
+    }
+
     /**
      * Allows you to terminate the data.
+     * Flushes the dirty data in parallel bulk writes, waiting at most the configured deadline.
+     * Only the updates that couldn't be saved in time (including ones still being written) are written to the fallback, which is replayed on the next boot.
+     * The executor is shut down last, once nothing else needs it.
      */
     public void terminateData() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cTerminating data..."));
-        final SelfData selfData = SelfData.getViaCache().get();
-        selfData.save(false);
-        selfData.uncache();
-        Bukkit.getOnlinePlayers().forEach(onlinePlayer -> {
-            final PlayerData onlinePlayerData = PlayerData.getViaCache(onlinePlayer.getUniqueId()).get();
-            if (onlinePlayerData.getMine().isPresent()) {
-                final MineData onlinePlayerMineData = MineData.getViaCache(onlinePlayerData.getMine().get()).get();
-                onlinePlayerMineData.save(false);
-                onlinePlayerMineData.uncache();
-            }
-            onlinePlayerData.save(false);
-            onlinePlayerData.uncache();
-        });
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.shutdown.deadline"));
+        final boolean completed = this.await(this.pendingFlush, deadline) && this.await(this.flush(true), deadline);
+        final ArrayList<Document> entries = new ArrayList<Document>();
+        final LinkedHashSet<PlayerData> players = new LinkedHashSet<PlayerData>(PlayerData.getCache());
+        players.addAll(PlayerData.getDirty());
+        players.forEach(playerData -> playerData.toFallback().forEach(update -> entries.add(DataFallback.createEntry("prison_players", playerData.getUUID().toString(), update))));
+        final LinkedHashSet<MineData> mines = new LinkedHashSet<MineData>(MineData.getCache());
+        mines.addAll(MineData.getDirty());
+        mines.forEach(mineData -> mineData.toFallback().forEach(update -> entries.add(DataFallback.createEntry("prison_mines", mineData.getUUID().toString(), update))));
+        final Optional<SelfData> optionalSelfData = SelfData.getViaCache();
+        if (optionalSelfData.isPresent() && (!completed || optionalSelfData.get().isDirty())) {
+            entries.add(DataFallback.createEntry("prison_self", "self", optionalSelfData.get().toUpdate().get()));
+        }
+        if (entries.isEmpty()) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cSaved all of the data."));
+            this.releaseLeases();
+        } else {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Couldn't save " + entries.size() + " update(s) before the deadline, writing them to the fallback: " + entries.stream().map(entry -> entry.getString("collection") + "/" + entry.getString("identifier")).distinct().collect(Collectors.joining(", ")) + "."));
+            try {
+                this.fallback.write(entries);
+            } catch (final IOException ioException) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to write the fallback at " + this.fallback.getFile().getPath() + ", the documents above are lost."));
+            }
+        }
+        optionalSelfData.ifPresent(selfData -> selfData.uncache());
+        new ArrayList<PlayerData>(PlayerData.getCache()).forEach(playerData -> playerData.uncache());
+        new ArrayList<MineData>(MineData.getCache()).forEach(mineData -> mineData.uncache());
+        this.terminateExecutor(deadline);
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Data] &cTerminated data."));
     }
 
+    /**
+     * Allows you to wait for a flush until a deadline.
+     *
+     * @param flush ~ The flush.
+     * @param deadline ~ The deadline (in System#nanoTime).
+     * @return If the flush completed before the deadline.
+     */
+    private boolean await(final CompletableFuture<Void> flush, final long deadline) {
+        try {
+            flush.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (final TimeoutException | ExecutionException exception) {
+            return false;
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
 }
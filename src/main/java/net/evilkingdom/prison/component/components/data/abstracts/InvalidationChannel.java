@@ -0,0 +1,60 @@
+package net.evilkingdom.prison.component.components.data.abstracts;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.prison.component.components.data.objects.Invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public abstract class InvalidationChannel {
+
+    private final CopyOnWriteArrayList<Consumer<Invalidation>> subscribers;
+
+    /**
+     * Allows you to create an Invalidation Channel.
+     * Instances publish the documents they change through it, and receive the documents every instance changed.
+     */
+    public InvalidationChannel() {
+        this.subscribers = new CopyOnWriteArrayList<Consumer<Invalidation>>();
+    }
+
+    /**
+     * Allows you to start the channel.
+     */
+    public abstract void start();
+
+    /**
+     * Allows you to stop the channel.
+     */
+    public abstract void stop();
+
+    /**
+     * Allows you to publish invalidations to every instance.
+     *
+     * @param invalidations ~ The invalidations.
+     */
+    public abstract void publish(final List<Invalidation> invalidations);
+
+    /**
+     * Allows you to subscribe to the invalidations.
+     *
+     * @param subscriber ~ The subscriber.
+     */
+    public void subscribe(final Consumer<Invalidation> subscriber) {
+        this.subscribers.add(subscriber);
+    }
+
+    /**
+     * Allows you to hand an invalidation to the subscribers.
+     *
+     * @param invalidation ~ The invalidation.
+     */
+    protected void dispatch(final Invalidation invalidation) {
+        this.subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+
+}
@@ -7,20 +7,23 @@ package net.evilkingdom.prison.component.components.data.commands;
 import net.evilkingdom.commons.command.abstracts.CommandHandler;
 import net.evilkingdom.commons.command.objects.Command;
 import net.evilkingdom.commons.utilities.luckperms.LuckPermsUtilities;
-import net.evilkingdom.commons.utilities.mojang.MojangUtilities;
 import net.evilkingdom.commons.utilities.number.NumberUtilities;
 import net.evilkingdom.commons.utilities.number.enums.NumberFormatType;
 import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.data.enums.DataOperation;
+import net.evilkingdom.prison.component.components.data.enums.DataWriteResult;
+import net.evilkingdom.prison.component.components.data.objects.DataMetrics;
+import net.evilkingdom.prison.component.components.data.objects.LatencyHistogram;
 import net.evilkingdom.prison.component.components.data.objects.PlayerData;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.Sound;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class DataCommand extends CommandHandler {
@@ -86,6 +89,74 @@ public class DataCommand extends CommandHandler {
                 this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.help.messages.success").forEach(string -> player.sendMessage(StringUtilities.colorize(string)));
                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.help.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.help.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.help.sounds.success.pitch"));
             }
+            case "slots" -> {
+                if (!(sender instanceof Player)) {
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.slots.messages.invalid-executor").forEach(string -> sender.sendMessage(StringUtilities.colorize(string)));
+                    return;
+                }
+                final Player player = (Player) sender;
+                if (!LuckPermsUtilities.getPermissionsViaCache(player.getUniqueId()).contains("prison.data.commands.data")) {
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.slots.messages.invalid-permissions").forEach(string -> player.sendMessage(StringUtilities.colorize(string)));
+                    player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.slots.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.slots.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.slots.sounds.error.pitch"));
+                    return;
+                }
+                if (arguments.length != 1) {
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.slots.messages.invalid-usage").forEach(string -> player.sendMessage(StringUtilities.colorize(string)));
+                    player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.slots.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.slots.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.slots.sounds.error.pitch"));
+                    return;
+                }
+                final long[] slotLoads = this.plugin.getComponentManager().getDataComponent().getSlotLoads();
+                final String minimum = NumberUtilities.format(Arrays.stream(slotLoads).min().orElse(0L), NumberFormatType.COMMAS);
+                final String maximum = NumberUtilities.format(Arrays.stream(slotLoads).max().orElse(0L), NumberFormatType.COMMAS);
+                final String average = NumberUtilities.format(Math.round(Arrays.stream(slotLoads).average().orElse(0.0)), NumberFormatType.COMMAS);
+                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.slots.messages.success.header").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%slots%", String.valueOf(slotLoads.length)).replace("%minimum%", minimum).replace("%maximum%", maximum).replace("%average%", average))));
+                for (int slot = 0; slot < slotLoads.length; slot++) {
+                    final String formattedSlot = String.valueOf(slot);
+                    final String load = NumberUtilities.format(slotLoads[slot], NumberFormatType.COMMAS);
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.slots.messages.success.slot").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%slot%", formattedSlot).replace("%load%", load))));
+                }
+                player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.slots.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.slots.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.slots.sounds.success.pitch"));
+            }
+            case "stats" -> {
+                if (!(sender instanceof Player)) {
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.stats.messages.invalid-executor").forEach(string -> sender.sendMessage(StringUtilities.colorize(string)));
+                    return;
+                }
+                final Player player = (Player) sender;
+                if (!LuckPermsUtilities.getPermissionsViaCache(player.getUniqueId()).contains("prison.data.commands.data")) {
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.stats.messages.invalid-permissions").forEach(string -> player.sendMessage(StringUtilities.colorize(string)));
+                    player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.stats.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.stats.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.stats.sounds.error.pitch"));
+                    return;
+                }
+                if (arguments.length != 1) {
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.stats.messages.invalid-usage").forEach(string -> player.sendMessage(StringUtilities.colorize(string)));
+                    player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.stats.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.stats.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.stats.sounds.error.pitch"));
+                    return;
+                }
+                final String queue = NumberUtilities.format(this.plugin.getComponentManager().getDataComponent().getQueueDepth(), NumberFormatType.COMMAS);
+                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.stats.messages.success.header").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%queue%", queue))));
+                for (final DataMetrics metrics : this.plugin.getComponentManager().getDataComponent().getMetrics()) {
+                    for (final DataOperation operation : DataOperation.values()) {
+                        final LatencyHistogram histogram = metrics.getHistogram(operation);
+                        final long[] counts = histogram.getCounts();
+                        final long total = LatencyHistogram.getTotal(counts);
+                        if (total == 0L) {
+                            continue;
+                        }
+                        final long max = histogram.getMax();
+                        final String count = NumberUtilities.format(total, NumberFormatType.COMMAS);
+                        final String successes = NumberUtilities.format(metrics.getOutcomes(operation, DataWriteResult.SUCCESS), NumberFormatType.COMMAS);
+                        final String failures = NumberUtilities.format(metrics.getOutcomes(operation, DataWriteResult.FAILURE), NumberFormatType.COMMAS);
+                        final String conflicts = NumberUtilities.format(metrics.getOutcomes(operation, DataWriteResult.CONFLICT), NumberFormatType.COMMAS);
+                        final String inFlight = NumberUtilities.format(metrics.getInFlight(operation), NumberFormatType.COMMAS);
+                        final String p50 = LatencyHistogram.format(Math.min(max, LatencyHistogram.getPercentile(counts, 50.0)));
+                        final String p99 = LatencyHistogram.format(Math.min(max, LatencyHistogram.getPercentile(counts, 99.0)));
+                        final String formattedMax = LatencyHistogram.format(max);
+                        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.stats.messages.success.operation").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%collection%", metrics.getCollection()).replace("%operation%", operation.getName()).replace("%count%", count).replace("%successes%", successes).replace("%failures%", failures).replace("%conflicts%", conflicts).replace("%in-flight%", inFlight).replace("%p50%", p50).replace("%p99%", p99).replace("%max%", formattedMax))));
+                    }
+                }
+                player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.stats.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.stats.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.stats.sounds.success.pitch"));
+            }
             case "modify" -> {
                 if (!(sender instanceof Player)) {
                     this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.invalid-executor").forEach(string -> sender.sendMessage(StringUtilities.colorize(string)));
@@ -102,17 +173,18 @@ public class DataCommand extends CommandHandler {
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.pitch"));
                     return;
                 }
-                MojangUtilities.getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
+                this.plugin.getComponentManager().getDataComponent().getNameIndex().getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
                     if (optionalTargetUUID.isEmpty()) {
                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", arguments[1]))));
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.pitch"));
                         return;
                     }
-                    final OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(optionalTargetUUID.get());
-                    PlayerData.get(offlineTarget.getUniqueId()).whenComplete((targetData, targetDataThrowable) -> {
+                    final UUID targetUUID = optionalTargetUUID.get();
+                    final String targetName = this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(targetUUID).orElse(arguments[1]);
+                    PlayerData.get(targetUUID).whenComplete((targetData, targetDataThrowable) -> {
                         targetData.exists().whenComplete((targetDataExists, targetDataExistsThrowable) -> {
                             if (!targetDataExists) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.pitch"));
                                 return;
                             }
@@ -147,6 +219,19 @@ public class DataCommand extends CommandHandler {
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.pitch"));
                                 return;
                             }
+                            if (dataType.equals("rank")) {
+                                final long rank = switch (action) {
+                                    case "add" -> targetData.getRank() + Math.round(amount);
+                                    case "subtract" -> targetData.getRank() - Math.round(amount);
+                                    default -> Math.round(amount);
+                                };
+                                final long maximumRank = this.plugin.getComponentManager().getRankComponent().getMaximumRank();
+                                if (rank > maximumRank) {
+                                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.invalid-amount.amount-too-much").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%maximum%", NumberUtilities.format(maximumRank, NumberFormatType.COMMAS)))));
+                                    player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.error.pitch"));
+                                    return;
+                                }
+                            }
                             String formattedAmount;
                             if (dataType.equals("multiplier")) {
                                 formattedAmount = NumberUtilities.format(amount, NumberFormatType.MULTIPLIER);
@@ -164,14 +249,14 @@ public class DataCommand extends CommandHandler {
                                         case "blocks_mined" -> targetData.setBlocksMined(Math.round(amount));
                                         case "multiplier" -> targetData.setMultiplier(amount);
                                     }
-                                    if (offlineTarget.isOnline()) {
-                                        final Player target = offlineTarget.getPlayer();
+                                    if (Bukkit.getPlayer(targetUUID) != null) {
+                                        final Player target = Bukkit.getPlayer(targetUUID);
                                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.set.target").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", player.getName()).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
                                         target.playSound(target.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.success.target.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.target.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.target.pitch"));
                                     } else {
                                         targetData.save(true);
                                     }
-                                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.set.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
+                                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.set.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
                                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.success.player.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.player.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.player.pitch"));
                                 }
                                 case "add" -> {
@@ -182,14 +267,14 @@ public class DataCommand extends CommandHandler {
                                         case "blocks_mined" -> targetData.setBlocksMined((targetData.getBlocksMined() + Math.round(amount)));
                                         case "multiplier" -> targetData.setMultiplier((targetData.getMultiplier() + amount));
                                     }
-                                    if (offlineTarget.isOnline()) {
-                                        final Player target = offlineTarget.getPlayer();
+                                    if (Bukkit.getPlayer(targetUUID) != null) {
+                                        final Player target = Bukkit.getPlayer(targetUUID);
                                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.add.target").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", player.getName()).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
                                         target.playSound(target.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.success.target.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.target.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.target.pitch"));
                                     } else {
                                         targetData.save(true);
                                     }
-                                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.add.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
+                                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.add.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
                                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.success.player.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.player.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.player.pitch"));
                                 }
                                 case "subtract" -> {
@@ -200,14 +285,14 @@ public class DataCommand extends CommandHandler {
                                         case "blocks_mined" -> targetData.setBlocksMined((targetData.getBlocksMined() - Math.round(amount)));
                                         case "multiplier" -> targetData.setMultiplier((targetData.getMultiplier() - amount));
                                     }
-                                    if (offlineTarget.isOnline()) {
-                                        final Player target = offlineTarget.getPlayer();
+                                    if (Bukkit.getPlayer(targetUUID) != null) {
+                                        final Player target = Bukkit.getPlayer(targetUUID);
                                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.subtract.target").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", player.getName()).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
                                         target.playSound(target.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.success.target.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.target.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.target.pitch"));
                                     } else {
                                         targetData.save(true);
                                     }
-                                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.subtract.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
+                                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.commands.data.sub-commands.modify.messages.success.subtract.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName).replace("%data_type%", dataType).replace("%amount%", formattedAmount))));
                                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.data.commands.data.sub-commands.modify.sounds.success.player.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.player.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.data.commands.data.sub-commands.modify.sounds.success.player.pitch"));
                                 }
                             }
@@ -235,7 +320,7 @@ public class DataCommand extends CommandHandler {
         }
         ArrayList<String> tabCompletion = new ArrayList<String>();
         switch (arguments.length) {
-            case 1 -> tabCompletion.addAll(Arrays.asList("help", "modify"));
+            case 1 -> tabCompletion.addAll(Arrays.asList("help", "modify", "slots", "stats"));
             case 2 -> tabCompletion.addAll(Bukkit.getOnlinePlayers().stream().map(onlinePlayer -> onlinePlayer.getName()).collect(Collectors.toList()));
             case 3 -> tabCompletion.addAll(Arrays.asList("rank", "tokens", "gems", "blocks_mined", "multiplier"));
             case 4 -> tabCompletion.addAll(Arrays.asList("set", "add", "subtract"));
@@ -0,0 +1,32 @@
+package net.evilkingdom.prison.component.components.data.enums;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+public enum DataOperation {
+    GET("get"),
+    EXISTS("exists"),
+    SAVE("save"),
+    FLUSH("flush");
+
+    private final String name;
+
+    /**
+     * Allows you to create a Data Operation.
+     *
+     * @param name ~ The operation's name (shown in the stats).
+     */
+    DataOperation(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Allows you to retrieve the operation's name.
+     *
+     * @return The operation's name.
+     */
+    public String getName() {
+        return this.name;
+    }
+}
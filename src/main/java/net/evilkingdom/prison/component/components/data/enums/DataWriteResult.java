@@ -0,0 +1,11 @@
+package net.evilkingdom.prison.component.components.data.enums;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+public enum DataWriteResult {
+    SUCCESS,
+    FAILURE,
+    CONFLICT;
+}
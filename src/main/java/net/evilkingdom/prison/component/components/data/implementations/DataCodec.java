@@ -0,0 +1,64 @@
+package net.evilkingdom.prison.component.components.data.implementations;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.codecs.Codec;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+public abstract class DataCodec<T> implements Codec<T> {
+
+    /**
+     * Allows you to read a whole number, whichever numeric type it was stored as.
+     *
+     * @param reader ~ The reader (positioned at the value).
+     * @return The whole number.
+     */
+    protected long readLong(final BsonReader reader) {
+        final BsonType bsonType = reader.getCurrentBsonType();
+        if (bsonType == BsonType.INT32) {
+            return reader.readInt32();
+        } else if (bsonType == BsonType.DOUBLE) {
+            return (long) reader.readDouble();
+        }
+        return reader.readInt64();
+    }
+
+    /**
+     * Allows you to read a decimal number, whichever numeric type it was stored as.
+     *
+     * @param reader ~ The reader (positioned at the value).
+     * @return The decimal number.
+     */
+    protected double readDouble(final BsonReader reader) {
+        final BsonType bsonType = reader.getCurrentBsonType();
+        if (bsonType == BsonType.INT32) {
+            return reader.readInt32();
+        } else if (bsonType == BsonType.INT64) {
+            return reader.readInt64();
+        }
+        return reader.readDouble();
+    }
+
+    /**
+     * Allows you to read an array of UUIDs.
+     *
+     * @param reader ~ The reader (positioned at the value).
+     * @return The UUIDs.
+     */
+    protected ArrayList<UUID> readUUIDs(final BsonReader reader) {
+        final ArrayList<UUID> uuids = new ArrayList<UUID>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            uuids.add(UUID.fromString(reader.readString()));
+        }
+        reader.readEndArray();
+        return uuids;
+    }
+
+}
@@ -0,0 +1,37 @@
+package net.evilkingdom.prison.component.components.data.implementations;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.prison.component.components.data.abstracts.InvalidationChannel;
+import net.evilkingdom.prison.component.components.data.objects.Invalidation;
+
+import java.util.List;
+
+public class LoopbackInvalidationChannel extends InvalidationChannel {
+
+    /**
+     * Allows you to create a Loopback Invalidation Channel.
+     * Invalidations are handed straight back to this instance's subscribers, so it's only for a single instance (or testing).
+     */
+    public LoopbackInvalidationChannel() {
+        super();
+    }
+
+    @Override
+    public void start() {
+        //Nothing to start, there's no connection.
+    }
+
+    @Override
+    public void stop() {
+        //Nothing to stop, there's no connection.
+    }
+
+    @Override
+    public void publish(final List<Invalidation> invalidations) {
+        invalidations.forEach(invalidation -> this.dispatch(invalidation));
+    }
+
+}
@@ -0,0 +1,119 @@
+package net.evilkingdom.prison.component.components.data.implementations;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.data.objects.MineData;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
+public class MineDataCodec extends DataCodec<MineData> {
+
+    @Override
+    public MineData decode(final BsonReader reader, final DecoderContext decoderContext) {
+        UUID uuid = null;
+        UUID owner = UUID.randomUUID();
+        String theme = "Unknown";
+        double tax = 0.0;
+        boolean privacy = false;
+        long version = 0L;
+        int centerX = 0, centerZ = 0;
+        ArrayList<UUID> banned = new ArrayList<UUID>();
+        ArrayList<UUID> whitelisted = new ArrayList<UUID>();
+        final HashMap<String, Long> cooldowns = new HashMap<String, Long>();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> uuid = UUID.fromString(reader.readString());
+                case "tax" -> tax = this.readDouble(reader);
+                case "theme" -> theme = reader.readString();
+                case "owner" -> owner = UUID.fromString(reader.readString());
+                case "privacy" -> privacy = reader.readBoolean();
+                case "version" -> version = this.readLong(reader);
+                case "center" -> {
+                    reader.readStartDocument();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        switch (reader.readName()) {
+                            case "x" -> centerX = (int) this.readLong(reader);
+                            case "z" -> centerZ = (int) this.readLong(reader);
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.readEndDocument();
+                }
+                case "banned" -> banned = this.readUUIDs(reader);
+                case "whitelisted" -> whitelisted = this.readUUIDs(reader);
+                case "cooldowns" -> {
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        String type = null;
+                        long timeLeft = 0L;
+                        reader.readStartDocument();
+                        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                            switch (reader.readName()) {
+                                case "type" -> type = reader.readString();
+                                case "timeLeft" -> timeLeft = this.readLong(reader);
+                                default -> reader.skipValue();
+                            }
+                        }
+                        reader.readEndDocument();
+                        if (type != null) {
+                            cooldowns.put(type, timeLeft);
+                        }
+                    }
+                    reader.readEndArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        final Location center = new Location(Prison.getPlugin().getComponentManager().getMineComponent().getWorld(), centerX, 175, centerZ);
+        return new MineData(uuid, tax, theme, owner, privacy, center, banned, whitelisted, cooldowns, version);
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final MineData mineData, final EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString("_id", mineData.getUUID().toString());
+        writer.writeDouble("tax", mineData.getTax());
+        writer.writeString("owner", mineData.getOwner().toString());
+        writer.writeString("theme", mineData.getTheme());
+        writer.writeBoolean("privacy", mineData.isPrivate());
+        writer.writeInt64("version", mineData.getVersion());
+        writer.writeStartDocument("center");
+        writer.writeInt32("x", mineData.getCenter().getBlockX());
+        writer.writeInt32("z", mineData.getCenter().getBlockZ());
+        writer.writeEndDocument();
+        writer.writeStartArray("banned");
+        mineData.getBanned().forEach(uuid -> writer.writeString(uuid.toString()));
+        writer.writeEndArray();
+        writer.writeStartArray("whitelisted");
+        mineData.getWhitelisted().forEach(uuid -> writer.writeString(uuid.toString()));
+        writer.writeEndArray();
+        writer.writeStartArray("cooldowns");
+        mineData.getCooldowns().forEach(cooldown -> {
+            writer.writeStartDocument();
+            writer.writeString("type", cooldown.getIdentifier().replaceFirst("mine-" + mineData.getUUID() + "-", ""));
+            writer.writeInt64("timeLeft", cooldown.getTimeLeft());
+            writer.writeEndDocument();
+        });
+        writer.writeEndArray();
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<MineData> getEncoderClass() {
+        return MineData.class;
+    }
+
+}
@@ -0,0 +1,137 @@
+package net.evilkingdom.prison.component.components.data.implementations;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
+import net.evilkingdom.prison.component.components.data.abstracts.InvalidationChannel;
+import net.evilkingdom.prison.component.components.data.objects.Invalidation;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bukkit.Bukkit;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class MongoInvalidationChannel extends InvalidationChannel {
+
+    private final MongoCollection<Document> collection;
+    private final long retention;
+    private volatile boolean running;
+    private Thread thread;
+    private BsonDocument resumeToken;
+
+    private static final long MAX_BACKOFF = 60000L;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    /**
+     * Allows you to create a Mongo Invalidation Channel.
+     * Invalidations are inserted into a collection that every instance watches with a change stream (so the Mongo database must be a replica set).
+     *
+     * @param mongoDatabase ~ The Mongo database.
+     * @param retention ~ How long invalidations are kept in the collection for (in seconds), instances that fall further behind than this miss them.
+     */
+    public MongoInvalidationChannel(final MongoDatabase mongoDatabase, final long retention) {
+        super();
+        this.collection = mongoDatabase.getCollection("prison_invalidations");
+        this.retention = retention;
+    }
+
+    @Override
+    public void start() {
+        try {
+            this.collection.createIndex(Indexes.ascending("at"), new IndexOptions().expireAfter(this.retention, TimeUnit.SECONDS));
+        } catch (final MongoException mongoException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to index prison_invalidations, old invalidations won't be cleaned up."));
+        }
+        this.running = true;
+        this.thread = new Thread(() -> this.watch(), "Prison Invalidation Channel");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        if (this.thread == null) {
+            return;
+        }
+        this.thread.interrupt();
+        try {
+            this.thread.join(5000L);
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void publish(final List<Invalidation> invalidations) {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        final Date now = new Date();
+        try {
+            this.collection.insertMany(invalidations.stream().map(invalidation -> invalidation.toDocument().append("at", now)).collect(Collectors.toList()));
+        } catch (final MongoException mongoException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to publish " + invalidations.size() + " invalidation(s), other instances will serve stale data until they reload it."));
+        }
+    }
+
+    /**
+     * Allows you to watch the collection for invalidations.
+     * The watch resumes where it left off after a failure, backing off so a Mongo database without change streams doesn't flood the console.
+     */
+    private void watch() {
+        long backoff = 1000L;
+        while (this.running) {
+            ChangeStreamIterable<Document> changeStream = this.collection.watch(List.of(Aggregates.match(Filters.eq("operationType", "insert")))).maxAwaitTime(1L, TimeUnit.SECONDS);
+            if (this.resumeToken != null) {
+                changeStream = changeStream.resumeAfter(this.resumeToken);
+            }
+            try (final MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream.cursor()) {
+                backoff = 1000L;
+                while (this.running) {
+                    final ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    this.resumeToken = change.getResumeToken();
+                    if (change.getFullDocument() != null) {
+                        this.dispatch(Invalidation.fromDocument(change.getFullDocument()));
+                    }
+                }
+            } catch (final MongoInterruptedException mongoInterruptedException) {
+                return;
+            } catch (final MongoException mongoException) {
+                if (!this.running) {
+                    return;
+                }
+                if (mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    this.resumeToken = null;
+                }
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to watch prison_invalidations, retrying in " + (backoff / 1000L) + " second(s)."));
+                try {
+                    Thread.sleep(backoff);
+                } catch (final InterruptedException interruptedException) {
+                    return;
+                }
+                backoff = Math.min(MAX_BACKOFF, backoff * 2L);
+            }
+        }
+    }
+
+}
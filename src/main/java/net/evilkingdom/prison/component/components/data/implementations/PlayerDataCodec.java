@@ -0,0 +1,105 @@
+package net.evilkingdom.prison.component.components.data.implementations;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.prison.component.components.data.objects.PlayerData;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public class PlayerDataCodec extends DataCodec<PlayerData> {
+
+    private final String journal;
+
+    /**
+     * Allows you to create a Player Data Codec.
+     * Only the journal sequence of this instance's currency journal is read, the other instances' are skipped.
+     *
+     * @param journal ~ The identifier of this instance's currency journal (or null if it couldn't be opened).
+     */
+    public PlayerDataCodec(final String journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public PlayerData decode(final BsonReader reader, final DecoderContext decoderContext) {
+        UUID uuid = null;
+        Optional<UUID> mine = Optional.empty();
+        long rank = 1L, tokens = 0L, gems = 0L, blocksMined = 0L, legacyJournalSequence = 0L, version = 0L;
+        Long journalSequence = null;
+        double multiplier = 1.0;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> uuid = UUID.fromString(reader.readString());
+                case "mine" -> mine = Optional.of(UUID.fromString(reader.readString()));
+                case "rank" -> rank = this.readLong(reader);
+                case "tokens" -> tokens = this.readLong(reader);
+                case "gems" -> gems = this.readLong(reader);
+                case "blocksMined" -> blocksMined = this.readLong(reader);
+                case "multiplier" -> multiplier = this.readDouble(reader);
+                case "journalSequence" -> legacyJournalSequence = this.readLong(reader);
+                case "journalSequences" -> journalSequence = this.readJournalSequence(reader);
+                case "version" -> version = this.readLong(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new PlayerData(uuid, mine, rank, tokens, gems, blocksMined, multiplier, journalSequence == null ? legacyJournalSequence : journalSequence, version);
+    }
+
+    /**
+     * Allows you to read the journal sequence of this instance's currency journal.
+     * Documents saved before the sequences were kept per journal only have the legacy "journalSequence" field, which is used instead.
+     *
+     * @param reader ~ The reader (positioned at the journal sequences).
+     * @return The journal sequence (or null if this instance's journal hasn't saved one yet).
+     */
+    private Long readJournalSequence(final BsonReader reader) {
+        Long journalSequence = null;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.readName().equals(this.journal)) {
+                journalSequence = this.readLong(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return journalSequence;
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final PlayerData playerData, final EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString("_id", playerData.getUUID().toString());
+        if (playerData.getMine().isPresent()) {
+            writer.writeString("mine", playerData.getMine().get().toString());
+        }
+        writer.writeInt64("tokens", playerData.getTokens());
+        writer.writeInt64("gems", playerData.getGems());
+        writer.writeInt64("rank", playerData.getRank());
+        writer.writeInt64("blocksMined", playerData.getBlocksMined());
+        writer.writeDouble("multiplier", playerData.getMultiplier());
+        if (this.journal != null) {
+            writer.writeStartDocument("journalSequences");
+            writer.writeInt64(this.journal, playerData.getJournalSequence());
+            writer.writeEndDocument();
+        }
+        writer.writeInt64("version", playerData.getVersion());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<PlayerData> getEncoderClass() {
+        return PlayerData.class;
+    }
+
+}
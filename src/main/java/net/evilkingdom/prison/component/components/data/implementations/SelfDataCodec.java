@@ -0,0 +1,79 @@
+package net.evilkingdom.prison.component.components.data.implementations;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.prison.component.components.data.objects.SelfData;
+import net.evilkingdom.prison.component.components.mine.objects.MineLocation;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+public class SelfDataCodec extends DataCodec<SelfData> {
+
+    @Override
+    public SelfData decode(final BsonReader reader, final DecoderContext decoderContext) {
+        final ArrayList<MineLocation> mineLocations = new ArrayList<MineLocation>();
+        Optional<Long> mineLocationIndex = Optional.empty();
+        Optional<Long> highestRank = Optional.empty();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "mineLocations" -> {
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        int x = 0, z = 0;
+                        boolean used = false;
+                        reader.readStartDocument();
+                        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                            switch (reader.readName()) {
+                                case "x" -> x = (int) this.readLong(reader);
+                                case "z" -> z = (int) this.readLong(reader);
+                                case "used" -> used = reader.readBoolean();
+                                default -> reader.skipValue();
+                            }
+                        }
+                        reader.readEndDocument();
+                        mineLocations.add(new MineLocation(x, z, used));
+                    }
+                    reader.readEndArray();
+                }
+                case "mineLocationIndex" -> mineLocationIndex = Optional.of(this.readLong(reader));
+                case "highestRank" -> highestRank = Optional.of(this.readLong(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new SelfData(mineLocations, mineLocationIndex, highestRank);
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final SelfData selfData, final EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString("_id", "self");
+        writer.writeStartArray("mineLocations");
+        selfData.getPlotAllocator().getLocations().forEach(mineLocation -> {
+            writer.writeStartDocument();
+            writer.writeInt32("x", mineLocation.getX());
+            writer.writeInt32("z", mineLocation.getZ());
+            writer.writeBoolean("used", mineLocation.isUsed());
+            writer.writeEndDocument();
+        });
+        writer.writeEndArray();
+        selfData.getPlotAllocator().getIndex().ifPresent(mineLocationIndex -> writer.writeInt64("mineLocationIndex", mineLocationIndex));
+        selfData.getHighestRank().ifPresent(highestRank -> writer.writeInt64("highestRank", highestRank));
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<SelfData> getEncoderClass() {
+        return SelfData.class;
+    }
+
+}
@@ -5,27 +5,42 @@ package net.evilkingdom.prison.component.components.data.listeners;
  */
 
 import net.evilkingdom.commons.constructor.objects.ConstructorRegion;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.prison.Prison;
 import net.evilkingdom.prison.component.components.data.objects.MineData;
 import net.evilkingdom.prison.component.components.data.objects.PlayerData;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class ConnectionListener implements Listener {
 
     private final Prison plugin;
 
+    private final ConcurrentHashMap<UUID, PlayerData> preloadedPlayers;
+    private final ConcurrentHashMap<UUID, MineData> preloadedMines;
+
     /**
      * Allows you to create the listener.
      */
     public ConnectionListener() {
         this.plugin = Prison.getPlugin();
+
+        this.preloadedPlayers = new ConcurrentHashMap<UUID, PlayerData>();
+        this.preloadedMines = new ConcurrentHashMap<UUID, MineData>();
     }
 
     /**
@@ -35,15 +50,186 @@ public class ConnectionListener implements Listener {
         Bukkit.getPluginManager().registerEvents(this, this.plugin);
     }
 
+    /**
+     * The listener for player pre logins.
+     * Leases and loads the player's data (and their mine's data) on the login thread, refusing the login if it can't be loaded in time.
+     * If another instance still holds a lease (the player just switched servers), this waits for it to be released until the timeout.
+     * Whenever the login is refused, the leases acquired for it are released again so the data isn't locked until they expire.
+     * The loaded data is only kept for a while (see ConnectionListener#expire), in case the player disconnects before joining.
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onAsyncPlayerPreLogin(final AsyncPlayerPreLoginEvent asyncPlayerPreLoginEvent) {
+        if (asyncPlayerPreLoginEvent.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        final UUID uuid = asyncPlayerPreLoginEvent.getUniqueId();
+        this.plugin.getComponentManager().getDataComponent().getNameIndex().record(uuid, asyncPlayerPreLoginEvent.getName());
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.preload.timeout"));
+        UUID mine = null;
+        try {
+            if (!this.acquireLease("prison_players", uuid, deadline)) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] " + asyncPlayerPreLoginEvent.getName() + "'s data is leased by another instance, refusing their login."));
+                asyncPlayerPreLoginEvent.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, StringUtilities.colorize(String.join("\n", this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.lease.message"))));
+                return;
+            }
+            final PlayerData playerData = PlayerData.preload(uuid).get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (playerData.getMine().isPresent()) {
+                mine = playerData.getMine().get();
+                if (!this.acquireLease("prison_mines", mine, deadline)) {
+                    PlayerData.cancelPreload(uuid);
+                    this.releaseLease("prison_players", uuid);
+                    Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] " + asyncPlayerPreLoginEvent.getName() + "'s mine data is leased by another instance, refusing their login."));
+                    asyncPlayerPreLoginEvent.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, StringUtilities.colorize(String.join("\n", this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.lease.message"))));
+                    return;
+                }
+                final MineData mineData = MineData.get(mine).get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                this.preloadedMines.put(uuid, mineData);
+            }
+            this.preloadedPlayers.put(uuid, playerData);
+            Bukkit.getScheduler().runTaskLater(this.plugin, () -> this.expire(uuid, playerData), this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.data.preload.expiry"));
+        } catch (final TimeoutException | ExecutionException exception) {
+            this.preloadedMines.remove(uuid);
+            this.releaseLeases(uuid, mine);
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to load " + asyncPlayerPreLoginEvent.getName() + "'s data in time, refusing their login."));
+            asyncPlayerPreLoginEvent.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, StringUtilities.colorize(String.join("\n", this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.preload.message"))));
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            this.preloadedMines.remove(uuid);
+            this.releaseLeases(uuid, mine);
+            asyncPlayerPreLoginEvent.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, StringUtilities.colorize(String.join("\n", this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.preload.message"))));
+        }
+    }
+
+    /**
+     * Allows you to expire the data loaded during a pre login that never got to the join.
+     * A client can pass the pre login and disconnect before joining without any other event firing, so without this the data would stay preloaded and its leases held until they expire.
+     * Nothing happens if the data was already cached by the join (or replaced by a newer login).
+     *
+     * @param uuid ~ The player's uuid.
+     * @param playerData ~ The player's data loaded during the pre login.
+     */
+    private void expire(final UUID uuid, final PlayerData playerData) {
+        if (!this.preloadedPlayers.remove(uuid, playerData)) {
+            return;
+        }
+        final MineData preloadedMineData = this.preloadedMines.remove(uuid);
+        this.releaseLeases(uuid, preloadedMineData == null ? null : preloadedMineData.getUUID());
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Data] &a" + uuid + " didn't join after their data was loaded, dropped it and released its leases."));
+    }
+
+    /**
+     * Allows you to acquire the lease on a document, retrying until a deadline.
+     * If the database doesn't answer before the deadline, the lease is released once it does (if it was acquired).
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifier ~ The document's identifier.
+     * @param deadline ~ The deadline (in System#nanoTime).
+     * @return If the lease was acquired before the deadline or not.
+     * @throws TimeoutException ~ If the database didn't answer before the deadline.
+     * @throws ExecutionException ~ If the database couldn't be reached.
+     * @throws InterruptedException ~ If the login thread was interrupted.
+     */
+    private boolean acquireLease(final String collectionName, final UUID identifier, final long deadline) throws TimeoutException, ExecutionException, InterruptedException {
+        while (true) {
+            final CompletableFuture<Boolean> lease = this.plugin.getComponentManager().getDataComponent().acquireLease(collectionName, identifier.toString());
+            try {
+                if (lease.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } catch (final TimeoutException | InterruptedException exception) {
+                lease.thenAccept(acquired -> {
+                    if (acquired) {
+                        this.releaseLease(collectionName, identifier);
+                    }
+                });
+                throw exception;
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return false;
+            }
+            Thread.sleep(Math.min(250L, TimeUnit.NANOSECONDS.toMillis(remaining) + 1L));
+        }
+    }
+
+    /**
+     * Allows you to release the leases acquired for a login that was refused.
+     *
+     * @param uuid ~ The player's uuid.
+     * @param mine ~ The player's mine's uuid (or null if they don't have one or it wasn't reached).
+     */
+    private void releaseLeases(final UUID uuid, final UUID mine) {
+        PlayerData.cancelPreload(uuid);
+        this.releaseLease("prison_players", uuid);
+        if (mine != null) {
+            this.releaseLease("prison_mines", mine);
+        }
+    }
+
+    /**
+     * Allows you to release the lease on a document acquired for a login that was refused.
+     * Nothing is released if the document's data is cached, since its lease is then still needed by this instance (such as a mine someone else is in).
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifier ~ The document's identifier.
+     */
+    private void releaseLease(final String collectionName, final UUID identifier) {
+        final boolean cached = collectionName.equals("prison_players") ? PlayerData.getViaCache(identifier).isPresent() : MineData.getViaCache(identifier).isPresent();
+        if (cached) {
+            return;
+        }
+        this.plugin.getComponentManager().getDataComponent().releaseLease(collectionName, identifier.toString());
+    }
+
+    /**
+     * The listener for player logins.
+     * Drops the data loaded during the pre login if something else refuses the login, so it isn't left behind, and releases its leases.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(final PlayerLoginEvent playerLoginEvent) {
+        if (playerLoginEvent.getResult() == PlayerLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        final PlayerData preloadedPlayerData = this.preloadedPlayers.remove(playerLoginEvent.getPlayer().getUniqueId());
+        final MineData preloadedMineData = this.preloadedMines.remove(playerLoginEvent.getPlayer().getUniqueId());
+        if (preloadedPlayerData != null) {
+            PlayerData.cancelPreload(preloadedPlayerData.getUUID());
+            this.releaseLease("prison_players", preloadedPlayerData.getUUID());
+        }
+        if (preloadedMineData != null) {
+            this.releaseLease("prison_mines", preloadedMineData.getUUID());
+        }
+    }
+
     /**
      * The listener for player joins.
+     * Caches the data loaded during the pre login, so it's ready before anything else handles the join.
      */
-    @EventHandler
+    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerJoin(final PlayerJoinEvent playerJoinEvent) {
         final Player player = playerJoinEvent.getPlayer();
-        PlayerData.get(player.getUniqueId()).whenComplete((playerData, playerDataThrowable) -> {
+        final PlayerData preloadedPlayerData = this.preloadedPlayers.remove(player.getUniqueId());
+        final MineData preloadedMineData = this.preloadedMines.remove(player.getUniqueId());
+        if (preloadedPlayerData != null) {
+            if (preloadedMineData != null && !preloadedMineData.isCached()) {
+                preloadedMineData.cache();
+            }
+            preloadedPlayerData.cache();
+            return;
+        }
+        PlayerData.preload(player.getUniqueId()).whenComplete((playerData, playerDataThrowable) -> {
+            if (playerDataThrowable != null) {
+                PlayerData.cancelPreload(player.getUniqueId());
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to load " + player.getName() + "'s data, kicking them."));
+                Bukkit.getScheduler().runTask(this.plugin, () -> player.kickPlayer(StringUtilities.colorize(String.join("\n", this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.data.preload.message")))));
+                return;
+            }
             if (playerData.getMine().isPresent()) {
                 MineData.get(playerData.getMine().get()).whenComplete((mineData, mineDataThrowable) -> {
+                    if (mineDataThrowable != null) {
+                        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to load " + player.getName() + "'s mine data, it will be loaded when it's next needed."));
+                        return;
+                    }
                     if (!mineData.isCached()) {
                         mineData.cache();
                     }
@@ -55,6 +241,7 @@ public class ConnectionListener implements Listener {
 
     /**
      * The listener for player quits.
+     * Saves the player's data and releases its lease, and does the same for their mine's data if nobody else is left in it.
      */
     @EventHandler
     public void onPlayerQuit(final PlayerQuitEvent playerQuitEvent) {
@@ -63,18 +250,23 @@ public class ConnectionListener implements Listener {
             return;
         }
         final PlayerData playerData = PlayerData.getViaCache(player.getUniqueId()).get();
-        if (playerData.getMine().isPresent()) {
-            if (MineData.getViaCache(playerData.getMine().get()).isEmpty()) {
-                return;
-            }
+        if (playerData.getMine().isPresent() && MineData.getViaCache(playerData.getMine().get()).isPresent()) {
             final MineData mineData = MineData.getViaCache(playerData.getMine().get()).get();
             final ConstructorRegion constructorRegion = new ConstructorRegion(this.plugin, mineData.getCornerOne(), mineData.getCornerTwo());
-            if (Bukkit.getOnlinePlayers().stream().map(onlinePlayer -> constructorRegion.isWithin(onlinePlayer.getLocation())).findFirst().isEmpty()) {
-                mineData.save(true);
+            if (Bukkit.getOnlinePlayers().stream().filter(onlinePlayer -> onlinePlayer != player).noneMatch(onlinePlayer -> constructorRegion.isWithin(onlinePlayer.getLocation()))) {
+                mineData.save(true).thenAccept(saved -> {
+                    if (saved) {
+                        this.plugin.getComponentManager().getDataComponent().releaseLease("prison_mines", mineData.getUUID().toString());
+                    }
+                });
                 mineData.uncache();
             }
         }
-        playerData.save(true);
+        playerData.save(true).thenAccept(saved -> {
+            if (saved) {
+                this.plugin.getComponentManager().getDataComponent().releaseLease("prison_players", playerData.getUUID().toString());
+            }
+        });
         playerData.uncache();
     }
 
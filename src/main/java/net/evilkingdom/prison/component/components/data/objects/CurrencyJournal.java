@@ -0,0 +1,319 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+public class CurrencyJournal {
+
+    private final File folder;
+    private final long segmentSize;
+    private String identifier;
+    private FileChannel channel;
+    private File channelFile;
+    private long channelSequence, channelSize, nextSequence;
+    private volatile boolean unsynced;
+    private final ByteBuffer buffer;
+    private final CRC32 crc;
+    private final TreeMap<Long, File> segments;
+    private final ArrayList<File> replayedSegments;
+    private final HashMap<UUID, TreeSet<Long>> unacknowledged;
+
+    private static final int RECORD_SIZE = 37;
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("currency-journal-(\\d+)\\.log");
+    private static final String IDENTIFIER_FILE = "currency-journal.id";
+
+    /**
+     * Allows you to create a Currency Journal.
+     * Every token and gem change is appended to it until the change is saved to the Mongo database, so a crash doesn't roll balances back.
+     *
+     * @param folder ~ The journal's folder.
+     * @param segmentSize ~ The maximum size of a segment (in bytes) before a new one is started.
+     */
+    public CurrencyJournal(final File folder, final long segmentSize) {
+        this.folder = folder;
+        this.segmentSize = Math.max(RECORD_SIZE, segmentSize);
+        this.buffer = ByteBuffer.allocate(RECORD_SIZE);
+        this.crc = new CRC32();
+        this.segments = new TreeMap<Long, File>();
+        this.replayedSegments = new ArrayList<File>();
+        this.unacknowledged = new HashMap<UUID, TreeSet<Long>>();
+    }
+
+    /**
+     * Allows you to open the journal.
+     * Reads the entries left by the last run (stopping at a torn entry if it crashed mid write) and starts a new segment after them.
+     * The journal's identifier is read first (or created if this is the journal's first run), so the sequence numbers can be told apart from other instances' journals.
+     *
+     * @return The entries left by the last run, which should be replayed (see DataComponent#replayJournal).
+     * @throws IOException ~ If the journal couldn't be read or the new segment couldn't be created.
+     */
+    public synchronized ArrayList<CurrencyJournalEntry> open() throws IOException {
+        if (!this.folder.exists()) {
+            this.folder.mkdirs();
+        }
+        this.identifier = this.readIdentifier();
+        final TreeMap<Long, File> existingSegments = new TreeMap<Long, File>();
+        final File[] files = this.folder.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+                if (matcher.matches()) {
+                    existingSegments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        final ArrayList<CurrencyJournalEntry> entries = new ArrayList<CurrencyJournalEntry>();
+        long nextSequence = 1L;
+        for (final Map.Entry<Long, File> segment : existingSegments.entrySet()) {
+            nextSequence = Math.max(nextSequence, segment.getKey());
+            for (final CurrencyJournalEntry entry : this.read(segment.getValue())) {
+                entries.add(entry);
+                nextSequence = Math.max(nextSequence, entry.getSequence() + 1L);
+            }
+            this.replayedSegments.add(segment.getValue());
+        }
+        this.nextSequence = nextSequence;
+        this.startSegment();
+        return entries;
+    }
+
+    /**
+     * Allows you to discard the entries left by the last run.
+     * Should only be called once they have all been replayed.
+     */
+    public synchronized void discardReplayed() {
+        this.replayedSegments.removeIf(file -> !file.equals(this.channelFile) && file.delete());
+    }
+
+    /**
+     * Allows you to append a currency change to the journal.
+     * The change is written straight away but only synced to disk by the next sync (see CurrencyJournal#sync), so changes are synced in groups.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @param currency ~ The currency (either "tokens" or "gems").
+     * @param delta ~ The amount the currency changed by.
+     * @return The change's sequence number.
+     * @throws IOException ~ If the change couldn't be written.
+     */
+    public synchronized long append(final UUID uuid, final String currency, final long delta) throws IOException {
+        final long sequence = this.nextSequence++;
+        this.unacknowledged.computeIfAbsent(uuid, innerUUID -> new TreeSet<Long>()).add(sequence);
+        if (this.channel == null) {
+            throw new IOException("The currency journal isn't open.");
+        }
+        this.buffer.clear();
+        this.buffer.putLong(sequence);
+        this.buffer.putLong(uuid.getMostSignificantBits());
+        this.buffer.putLong(uuid.getLeastSignificantBits());
+        this.buffer.put((byte) (currency.equals("gems") ? 1 : 0));
+        this.buffer.putLong(delta);
+        this.crc.reset();
+        this.crc.update(this.buffer.array(), 0, RECORD_SIZE - 4);
+        this.buffer.putInt((int) this.crc.getValue());
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.channelSize += RECORD_SIZE;
+        this.unsynced = true;
+        if (this.channelSize >= this.segmentSize) {
+            this.rotate();
+        }
+        return sequence;
+    }
+
+    /**
+     * Allows you to sync the journal to disk.
+     * Every change written since the last sync is made durable by a single sync, and changes can keep being appended while it runs.
+     */
+    public void sync() {
+        final FileChannel channel;
+        synchronized (this) {
+            if (!this.unsynced || this.channel == null) {
+                return;
+            }
+            this.unsynced = false;
+            channel = this.channel;
+        }
+        try {
+            channel.force(false);
+        } catch (final ClosedChannelException closedChannelException) {
+            //The segment was rotated, which syncs it before closing it.
+        } catch (final IOException ioException) {
+            this.unsynced = true;
+        }
+    }
+
+    /**
+     * Allows you to acknowledge a player's changes being saved to the Mongo database.
+     * Segments that only hold acknowledged changes are deleted.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @param sequence ~ The sequence number of the player's latest saved change.
+     */
+    public synchronized void acknowledge(final UUID uuid, final long sequence) {
+        final TreeSet<Long> sequences = this.unacknowledged.get(uuid);
+        if (sequences == null) {
+            return;
+        }
+        sequences.headSet(sequence, true).clear();
+        if (sequences.isEmpty()) {
+            this.unacknowledged.remove(uuid);
+        }
+        this.truncate();
+    }
+
+    /**
+     * Allows you to close the journal.
+     */
+    public synchronized void close() {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.channel.force(false);
+            this.channel.close();
+        } catch (final IOException ioException) {
+            //Nothing else can be done, the entries that made it to disk will be replayed on the next boot.
+        }
+        this.channel = null;
+    }
+
+    /**
+     * Allows you to retrieve the journal's identifier.
+     * It stays the same across restarts, since the sequence numbers carry on from the last run.
+     *
+     * @return The journal's identifier (or null if the journal couldn't be opened).
+     */
+    public synchronized String getIdentifier() {
+        return this.identifier;
+    }
+
+    /**
+     * Allows you to retrieve the amount of unacknowledged changes.
+     *
+     * @return The amount of unacknowledged changes.
+     */
+    public synchronized long getUnacknowledged() {
+        return this.unacknowledged.values().stream().mapToLong(TreeSet::size).sum();
+    }
+
+    /**
+     * Allows you to delete the segments that only hold acknowledged changes.
+     * If every change in the current segment has been acknowledged too, a new segment is started so it can be deleted.
+     */
+    private void truncate() {
+        final long watermark = this.unacknowledged.values().stream().mapToLong(TreeSet::first).min().orElse(this.nextSequence);
+        if (watermark >= this.nextSequence && this.channelSize > 0L) {
+            this.rotate();
+            return;
+        }
+        for (final Iterator<Map.Entry<Long, File>> iterator = this.segments.entrySet().iterator(); iterator.hasNext();) {
+            final Map.Entry<Long, File> segment = iterator.next();
+            final Long nextSegmentSequence = this.segments.higherKey(segment.getKey());
+            final long segmentEnd = nextSegmentSequence == null ? this.channelSequence : nextSegmentSequence;
+            if (segmentEnd > watermark) {
+                break;
+            }
+            segment.getValue().delete();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Allows you to start a new segment, closing the current one.
+     */
+    private void rotate() {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.channel.force(false);
+            this.channel.close();
+            this.segments.put(this.channelSequence, this.channelFile);
+            this.startSegment();
+        } catch (final IOException ioException) {
+            //The current segment stays in use, a new one is attempted on the next rotation.
+            return;
+        }
+        this.truncate();
+    }
+
+    /**
+     * Allows you to start a new segment at the next sequence number.
+     * The segment is named after it, so the sequence numbers carry on from it after a restart even if it stays empty.
+     *
+     * @throws IOException ~ If the segment couldn't be created.
+     */
+    private void startSegment() throws IOException {
+        this.channelSequence = this.nextSequence;
+        this.channelFile = new File(this.folder, "currency-journal-" + this.channelSequence + ".log");
+        this.channel = FileChannel.open(this.channelFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.channelSize = 0L;
+        this.channel.force(true);
+    }
+
+    /**
+     * Allows you to read the journal's identifier, creating it if it doesn't exist yet.
+     *
+     * @return The journal's identifier.
+     * @throws IOException ~ If the identifier couldn't be read or created.
+     */
+    private String readIdentifier() throws IOException {
+        final File file = new File(this.folder, IDENTIFIER_FILE);
+        if (file.exists()) {
+            final String identifier = Files.readString(file.toPath()).trim();
+            if (!identifier.isEmpty()) {
+                return identifier;
+            }
+        }
+        final String identifier = UUID.randomUUID().toString();
+        try (final FileChannel identifierChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            identifierChannel.write(ByteBuffer.wrap(identifier.getBytes(StandardCharsets.UTF_8)));
+            identifierChannel.force(true);
+        }
+        return identifier;
+    }
+
+    /**
+     * Allows you to read a segment's entries.
+     *
+     * @param file ~ The segment's file.
+     * @return The segment's entries (up to the first torn or corrupt entry).
+     * @throws IOException ~ If the segment couldn't be read.
+     */
+    private ArrayList<CurrencyJournalEntry> read(final File file) throws IOException {
+        final ArrayList<CurrencyJournalEntry> entries = new ArrayList<CurrencyJournalEntry>();
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        final CRC32 crc = new CRC32();
+        while (byteBuffer.remaining() >= RECORD_SIZE) {
+            final int start = byteBuffer.position();
+            crc.reset();
+            crc.update(byteBuffer.array(), start, RECORD_SIZE - 4);
+            final long sequence = byteBuffer.getLong();
+            final UUID uuid = new UUID(byteBuffer.getLong(), byteBuffer.getLong());
+            final String currency = byteBuffer.get() == 1 ? "gems" : "tokens";
+            final long delta = byteBuffer.getLong();
+            if (byteBuffer.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            entries.add(new CurrencyJournalEntry(sequence, uuid, currency, delta));
+        }
+        return entries;
+    }
+
+}
@@ -0,0 +1,66 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import java.util.UUID;
+
+public class CurrencyJournalEntry {
+
+    private final long sequence, delta;
+    private final UUID uuid;
+    private final String currency;
+
+    /**
+     * Allows you to create a Currency Journal Entry.
+     *
+     * @param sequence ~ The entry's sequence number.
+     * @param uuid ~ The UUID of the player.
+     * @param currency ~ The currency (either "tokens" or "gems").
+     * @param delta ~ The amount the currency changed by.
+     */
+    public CurrencyJournalEntry(final long sequence, final UUID uuid, final String currency, final long delta) {
+        this.sequence = sequence;
+        this.uuid = uuid;
+        this.currency = currency;
+        this.delta = delta;
+    }
+
+    /**
+     * Allows you to retrieve the entry's sequence number.
+     *
+     * @return The entry's sequence number.
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Allows you to retrieve the UUID of the entry's player.
+     *
+     * @return The UUID of the entry's player.
+     */
+    public UUID getUUID() {
+        return this.uuid;
+    }
+
+    /**
+     * Allows you to retrieve the entry's currency.
+     *
+     * @return The entry's currency.
+     */
+    public String getCurrency() {
+        return this.currency;
+    }
+
+    /**
+     * Allows you to retrieve the amount the entry's currency changed by.
+     *
+     * @return The amount the entry's currency changed by.
+     */
+    public long getDelta() {
+        return this.delta;
+    }
+
+}
@@ -0,0 +1,276 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import org.bson.Document;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class DataChanges {
+
+    private boolean persisted;
+    private Document fullUpdate;
+    private CompletableFuture<Void> write;
+    private Document writing;
+    private final HashSet<String> unsets, fullUnsets;
+    private final HashMap<String, Object> sets, fullSets;
+    private final HashMap<String, Long> increments, fullIncrements;
+
+    /**
+     * Allows you to create a Data Changes.
+     *
+     * @param persisted ~ If the data already exists in the Mongo database.
+     */
+    public DataChanges(final boolean persisted) {
+        this.persisted = persisted;
+        this.unsets = new HashSet<String>();
+        this.sets = new HashMap<String, Object>();
+        this.increments = new HashMap<String, Long>();
+        this.fullUnsets = new HashSet<String>();
+        this.fullSets = new HashMap<String, Object>();
+        this.fullIncrements = new HashMap<String, Long>();
+    }
+
+    /**
+     * Allows you to record a field being set.
+     *
+     * @param field ~ The field's name.
+     * @param value ~ The field's new value (must be storable in a document).
+     */
+    public synchronized void set(final String field, final Object value) {
+        this.unsets.remove(field);
+        this.sets.put(field, value);
+    }
+
+    /**
+     * Allows you to record a field being removed.
+     *
+     * @param field ~ The field's name.
+     */
+    public synchronized void unset(final String field) {
+        this.sets.remove(field);
+        this.unsets.add(field);
+    }
+
+    /**
+     * Allows you to record a counter field changing.
+     *
+     * @param field ~ The field's name.
+     * @param delta ~ The amount the field changed by.
+     */
+    public synchronized void increment(final String field, final long delta) {
+        if (delta == 0L) {
+            return;
+        }
+        this.increments.merge(field, delta, Long::sum);
+    }
+
+    /**
+     * Allows you to mark the data as existing in the Mongo database.
+     *
+     * @param persisted ~ If the data exists in the Mongo database.
+     */
+    public synchronized void setPersisted(final boolean persisted) {
+        this.persisted = persisted;
+    }
+
+    /**
+     * Allows you to retrieve if there are changes waiting to be sent.
+     *
+     * @return If there are changes waiting to be sent.
+     */
+    public synchronized boolean isEmpty() {
+        return this.persisted && this.unsets.isEmpty() && this.sets.isEmpty() && this.increments.isEmpty();
+    }
+
+    /**
+     * Allows you to retrieve if a field has a change waiting to be sent (either being set or removed).
+     *
+     * @param field ~ The field's name.
+     * @return If the field has a change waiting to be sent.
+     */
+    public synchronized boolean isChanged(final String field) {
+        return this.sets.containsKey(field) || this.unsets.contains(field);
+    }
+
+    /**
+     * Allows you to retrieve the amount a counter field has changed by since it was last sent.
+     *
+     * @param field ~ The field's name.
+     * @return The amount the field has changed by.
+     */
+    public synchronized long getIncrement(final String field) {
+        return this.increments.getOrDefault(field, 0L);
+    }
+
+    /**
+     * Allows you to retrieve if an update is being written.
+     *
+     * @return If an update is being written.
+     */
+    public synchronized boolean isWriting() {
+        return this.write != null;
+    }
+
+    /**
+     * Allows you to retrieve the update being written.
+     *
+     * @return The update's completion state (already completed if no update is being written).
+     */
+    public synchronized CompletableFuture<Void> getWrite() {
+        return this.write == null ? CompletableFuture.completedFuture(null) : this.write;
+    }
+
+    /**
+     * Allows you to retrieve the update being written.
+     *
+     * @return The update (or empty if no update is being written).
+     */
+    public synchronized Optional<Document> getWriting() {
+        return Optional.ofNullable(this.writing);
+    }
+
+    /**
+     * Allows you to complete the update being written, whatever its outcome.
+     * The next update can only be drained once this is called, so there is never more than one write per document in flight.
+     */
+    public void complete() {
+        final CompletableFuture<Void> write;
+        synchronized (this) {
+            write = this.write;
+            this.write = null;
+            this.writing = null;
+        }
+        if (write != null) {
+            write.complete(null);
+        }
+    }
+
+    /**
+     * Allows you to drain the changes into an update for the Mongo database.
+     * Data that doesn't exist in the database yet gets every field set, otherwise only the changed fields are set and the counters are incremented by their deltas.
+     * Nothing is drained while an update is being written (see DataChanges#complete), the changes wait for it instead.
+     *
+     * @param full ~ The supplier of every field, used when the data doesn't exist in the database yet.
+     * @return The update (or empty if nothing changed or an update is being written).
+     */
+    public synchronized Optional<Document> drain(final Supplier<Document> full) {
+        if (this.write != null) {
+            return Optional.empty();
+        }
+        final Optional<Document> optionalUpdate = this.build(full);
+        optionalUpdate.ifPresent(update -> {
+            this.write = new CompletableFuture<Void>();
+            this.writing = update;
+        });
+        return optionalUpdate;
+    }
+
+    /**
+     * Allows you to drain the changes into an update without starting a write, even while one is being written.
+     * Only used for the shutdown fallback (see DataComponent#terminateData), since the update is never sent by this instance.
+     *
+     * @param full ~ The supplier of every field, used when the data doesn't exist in the database yet.
+     * @return The update (or empty if nothing changed).
+     */
+    public synchronized Optional<Document> drainPending(final Supplier<Document> full) {
+        return this.build(full);
+    }
+
+    /**
+     * Allows you to build an update from the changes, clearing them.
+     *
+     * @param full ~ The supplier of every field, used when the data doesn't exist in the database yet.
+     * @return The update (or empty if nothing changed).
+     */
+    private Optional<Document> build(final Supplier<Document> full) {
+        this.fullUpdate = null;
+        if (!this.persisted) {
+            this.fullUnsets.clear();
+            this.fullUnsets.addAll(this.unsets);
+            this.fullSets.clear();
+            this.fullSets.putAll(this.sets);
+            this.fullIncrements.clear();
+            this.fullIncrements.putAll(this.increments);
+            this.unsets.clear();
+            this.sets.clear();
+            this.increments.clear();
+            this.persisted = true;
+            this.fullUpdate = new Document("$set", full.get());
+            return Optional.of(this.fullUpdate);
+        }
+        if (this.isEmpty()) {
+            return Optional.empty();
+        }
+        final Document update = new Document();
+        if (!this.sets.isEmpty()) {
+            update.append("$set", new Document(this.sets));
+        }
+        if (!this.unsets.isEmpty()) {
+            final Document unsetDocument = new Document();
+            this.unsets.forEach(field -> unsetDocument.append(field, ""));
+            update.append("$unset", unsetDocument);
+        }
+        if (!this.increments.isEmpty()) {
+            update.append("$inc", new Document(new HashMap<String, Object>(this.increments)));
+        }
+        this.unsets.clear();
+        this.sets.clear();
+        this.increments.clear();
+        return Optional.of(update);
+    }
+
+    /**
+     * Allows you to restore an update that failed to be sent, so it is sent with the next one.
+     * Fields that have changed again since keep their newer value, and counter deltas are added back.
+     * An update that set every field puts back the changes it was drained from, so they can be rebased if another instance created the document first.
+     *
+     * @param update ~ The update that failed.
+     */
+    public synchronized void restore(final Document update) {
+        if (update == this.fullUpdate) {
+            this.persisted = false;
+            this.fullUpdate = null;
+            this.restore(this.fullSets, this.fullUnsets, this.fullIncrements);
+            return;
+        }
+        final Document setDocument = update.get("$set", Document.class);
+        final Document unsetDocument = update.get("$unset", Document.class);
+        final Document incrementDocument = update.get("$inc", Document.class);
+        final HashMap<String, Long> increments = new HashMap<String, Long>();
+        if (incrementDocument != null) {
+            incrementDocument.forEach((field, delta) -> increments.put(field, ((Number) delta).longValue()));
+        }
+        this.restore(setDocument == null ? new HashMap<String, Object>() : setDocument, unsetDocument == null ? new HashSet<String>() : unsetDocument.keySet(), increments);
+    }
+
+    /**
+     * Allows you to restore changes, so they are sent with the next update.
+     *
+     * @param sets ~ The fields being set.
+     * @param unsets ~ The fields being removed.
+     * @param increments ~ The counter fields' deltas.
+     */
+    private void restore(final Map<String, Object> sets, final Set<String> unsets, final Map<String, Long> increments) {
+        sets.forEach((field, value) -> {
+            if (!this.unsets.contains(field)) {
+                this.sets.putIfAbsent(field, value);
+            }
+        });
+        unsets.forEach(field -> {
+            if (!this.sets.containsKey(field)) {
+                this.unsets.add(field);
+            }
+        });
+        increments.forEach((field, delta) -> this.increments.merge(field, delta, Long::sum));
+    }
+
+}
@@ -0,0 +1,112 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataFallback {
+
+    private final File file;
+
+    private static final JsonWriterSettings settings = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    /**
+     * Allows you to create a Data Fallback.
+     * It holds the updates that couldn't be sent to the Mongo database, so they can be replayed on the next boot.
+     *
+     * @param file ~ The fallback's file.
+     */
+    public DataFallback(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Allows you to write entries to the fallback.
+     * Every update should be versioned (see DataComponent#getFilter), so replaying one that was already written conflicts instead of applying twice.
+     * The file is written to a temporary file first and then moved over, so it's never left half written.
+     *
+     * @param entries ~ The entries (see DataFallback#createEntry).
+     * @throws IOException ~ If the file couldn't be written.
+     */
+    public void write(final List<Document> entries) throws IOException {
+        if (entries.isEmpty()) {
+            this.delete();
+            return;
+        }
+        final File parent = this.file.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) {
+            parent.mkdirs();
+        }
+        final File temporaryFile = new File(parent, this.file.getName() + ".tmp");
+        try (final BufferedWriter bufferedWriter = Files.newBufferedWriter(temporaryFile.toPath(), StandardCharsets.UTF_8)) {
+            for (final Document entry : entries) {
+                bufferedWriter.write(entry.toJson(settings));
+                bufferedWriter.newLine();
+            }
+        }
+        Files.move(temporaryFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Allows you to read the fallback's entries.
+     *
+     * @return The entries (or empty if there is no fallback).
+     * @throws IOException ~ If the file couldn't be read.
+     */
+    public ArrayList<Document> read() throws IOException {
+        final ArrayList<Document> entries = new ArrayList<Document>();
+        if (!this.file.exists()) {
+            return entries;
+        }
+        for (final String line : Files.readAllLines(this.file.toPath(), StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                entries.add(Document.parse(line));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Allows you to delete the fallback.
+     *
+     * @throws IOException ~ If the file couldn't be deleted.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(this.file.toPath());
+    }
+
+    /**
+     * Allows you to retrieve the fallback's file.
+     *
+     * @return The fallback's file.
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Allows you to create a fallback entry.
+     *
+     * @param collectionName ~ The name of the collection.
+     * @param identifier ~ The document's identifier.
+     * @param update ~ The update.
+     * @return The entry.
+     */
+    public static Document createEntry(final String collectionName, final String identifier, final Document update) {
+        return new Document("collection", collectionName).append("identifier", identifier).append("update", update);
+    }
+
+}
@@ -0,0 +1,103 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.prison.component.components.data.enums.DataOperation;
+import net.evilkingdom.prison.component.components.data.enums.DataWriteResult;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class DataMetrics {
+
+    private final String collection;
+    private final LatencyHistogram[] histograms;
+    private final AtomicLongArray outcomes, inFlight;
+
+    private static final DataOperation[] OPERATIONS = DataOperation.values();
+    private static final DataWriteResult[] RESULTS = DataWriteResult.values();
+
+    /**
+     * Allows you to create a Data Metrics.
+     * It keeps a latency histogram, outcome counters and the amount in flight for every operation on a collection.
+     * Everything is preallocated, so recording an operation never allocates.
+     *
+     * @param collection ~ The name of the collection.
+     */
+    public DataMetrics(final String collection) {
+        this.collection = collection;
+        this.histograms = new LatencyHistogram[OPERATIONS.length];
+        for (int index = 0; index < OPERATIONS.length; index++) {
+            this.histograms[index] = new LatencyHistogram();
+        }
+        this.outcomes = new AtomicLongArray(OPERATIONS.length * RESULTS.length);
+        this.inFlight = new AtomicLongArray(OPERATIONS.length);
+    }
+
+    /**
+     * Allows you to start an operation.
+     * Should be called when the operation is submitted (not when it starts running), so the latency includes the time spent queued.
+     *
+     * @param operation ~ The operation.
+     * @return The operation's start time (to hand to DataMetrics#stop).
+     */
+    public long start(final DataOperation operation) {
+        this.inFlight.incrementAndGet(operation.ordinal());
+        return System.nanoTime();
+    }
+
+    /**
+     * Allows you to stop an operation.
+     *
+     * @param operation ~ The operation.
+     * @param outcome ~ The operation's outcome (reads only ever succeed or fail).
+     * @param startTime ~ The operation's start time (see DataMetrics#start).
+     */
+    public void stop(final DataOperation operation, final DataWriteResult outcome, final long startTime) {
+        this.histograms[operation.ordinal()].record(System.nanoTime() - startTime);
+        this.outcomes.incrementAndGet(operation.ordinal() * RESULTS.length + outcome.ordinal());
+        this.inFlight.decrementAndGet(operation.ordinal());
+    }
+
+    /**
+     * Allows you to retrieve the name of the collection.
+     *
+     * @return The name of the collection.
+     */
+    public String getCollection() {
+        return this.collection;
+    }
+
+    /**
+     * Allows you to retrieve an operation's latency histogram.
+     *
+     * @param operation ~ The operation.
+     * @return The operation's latency histogram.
+     */
+    public LatencyHistogram getHistogram(final DataOperation operation) {
+        return this.histograms[operation.ordinal()];
+    }
+
+    /**
+     * Allows you to retrieve the amount of times an operation had an outcome.
+     *
+     * @param operation ~ The operation.
+     * @param outcome ~ The outcome.
+     * @return The amount of times the operation had the outcome.
+     */
+    public long getOutcomes(final DataOperation operation, final DataWriteResult outcome) {
+        return this.outcomes.get(operation.ordinal() * RESULTS.length + outcome.ordinal());
+    }
+
+    /**
+     * Allows you to retrieve the amount of an operation that are in flight (submitted but not finished).
+     *
+     * @param operation ~ The operation.
+     * @return The amount in flight.
+     */
+    public long getInFlight(final DataOperation operation) {
+        return this.inFlight.get(operation.ordinal());
+    }
+
+}
@@ -0,0 +1,163 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import net.evilkingdom.commons.datapoint.objects.Datapoint;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
+import net.evilkingdom.prison.component.components.data.enums.DataOperation;
+import net.evilkingdom.prison.component.components.data.enums.DataWriteResult;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bukkit.Bukkit;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public class DataRepository<T> {
+
+    private final Datapoint datapoint;
+    private final MongoCollection<T> collection;
+    private final Codec<T> codec;
+    private final DataMetrics metrics;
+    private final Executor executor;
+
+    /**
+     * Allows you to create a Data Repository.
+     * It resolves the collection's datapoint and Mongo collection once, and reads and writes the data through its codec rather than an intermediate JSON tree.
+     *
+     * @param datapoint ~ The collection's datapoint.
+     * @param mongoDatabase ~ The Mongo database.
+     * @param type ~ The data's class.
+     * @param codec ~ The data's codec.
+     * @param metrics ~ The collection's metrics (every call is recorded to them).
+     * @param executor ~ The executor the database calls run on (see DataComponent#getExecutor).
+     */
+    public DataRepository(final Datapoint datapoint, final MongoDatabase mongoDatabase, final Class<T> type, final Codec<T> codec, final DataMetrics metrics, final Executor executor) {
+        this.datapoint = datapoint;
+        this.codec = codec;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.collection = mongoDatabase.getCollection(datapoint.getName(), type).withCodecRegistry(CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(codec), MongoClientSettings.getDefaultCodecRegistry()));
+    }
+
+    /**
+     * Allows you to retrieve if data exists in the Mongo database.
+     *
+     * @param identifier ~ The data's identifier.
+     * @return If the data exists or not.
+     */
+    public CompletableFuture<Boolean> exists(final String identifier) {
+        final long startTime = this.metrics.start(DataOperation.EXISTS);
+        return this.datapoint.exists(identifier).whenComplete((exists, throwable) -> this.metrics.stop(DataOperation.EXISTS, throwable == null ? DataWriteResult.SUCCESS : DataWriteResult.FAILURE, startTime));
+    }
+
+    /**
+     * Allows you to find data in the Mongo database.
+     * Runs asynchronously in order to keep the server from lagging.
+     *
+     * @param identifier ~ The data's identifier.
+     * @return The data (or empty if it doesn't exist).
+     */
+    public CompletableFuture<Optional<T>> find(final String identifier) {
+        final long startTime = this.metrics.start(DataOperation.GET);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                final Optional<T> optionalData = Optional.ofNullable(this.collection.find(Filters.eq("_id", identifier)).first());
+                this.metrics.stop(DataOperation.GET, DataWriteResult.SUCCESS, startTime);
+                return optionalData;
+            } catch (final RuntimeException runtimeException) {
+                this.metrics.stop(DataOperation.GET, DataWriteResult.FAILURE, startTime);
+                throw runtimeException;
+            }
+        }, this.executor);
+    }
+
+    /**
+     * Allows you to replace data in the Mongo database.
+     * The document is created if it doesn't exist yet.
+     *
+     * @param identifier ~ The data's identifier.
+     * @param data ~ The data.
+     * @param asynchronous ~ If the replace is asynchronous (should always be unless it's an emergency save).
+     * @return If the replace was successful or not.
+     */
+    public CompletableFuture<Boolean> replace(final String identifier, final T data, final boolean asynchronous) {
+        final long startTime = this.metrics.start(DataOperation.SAVE);
+        if (asynchronous) {
+            return CompletableFuture.supplyAsync(() -> this.replace(identifier, data, startTime), this.executor);
+        }
+        return CompletableFuture.completedFuture(this.replace(identifier, data, startTime));
+    }
+
+    /**
+     * Allows you to replace data in the Mongo database.
+     *
+     * @param identifier ~ The data's identifier.
+     * @param data ~ The data.
+     * @param startTime ~ The replace's start time (see DataMetrics#start).
+     * @return If the replace was successful or not.
+     */
+    private boolean replace(final String identifier, final T data, final long startTime) {
+        try {
+            this.collection.replaceOne(Filters.eq("_id", identifier), data, new ReplaceOptions().upsert(true));
+            this.metrics.stop(DataOperation.SAVE, DataWriteResult.SUCCESS, startTime);
+            return true;
+        } catch (final MongoException mongoException) {
+            this.metrics.stop(DataOperation.SAVE, DataWriteResult.FAILURE, startTime);
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to save " + identifier + " to " + this.datapoint.getName() + "."));
+            return false;
+        }
+    }
+
+    /**
+     * Allows you to encode data into a document.
+     *
+     * @param data ~ The data.
+     * @return The encoded data.
+     */
+    public BsonDocument encode(final T data) {
+        final BsonDocument document = new BsonDocument();
+        this.codec.encode(new BsonDocumentWriter(document), data, EncoderContext.builder().build());
+        return document;
+    }
+
+    /**
+     * Allows you to retrieve the repository's datapoint.
+     *
+     * @return The repository's datapoint.
+     */
+    public Datapoint getDatapoint() {
+        return this.datapoint;
+    }
+
+    /**
+     * Allows you to retrieve the repository's metrics.
+     *
+     * @return The repository's metrics.
+     */
+    public DataMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Allows you to retrieve the repository's Mongo collection.
+     *
+     * @return The repository's Mongo collection.
+     */
+    public MongoCollection<T> getCollection() {
+        return this.collection;
+    }
+
+}
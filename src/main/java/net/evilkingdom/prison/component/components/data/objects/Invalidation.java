@@ -0,0 +1,85 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import org.bson.Document;
+
+public class Invalidation {
+
+    private final String collection, identifier, origin;
+    private final long version;
+
+    /**
+     * Allows you to create an Invalidation.
+     * It tells the other instances that a document changed, so they can refresh their cached copy of it.
+     *
+     * @param collection ~ The name of the document's collection.
+     * @param identifier ~ The document's identifier.
+     * @param version ~ The document's version after the change.
+     * @param origin ~ The identifier of the instance that changed it.
+     */
+    public Invalidation(final String collection, final String identifier, final long version, final String origin) {
+        this.collection = collection;
+        this.identifier = identifier;
+        this.version = version;
+        this.origin = origin;
+    }
+
+    /**
+     * Allows you to retrieve the invalidation as a document.
+     *
+     * @return The invalidation as a document.
+     */
+    public Document toDocument() {
+        return new Document("collection", this.collection).append("identifier", this.identifier).append("version", this.version).append("origin", this.origin);
+    }
+
+    /**
+     * Allows you to retrieve an invalidation from a document.
+     *
+     * @param document ~ The document.
+     * @return The invalidation.
+     */
+    public static Invalidation fromDocument(final Document document) {
+        return new Invalidation(document.getString("collection"), document.getString("identifier"), ((Number) document.get("version")).longValue(), document.getString("origin"));
+    }
+
+    /**
+     * Allows you to retrieve the name of the document's collection.
+     *
+     * @return The name of the document's collection.
+     */
+    public String getCollection() {
+        return this.collection;
+    }
+
+    /**
+     * Allows you to retrieve the document's identifier.
+     *
+     * @return The document's identifier.
+     */
+    public String getIdentifier() {
+        return this.identifier;
+    }
+
+    /**
+     * Allows you to retrieve the document's version after the change.
+     *
+     * @return The document's version after the change.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Allows you to retrieve the identifier of the instance that changed the document.
+     *
+     * @return The identifier of the instance that changed the document.
+     */
+    public String getOrigin() {
+        return this.origin;
+    }
+
+}
@@ -0,0 +1,172 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    private final AtomicLongArray counts;
+    private final AtomicLong max, intervalMax;
+    private long[] lastCounts;
+
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * Allows you to create a Latency Histogram.
+     * Latencies are counted in microsecond buckets that are exact below 32µs and then split every power of two into 16 (so within ~6%), up to roughly a day and a half.
+     * Recording is a few atomic increments on preallocated arrays, so it never allocates.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.max = new AtomicLong(0L);
+        this.intervalMax = new AtomicLong(0L);
+        this.lastCounts = new long[BUCKETS];
+    }
+
+    /**
+     * Allows you to record a latency.
+     *
+     * @param nanoseconds ~ The latency (in nanoseconds).
+     */
+    public void record(final long nanoseconds) {
+        this.counts.incrementAndGet(getIndex(Math.max(0L, nanoseconds) / 1000L));
+        this.max.accumulateAndGet(nanoseconds, Math::max);
+        this.intervalMax.accumulateAndGet(nanoseconds, Math::max);
+    }
+
+    /**
+     * Allows you to retrieve the histogram's counts since it was created.
+     *
+     * @return The histogram's counts.
+     */
+    public long[] getCounts() {
+        final long[] counts = new long[BUCKETS];
+        for (int index = 0; index < BUCKETS; index++) {
+            counts[index] = this.counts.get(index);
+        }
+        return counts;
+    }
+
+    /**
+     * Allows you to retrieve the histogram's counts since the last time they were retrieved this way.
+     * Used for the periodic stats log, so every line only covers its own interval.
+     *
+     * @return The histogram's counts for the interval.
+     */
+    public synchronized long[] getIntervalCounts() {
+        final long[] counts = this.getCounts();
+        final long[] intervalCounts = new long[BUCKETS];
+        for (int index = 0; index < BUCKETS; index++) {
+            intervalCounts[index] = counts[index] - this.lastCounts[index];
+        }
+        this.lastCounts = counts;
+        return intervalCounts;
+    }
+
+    /**
+     * Allows you to retrieve the highest latency since the histogram was created.
+     *
+     * @return The highest latency (in nanoseconds).
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Allows you to retrieve the highest latency since the last time it was retrieved this way.
+     *
+     * @return The highest latency for the interval (in nanoseconds).
+     */
+    public long getIntervalMax() {
+        return this.intervalMax.getAndSet(0L);
+    }
+
+    /**
+     * Allows you to retrieve the amount of latencies in counts.
+     *
+     * @param counts ~ The counts (see LatencyHistogram#getCounts).
+     * @return The amount of latencies.
+     */
+    public static long getTotal(final long[] counts) {
+        long total = 0L;
+        for (final long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Allows you to retrieve a percentile from counts.
+     * The percentile is the upper bound of the bucket it falls in, so it's never under-reported.
+     *
+     * @param counts ~ The counts (see LatencyHistogram#getCounts).
+     * @param percentile ~ The percentile (between 0 and 100).
+     * @return The percentile's latency (in nanoseconds).
+     */
+    public static long getPercentile(final long[] counts, final double percentile) {
+        final long total = getTotal(counts);
+        if (total == 0L) {
+            return 0L;
+        }
+        final long target = Math.max(1L, (long) Math.ceil(total * (percentile / 100.0)));
+        long seen = 0L;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= target) {
+                return getUpperBound(index) * 1000L;
+            }
+        }
+        return getUpperBound(counts.length - 1) * 1000L;
+    }
+
+    /**
+     * Allows you to format a latency.
+     *
+     * @param nanoseconds ~ The latency (in nanoseconds).
+     * @return The formatted latency.
+     */
+    public static String format(final long nanoseconds) {
+        return String.format("%.1fms", nanoseconds / 1000000.0);
+    }
+
+    /**
+     * Allows you to retrieve the bucket a latency falls in.
+     *
+     * @param microseconds ~ The latency (in microseconds).
+     * @return The bucket.
+     */
+    private static int getIndex(final long microseconds) {
+        if (microseconds < LINEAR_BUCKETS) {
+            return (int) microseconds;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(microseconds);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        return LINEAR_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + (int) ((microseconds >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Allows you to retrieve the highest latency a bucket holds.
+     *
+     * @param index ~ The bucket.
+     * @return The highest latency (in microseconds).
+     */
+    private static long getUpperBound(final int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        final int exponent = SUB_BUCKET_BITS + 1 + (index - LINEAR_BUCKETS) / SUB_BUCKETS;
+        final long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1L) << (exponent - SUB_BUCKET_BITS)) - 1L;
+    }
+
+}
@@ -4,23 +4,21 @@ package net.evilkingdom.prison.component.components.data.objects;
  * Made with love by https://kodirati.com/.
  */
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndReplaceOptions;
 import net.evilkingdom.commons.cooldown.CooldownImplementor;
 import net.evilkingdom.commons.cooldown.objects.Cooldown;
-import net.evilkingdom.commons.datapoint.DataImplementor;
-import net.evilkingdom.commons.datapoint.objects.Datapoint;
-import net.evilkingdom.commons.datapoint.objects.Datasite;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.data.enums.DataWriteResult;
 import org.bson.Document;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class MineData {
@@ -32,11 +30,16 @@ public class MineData {
     private UUID owner;
     private final UUID uuid;
     private boolean privacy;
+    private long version;
     private Location center;
     private final ArrayList<Cooldown> cooldowns;
-    private final ArrayList<UUID> banned, whitelisted;
+    private volatile ArrayList<UUID> banned, whitelisted;
+    private final DataChanges changes;
 
-    private static final HashSet<MineData> cache = new HashSet<MineData>();
+    private static final ConcurrentHashMap<UUID, MineData> cache = new ConcurrentHashMap<UUID, MineData>();
+    private static final ConcurrentHashMap<UUID, MineData> ownerCache = new ConcurrentHashMap<UUID, MineData>();
+    private static final ConcurrentHashMap<Long, MineData> plotCache = new ConcurrentHashMap<Long, MineData>();
+    private static final Set<MineData> dirty = ConcurrentHashMap.newKeySet();
 
     /**
      * Allows you to create a MineData.
@@ -51,107 +54,328 @@ public class MineData {
         this.owner = UUID.randomUUID();
         this.tax = 0.0;
         this.privacy = false;
+        this.version = 0L;
         this.center = new Location(this.plugin.getComponentManager().getMineComponent().getWorld(), 0, 175, 0);
         this.banned = new ArrayList<UUID>();
         this.whitelisted = new ArrayList<UUID>();
+        this.changes = new DataChanges(false);
         this.cooldowns = new ArrayList<Cooldown>();
     }
 
+    /**
+     * Allows you to create a MineData that exists in the Mongo database.
+     * Used by the codec (see MineDataCodec) when the data is loaded.
+     *
+     * @param uuid ~ The UUID of the mine.
+     * @param tax ~ The mine's tax.
+     * @param theme ~ The mine's theme.
+     * @param owner ~ The mine's owner.
+     * @param privacy ~ The mine's privacy.
+     * @param center ~ The mine's center.
+     * @param banned ~ The mine's banned players.
+     * @param whitelisted ~ The mine's whitelisted players.
+     * @param cooldowns ~ The mine's cooldowns (their types and time left).
+     * @param version ~ The mine's version.
+     */
+    public MineData(final UUID uuid, final double tax, final String theme, final UUID owner, final boolean privacy, final Location center, final ArrayList<UUID> banned, final ArrayList<UUID> whitelisted, final HashMap<String, Long> cooldowns, final long version) {
+        this.plugin = Prison.getPlugin();
+
+        this.uuid = uuid;
+        this.tax = tax;
+        this.theme = theme;
+        this.owner = owner;
+        this.privacy = privacy;
+        this.center = center;
+        this.banned = banned;
+        this.whitelisted = whitelisted;
+        this.version = version;
+        this.changes = new DataChanges(true);
+        this.cooldowns = new ArrayList<Cooldown>();
+        cooldowns.forEach((type, timeLeft) -> this.cooldowns.add(new Cooldown(this.plugin, "mine-" + this.uuid + "-" + type, timeLeft)));
+    }
+
     /**
      * Allows you to retrieve if the data exists in the Mongo database.
      *
      * @return If the data exists or not.
      */
     public CompletableFuture<Boolean> exists() {
-        if (cache.contains(this)) {
-            return CompletableFuture.supplyAsync(() -> true);
+        if (this.isCached()) {
+            return CompletableFuture.completedFuture(true);
         } else {
-            final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-            final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-            final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_mines")).findFirst().get();
-            return datapoint.exists(this.uuid.toString());
+            return this.plugin.getComponentManager().getDataComponent().getMineRepository().exists(this.uuid.toString());
         }
     }
 
     /**
-     * Allows you to load the data from the Mongo database.
+     * Allows you to save the data to the Mongo database.
+     * Only the changed fields are sent, alongside the cooldowns since their time left is always changing.
+     * If an update is already being written, the save waits for it and then sends whatever changed since.
+     * If the update conflicts with another instance's write, it's rebased onto that write and sent again.
      *
-     * @return If the data could be loaded or not.
+     * @param asynchronous ~ If the save is asynchronous (should always be unless it's an emergency saves).
+     * @return If the save was successful or not.
      */
-    private CompletableFuture<Boolean> load() {
-        final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-        final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-        final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_mines")).findFirst().get();
-        return datapoint.get(this.uuid.toString()).thenApply(optionalJsonObject -> {
-            if (optionalJsonObject.isEmpty()) {
-                return false;
-            }
-            final JsonObject jsonObject = optionalJsonObject.get();
-            if (jsonObject.has("tax")) {
-                this.tax = jsonObject.get("tax").getAsDouble();
-            }
-            if (jsonObject.has("theme")) {
-                this.theme = jsonObject.get("theme").getAsString();
-            }
-            if (jsonObject.has("owner")) {
-                this.owner = UUID.fromString(jsonObject.get("owner").getAsString());
+    public CompletableFuture<Boolean> save(final boolean asynchronous) {
+        dirty.remove(this);
+        this.changes.set("cooldowns", this.serializeCooldowns());
+        final Optional<Document> optionalUpdate = this.toUpdate();
+        if (optionalUpdate.isEmpty()) {
+            if (this.changes.isWriting()) {
+                return this.changes.getWrite().thenCompose(unused -> this.save(asynchronous));
             }
-            if (jsonObject.has("privacy")) {
-                this.privacy = jsonObject.get("privacy").getAsBoolean();
-            }
-            if (jsonObject.has("center")) {
-                final JsonObject centerJsonObject = jsonObject.get("center").getAsJsonObject();
-                this.center = new Location(this.plugin.getComponentManager().getMineComponent().getWorld(), centerJsonObject.get("x").getAsInt(), 175, centerJsonObject.get("z").getAsInt());
-            }
-            if (jsonObject.has("banned")) {
-                jsonObject.get("banned").getAsJsonArray().forEach(jsonElement -> this.banned.add(UUID.fromString(jsonElement.getAsString())));
-            }
-            if (jsonObject.has("whitelisted")) {
-                jsonObject.get("whitelisted").getAsJsonArray().forEach(jsonElement -> this.banned.add(UUID.fromString(jsonElement.getAsString())));
+            return CompletableFuture.completedFuture(true);
+        }
+        final Document update = optionalUpdate.get();
+        return this.plugin.getComponentManager().getDataComponent().update("prison_mines", this.uuid.toString(), update, asynchronous).thenCompose(writeResult -> {
+            switch (writeResult) {
+                case SUCCESS -> this.acknowledge(update);
+                case FAILURE -> this.restore(update);
+                case CONFLICT -> {
+                    return this.rebase(update).thenCompose(rebased -> rebased ? this.save(asynchronous) : CompletableFuture.completedFuture(false));
+                }
             }
-            if (jsonObject.has("cooldowns")) {
-                jsonObject.get("cooldowns").getAsJsonArray().forEach(jsonElement -> {
-                    final JsonObject cooldownJsonObject = jsonElement.getAsJsonObject();
-                    this.cooldowns.add(new Cooldown(this.plugin, "mine-" + this.uuid + "-" + cooldownJsonObject.get("type").getAsString(), cooldownJsonObject.get("timeLeft").getAsLong()));
-                });
+            return CompletableFuture.completedFuture(writeResult == DataWriteResult.SUCCESS);
+        });
+    }
+
+    /**
+     * Allows you to drain the data's changes into an update for the Mongo database.
+     * The update bumps the data's version, so it only applies if nobody else has written the document since (see DataComponent#getFilter).
+     * Only one update is written at a time, so nothing is drained until the previous update is acknowledged, restored or rebased.
+     *
+     * @return The update (or empty if nothing changed or an update is being written).
+     */
+    public synchronized Optional<Document> toUpdate() {
+        final Optional<Document> optionalUpdate = this.changes.drain(() -> this.serialize());
+        optionalUpdate.ifPresent(update -> {
+            this.version++;
+            ((Document) update.computeIfAbsent("$set", field -> new Document())).append("version", this.version);
+        });
+        return optionalUpdate;
+    }
+
+    /**
+     * Allows you to drain the data's unsaved changes into updates for the shutdown fallback (see DataFallback).
+     * The update being written (if any) comes first, followed by the changes made since, each bumping the version once.
+     * Both are versioned, so replaying one that was already written conflicts instead of applying its deltas twice.
+     * An update being rebased has had its version taken off and its changes put back (see MineData#rebase), so it's left out.
+     *
+     * @return The updates (or empty if everything is saved).
+     */
+    public synchronized ArrayList<Document> toFallback() {
+        final ArrayList<Document> updates = new ArrayList<Document>();
+        this.changes.getWriting().filter(update -> update.get("$set", Document.class) != null && update.get("$set", Document.class).containsKey("version")).ifPresent(updates::add);
+        this.changes.drainPending(() -> this.serialize()).ifPresent(update -> {
+            this.version++;
+            ((Document) update.computeIfAbsent("$set", field -> new Document())).append("version", this.version);
+            updates.add(update);
+        });
+        return updates;
+    }
+
+    /**
+     * Allows you to acknowledge an update being sent.
+     *
+     * @param update ~ The update that was sent.
+     */
+    public void acknowledge(final Document update) {
+        this.complete();
+    }
+
+    /**
+     * Allows you to restore an update that failed to be sent.
+     * The data is marked as dirty so the changes are sent with the next flush.
+     *
+     * @param update ~ The update that failed.
+     */
+    public synchronized void restore(final Document update) {
+        final Document setDocument = update.get("$set", Document.class);
+        final Object version = setDocument == null ? null : setDocument.remove("version");
+        if (version instanceof Number && ((Number) version).longValue() == this.version) {
+            this.version--;
+        }
+        this.changes.restore(update);
+        this.markDirty();
+        this.changes.complete();
+    }
+
+    /**
+     * Allows you to rebase an update that conflicted with another instance's write.
+     * The update's changes are put back, the document is reloaded and the changes are applied on top of it, so they're sent again with the next write instead of being lost.
+     *
+     * @param update ~ The update that conflicted.
+     * @return If the data was rebased (or false if the document couldn't be reloaded, the changes are then retried on the next flush).
+     */
+    public CompletableFuture<Boolean> rebase(final Document update) {
+        synchronized (this) {
+            final Document setDocument = update.get("$set", Document.class);
+            final Object version = setDocument == null ? null : setDocument.remove("version");
+            if (version instanceof Number && ((Number) version).longValue() == this.version) {
+                this.version--;
             }
+            this.changes.restore(update);
+        }
+        return this.plugin.getComponentManager().getDataComponent().getMineRepository().find(this.uuid.toString()).thenApply(optionalMineData -> {
+            this.rebase(optionalMineData);
             return true;
+        }).exceptionally(throwable -> {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to reload " + this.uuid + " from prison_mines after a conflicting write, its changes will be retried on the next flush."));
+            this.complete();
+            return false;
         });
     }
 
     /**
-     * Allows you to save the data to the Mongo database.
+     * Allows you to rebase the data's changes onto a reloaded copy of it.
+     * The fields waiting to be sent keep their values, the rest are taken from the reloaded copy.
+     * The cooldowns are kept, they're only ever ticked by the instance the mine is loaded on.
      *
-     * @param asynchronous ~ If the save is asynchronous (should always be unless it's an emergency saves).
+     * @param optionalMineData ~ The reloaded copy of the data (or empty if the document no longer exists, it's then written in full).
      */
-    public void save(final boolean asynchronous) {
-        final JsonObject jsonObject = new JsonObject();
-        jsonObject.addProperty("tax", this.tax);
-        jsonObject.addProperty("owner", this.owner.toString());
-        jsonObject.addProperty("theme", this.theme);
-        jsonObject.addProperty("privacy", this.privacy);
-        final JsonObject centerJsonObject = new JsonObject();
-        centerJsonObject.addProperty("x", this.center.getBlockX());
-        centerJsonObject.addProperty("z", this.center.getBlockZ());
-        jsonObject.add("center", centerJsonObject);
-        final JsonArray bannedJsonArray = new JsonArray();
-        this.banned.forEach(uuid -> bannedJsonArray.add(uuid.toString()));
-        jsonObject.add("banned", bannedJsonArray);
-        final JsonArray whitelistedJsonArray = new JsonArray();
-        this.whitelisted.forEach(uuid -> whitelistedJsonArray.add(uuid.toString()));
-        jsonObject.add("whitelisted", whitelistedJsonArray);
-        final JsonArray cooldownsJsonArray = new JsonArray();
-        this.getCooldowns().forEach(cooldown -> {
-            final JsonObject cooldownJsonObject = new JsonObject();
-            cooldownJsonObject.addProperty("type", cooldown.getIdentifier().replaceFirst("mine-" + this.uuid + "-", ""));
-            cooldownJsonObject.addProperty("timeLeft", cooldown.getTimeLeft());
-            cooldownsJsonArray.add(cooldownJsonObject);
-        });
-        jsonObject.add("cooldowns", cooldownsJsonArray);
-        final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-        final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-        final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_mines")).findFirst().get();
-        datapoint.save(jsonObject, this.uuid.toString(), asynchronous);
+    private synchronized void rebase(final Optional<MineData> optionalMineData) {
+        if (optionalMineData.isEmpty()) {
+            this.changes.setPersisted(false);
+            this.version = 0L;
+            this.complete();
+            return;
+        }
+        final MineData mineData = optionalMineData.get();
+        this.changes.setPersisted(true);
+        if (!this.changes.isChanged("owner")) {
+            if (this.isCached()) {
+                ownerCache.remove(this.owner, this);
+                ownerCache.put(mineData.owner, this);
+            }
+            this.owner = mineData.owner;
+        }
+        if (!this.changes.isChanged("center")) {
+            if (this.isCached()) {
+                plotCache.remove(this.getPlot(), this);
+                plotCache.put(mineData.getPlot(), this);
+            }
+            this.center = mineData.center;
+        }
+        if (!this.changes.isChanged("tax")) {
+            this.tax = mineData.tax;
+        }
+        if (!this.changes.isChanged("theme")) {
+            this.theme = mineData.theme;
+        }
+        if (!this.changes.isChanged("privacy")) {
+            this.privacy = mineData.privacy;
+        }
+        if (!this.changes.isChanged("banned")) {
+            this.banned = new ArrayList<UUID>(mineData.banned);
+        }
+        if (!this.changes.isChanged("whitelisted")) {
+            this.whitelisted = new ArrayList<UUID>(mineData.whitelisted);
+        }
+        this.version = mineData.version;
+        this.complete();
+    }
+
+    /**
+     * Allows you to complete the update being written.
+     * If the data changed while it was being written, it's marked as dirty so the changes are sent with the next flush.
+     */
+    private void complete() {
+        this.changes.complete();
+        if (!this.changes.isEmpty()) {
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Allows you to refresh the data from a newer copy of it (written by another instance).
+     * Nothing is refreshed if the data has changes waiting to be sent or being written, they're rebased onto the newer copy when their write conflicts instead (see MineData#rebase).
+     * The cooldowns are kept, they're only ever ticked by the instance the mine is loaded on.
+     *
+     * @param mineData ~ The newer copy of the data.
+     * @return If the data was refreshed or not.
+     */
+    public synchronized boolean refresh(final MineData mineData) {
+        if (mineData.version <= this.version || !this.changes.isEmpty() || this.changes.isWriting()) {
+            return false;
+        }
+        if (this.isCached()) {
+            ownerCache.remove(this.owner, this);
+            ownerCache.put(mineData.owner, this);
+            plotCache.remove(this.getPlot(), this);
+            plotCache.put(mineData.getPlot(), this);
+        }
+        this.tax = mineData.tax;
+        this.theme = mineData.theme;
+        this.owner = mineData.owner;
+        this.privacy = mineData.privacy;
+        this.center = mineData.center;
+        this.banned = new ArrayList<UUID>(mineData.banned);
+        this.whitelisted = new ArrayList<UUID>(mineData.whitelisted);
+        this.version = mineData.version;
+        return true;
+    }
+
+    /**
+     * Allows you to serialize the data.
+     *
+     * @return The serialized data.
+     */
+    private Document serialize() {
+        final Document document = new Document();
+        document.append("tax", this.tax);
+        document.append("owner", this.owner.toString());
+        document.append("theme", this.theme);
+        document.append("privacy", this.privacy);
+        document.append("center", this.serializeCenter());
+        document.append("banned", this.serializeUUIDs(this.banned));
+        document.append("whitelisted", this.serializeUUIDs(this.whitelisted));
+        document.append("cooldowns", this.serializeCooldowns());
+        return document;
+    }
+
+    /**
+     * Allows you to serialize the data's center.
+     *
+     * @return The serialized center.
+     */
+    private Document serializeCenter() {
+        return new Document("x", this.center.getBlockX()).append("z", this.center.getBlockZ());
+    }
+
+    /**
+     * Allows you to serialize a list of UUIDs.
+     *
+     * @param uuids ~ The UUIDs to serialize.
+     * @return The serialized UUIDs.
+     */
+    private ArrayList<String> serializeUUIDs(final ArrayList<UUID> uuids) {
+        return new ArrayList<String>(uuids.stream().map(uuid -> uuid.toString()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Allows you to serialize the data's cooldowns.
+     *
+     * @return The serialized cooldowns.
+     */
+    private ArrayList<Document> serializeCooldowns() {
+        return new ArrayList<Document>(this.getCooldowns().stream().map(cooldown -> new Document("type", cooldown.getIdentifier().replaceFirst("mine-" + this.uuid + "-", "")).append("timeLeft", cooldown.getTimeLeft())).collect(Collectors.toList()));
+    }
+
+    /**
+     * Allows you to mark the data as dirty.
+     * Dirty data is picked up by the write-behind flush (see DataComponent#flush).
+     */
+    public void markDirty() {
+        dirty.add(this);
+    }
+
+    /**
+     * Allows you to retrieve if the data is dirty.
+     *
+     * @return If the data is dirty.
+     */
+    public boolean isDirty() {
+        return dirty.contains(this);
     }
 
     /**
@@ -159,8 +383,10 @@ public class MineData {
      *
      * @param tax ~ The data's tax to set.
      */
-    public void setTax(final double tax) {
+    public synchronized void setTax(final double tax) {
+        this.changes.set("tax", tax);
         this.tax = tax;
+        this.markDirty();
     }
 
     /**
@@ -177,8 +403,10 @@ public class MineData {
      *
      * @param theme ~ The data's theme to set.
      */
-    public void setTheme(final String theme) {
+    public synchronized void setTheme(final String theme) {
+        this.changes.set("theme", theme);
         this.theme = theme;
+        this.markDirty();
     }
 
     /**
@@ -195,8 +423,14 @@ public class MineData {
      *
      * @param owner ~ The data's owner to set.
      */
-    public void setOwner(final UUID owner) {
+    public synchronized void setOwner(final UUID owner) {
+        if (this.isCached()) {
+            ownerCache.remove(this.owner, this);
+            ownerCache.put(owner, this);
+        }
+        this.changes.set("owner", owner.toString());
         this.owner = owner;
+        this.markDirty();
     }
 
     /**
@@ -213,8 +447,10 @@ public class MineData {
      *
      * @param privacy ~ The data's privacy to set.
      */
-    public void setPrivate(final boolean privacy) {
+    public synchronized void setPrivate(final boolean privacy) {
+        this.changes.set("privacy", privacy);
         this.privacy = privacy;
+        this.markDirty();
     }
 
     /**
@@ -241,8 +477,24 @@ public class MineData {
      *
      * @param center ~ The data's center to set.
      */
-    public void setCenter(final Location center) {
+    public synchronized void setCenter(final Location center) {
+        if (this.isCached()) {
+            plotCache.remove(this.getPlot(), this);
+            plotCache.put(this.plugin.getComponentManager().getMineComponent().getPlot(center), this);
+        }
         this.center = center;
+        this.changes.set("center", this.serializeCenter());
+        this.markDirty();
+    }
+
+    /**
+     * Allows you to retrieve the data's plot.
+     * It'll calculate using the center location and the plot grid the mines are laid out on.
+     *
+     * @return The data's plot.
+     */
+    public long getPlot() {
+        return this.plugin.getComponentManager().getMineComponent().getPlot(this.center);
     }
 
     /**
@@ -341,22 +593,85 @@ public class MineData {
 
     /**
      * Allows you to retrieve the data's banned.
+     * The list is replaced rather than changed whenever the banned players change, so it can be iterated while another thread refreshes the data.
      *
-     * @return The data's banned.
+     * @return The data's banned (shouldn't be modified).
      */
     public ArrayList<UUID> getBanned() {
         return this.banned;
     }
 
+    /**
+     * Allows you to add a player to the data's banned.
+     *
+     * @param uuid ~ The player's UUID.
+     */
+    public synchronized void addBanned(final UUID uuid) {
+        final ArrayList<UUID> banned = new ArrayList<UUID>(this.banned);
+        banned.add(uuid);
+        this.banned = banned;
+        this.changes.set("banned", this.serializeUUIDs(banned));
+        this.markDirty();
+    }
+
+    /**
+     * Allows you to remove a player from the data's banned.
+     *
+     * @param uuid ~ The player's UUID.
+     */
+    public synchronized void removeBanned(final UUID uuid) {
+        final ArrayList<UUID> banned = new ArrayList<UUID>(this.banned);
+        banned.remove(uuid);
+        this.banned = banned;
+        this.changes.set("banned", this.serializeUUIDs(banned));
+        this.markDirty();
+    }
+
     /**
      * Allows you to retrieve the data's whitelisted.
+     * The list is replaced rather than changed whenever the whitelisted players change, so it can be iterated while another thread refreshes the data.
      *
-     * @return The data's whitelisted.
+     * @return The data's whitelisted (shouldn't be modified).
      */
     public ArrayList<UUID> getWhitelisted() {
         return this.whitelisted;
     }
 
+    /**
+     * Allows you to add a player to the data's whitelisted.
+     *
+     * @param uuid ~ The player's UUID.
+     */
+    public synchronized void addWhitelisted(final UUID uuid) {
+        final ArrayList<UUID> whitelisted = new ArrayList<UUID>(this.whitelisted);
+        whitelisted.add(uuid);
+        this.whitelisted = whitelisted;
+        this.changes.set("whitelisted", this.serializeUUIDs(whitelisted));
+        this.markDirty();
+    }
+
+    /**
+     * Allows you to remove a player from the data's whitelisted.
+     *
+     * @param uuid ~ The player's UUID.
+     */
+    public synchronized void removeWhitelisted(final UUID uuid) {
+        final ArrayList<UUID> whitelisted = new ArrayList<UUID>(this.whitelisted);
+        whitelisted.remove(uuid);
+        this.whitelisted = whitelisted;
+        this.changes.set("whitelisted", this.serializeUUIDs(whitelisted));
+        this.markDirty();
+    }
+
+    /**
+     * Allows you to retrieve the data's version.
+     *
+     * @return The data's version (the amount of times it has been written).
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
     /**
      * Allows you to retrieve the data's UUID.
      *
@@ -370,7 +685,11 @@ public class MineData {
      * Allows you to cache the data.
      */
     public void cache() {
-        cache.add(this);
+        if (cache.putIfAbsent(this.uuid, this) != null) {
+            return;
+        }
+        ownerCache.put(this.owner, this);
+        plotCache.put(this.getPlot(), this);
         this.cooldowns.forEach(cooldown -> cooldown.start());
     }
 
@@ -379,7 +698,9 @@ public class MineData {
      */
     public void uncache() {
         this.getCooldowns().forEach(cooldown -> cooldown.stop());
-        cache.remove(this);
+        ownerCache.remove(this.owner, this);
+        plotCache.remove(this.getPlot(), this);
+        cache.remove(this.uuid, this);
     }
 
     /**
@@ -388,7 +709,7 @@ public class MineData {
      * @return If the data is cached.
      */
     public boolean isCached() {
-        return cache.contains(this);
+        return cache.get(this.uuid) == this;
     }
 
     /**
@@ -396,8 +717,17 @@ public class MineData {
      *
      * @return The cache.
      */
-    public static HashSet<MineData> getCache() {
-        return cache;
+    public static Collection<MineData> getCache() {
+        return cache.values();
+    }
+
+    /**
+     * Allows you to retrieve the dirty data.
+     *
+     * @return The dirty data.
+     */
+    public static Set<MineData> getDirty() {
+        return dirty;
     }
 
     /**
@@ -408,12 +738,11 @@ public class MineData {
      * @return The self class.
      */
     public static CompletableFuture<MineData> get(final UUID uuid) {
-        final Optional<MineData> optionalMineData = cache.stream().filter(mineData -> mineData.getUUID() == uuid).findAny();
-        if (optionalMineData.isPresent()) {
-            return CompletableFuture.supplyAsync(() -> optionalMineData.get());
+        final MineData cachedMineData = cache.get(uuid);
+        if (cachedMineData != null) {
+            return CompletableFuture.completedFuture(cachedMineData);
         } else {
-            final MineData mineData = new MineData(uuid);
-            return mineData.load().thenApply(loadSuccessful -> mineData);
+            return Prison.getPlugin().getComponentManager().getDataComponent().getMineRepository().find(uuid.toString()).thenApply(optionalMineData -> optionalMineData.orElseGet(() -> new MineData(uuid)));
         }
     }
 
@@ -425,7 +754,29 @@ public class MineData {
      * @return The self class.
      */
     public static Optional<MineData> getViaCache(final UUID uuid) {
-        return cache.stream().filter(mineData -> mineData.getUUID() == uuid).findFirst();
+        return Optional.ofNullable(cache.get(uuid));
+    }
+
+    /**
+     * Allows you to retrieve a MineData from the cache directly by its owner.
+     * This should only be used if you know this will be cached.
+     *
+     * @param owner ~ The mine owner's UUID.
+     * @return The self class.
+     */
+    public static Optional<MineData> getViaCacheByOwner(final UUID owner) {
+        return Optional.ofNullable(ownerCache.get(owner));
+    }
+
+    /**
+     * Allows you to retrieve a MineData from the cache directly by its plot.
+     * This should only be used if you know this will be cached.
+     *
+     * @param plot ~ The mine's plot (see MineComponent#getPlot).
+     * @return The self class.
+     */
+    public static Optional<MineData> getViaCacheByPlot(final long plot) {
+        return Optional.ofNullable(plotCache.get(plot));
     }
 
 }
@@ -0,0 +1,266 @@
+package net.evilkingdom.prison.component.components.data.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import net.evilkingdom.commons.utilities.mojang.MojangUtilities;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
+import org.bson.Document;
+import org.bukkit.Bukkit;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class NameIndex {
+
+    private final MongoCollection<Document> collection;
+    private final long negativeExpiry;
+    private final Executor executor;
+    private final LinkedHashMap<String, UUID> uuids;
+    private final LinkedHashMap<UUID, String> names;
+    private final LinkedHashMap<String, Long> misses;
+    private final LinkedHashMap<UUID, Long> nameMisses;
+    private final HashMap<UUID, CompletableFuture<Optional<String>>> nameLookups;
+
+    /**
+     * Allows you to create a Name Index.
+     * It resolves names to UUIDs from the players who have logged in (kept in the Mongo database), only asking Mojang about names it has never seen.
+     *
+     * @param mongoDatabase ~ The Mongo database.
+     * @param maximumSize ~ The maximum amount of names kept in memory.
+     * @param negativeExpiry ~ How long a name that doesn't exist is remembered for (in milliseconds).
+     * @param executor ~ The executor the database calls run on (see DataComponent#getExecutor).
+     */
+    public NameIndex(final MongoDatabase mongoDatabase, final int maximumSize, final long negativeExpiry, final Executor executor) {
+        this.collection = mongoDatabase.getCollection("prison_names");
+        this.negativeExpiry = TimeUnit.MILLISECONDS.toNanos(negativeExpiry);
+        this.executor = executor;
+        this.uuids = this.createCache(maximumSize);
+        this.names = this.createCache(maximumSize);
+        this.misses = this.createCache(maximumSize);
+        this.nameMisses = this.createCache(maximumSize);
+        this.nameLookups = new HashMap<UUID, CompletableFuture<Optional<String>>>();
+    }
+
+    /**
+     * Allows you to initialize the index.
+     * Makes sure the Mongo collection is indexed by the lowercase name, so lookups don't scan it.
+     */
+    public void initialize() {
+        try {
+            this.collection.createIndex(Indexes.ascending("lowerName"));
+        } catch (final MongoException mongoException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to index prison_names, name lookups will be slower."));
+        }
+    }
+
+    /**
+     * Allows you to record a player's name.
+     * Should be called whenever a player logs in, so the index follows name changes.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @param name ~ The name of the player.
+     * @return The record's completion state.
+     */
+    public CompletableFuture<Void> record(final UUID uuid, final String name) {
+        this.remember(uuid, name);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                this.collection.updateOne(Filters.eq("_id", uuid.toString()), Updates.combine(Updates.set("name", name), Updates.set("lowerName", name.toLowerCase(Locale.ROOT)), Updates.set("seen", System.currentTimeMillis())), new UpdateOptions().upsert(true));
+            } catch (final MongoException mongoException) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to record " + name + " to prison_names."));
+            }
+        }, this.executor);
+    }
+
+    /**
+     * Allows you to retrieve a player's UUID from their name (case insensitive).
+     * Checks memory first, then the players who have logged in, and only then Mojang.
+     *
+     * @param name ~ The name of the player.
+     * @return The UUID of the player (or empty if the name doesn't exist).
+     */
+    public CompletableFuture<Optional<UUID>> getUUID(final String name) {
+        final String lowerName = name.toLowerCase(Locale.ROOT);
+        synchronized (this) {
+            final UUID uuid = this.uuids.get(lowerName);
+            if (uuid != null) {
+                return CompletableFuture.completedFuture(Optional.of(uuid));
+            }
+            final Long expiry = this.misses.get(lowerName);
+            if (expiry != null) {
+                if (expiry - System.nanoTime() > 0L) {
+                    return CompletableFuture.completedFuture(Optional.empty());
+                }
+                this.misses.remove(lowerName);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> this.find(lowerName), this.executor).thenCompose(optionalUUID -> {
+            if (optionalUUID.isPresent()) {
+                return CompletableFuture.completedFuture(optionalUUID);
+            }
+            return MojangUtilities.getUUID(name).thenApply(optionalMojangUUID -> {
+                if (optionalMojangUUID.isPresent()) {
+                    this.remember(optionalMojangUUID.get(), name);
+                } else {
+                    synchronized (this) {
+                        this.misses.put(lowerName, System.nanoTime() + this.negativeExpiry);
+                    }
+                }
+                return optionalMojangUUID;
+            });
+        });
+    }
+
+    /**
+     * Allows you to retrieve a player's name from their UUID, only from memory.
+     * If the name isn't in memory, it's looked up in the background (see NameIndex#findName) so it is the next time.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @return The name of the player (or empty if it isn't in memory).
+     */
+    public Optional<String> getName(final UUID uuid) {
+        synchronized (this) {
+            final String name = this.names.get(uuid);
+            if (name != null) {
+                return Optional.of(name);
+            }
+        }
+        this.findName(uuid);
+        return Optional.empty();
+    }
+
+    /**
+     * Allows you to find a player's name from their UUID.
+     * Checks memory first, then the players who have logged in, remembering UUIDs that have never logged in for a while.
+     * Concurrent lookups for the same UUID share the same query.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @return The name of the player (or empty if they have never logged in).
+     */
+    public CompletableFuture<Optional<String>> findName(final UUID uuid) {
+        final CompletableFuture<Optional<String>> future;
+        synchronized (this) {
+            final String name = this.names.get(uuid);
+            if (name != null) {
+                return CompletableFuture.completedFuture(Optional.of(name));
+            }
+            final Long expiry = this.nameMisses.get(uuid);
+            if (expiry != null) {
+                if (expiry - System.nanoTime() > 0L) {
+                    return CompletableFuture.completedFuture(Optional.empty());
+                }
+                this.nameMisses.remove(uuid);
+            }
+            final CompletableFuture<Optional<String>> inFlightFuture = this.nameLookups.get(uuid);
+            if (inFlightFuture != null) {
+                return inFlightFuture;
+            }
+            future = new CompletableFuture<Optional<String>>();
+            this.nameLookups.put(uuid, future);
+        }
+        CompletableFuture.runAsync(() -> {
+            final Optional<String> optionalName = this.find(uuid);
+            synchronized (this) {
+                this.nameLookups.remove(uuid, future);
+                if (optionalName.isEmpty()) {
+                    this.nameMisses.put(uuid, System.nanoTime() + this.negativeExpiry);
+                }
+            }
+            future.complete(optionalName);
+        }, this.executor);
+        return future;
+    }
+
+    /**
+     * Allows you to find a player's name in the Mongo database.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @return The name of the player (or empty if they have never logged in).
+     */
+    private Optional<String> find(final UUID uuid) {
+        try {
+            final Document document = this.collection.find(Filters.eq("_id", uuid.toString())).first();
+            if (document == null || document.getString("name") == null) {
+                return Optional.empty();
+            }
+            final String name = document.getString("name");
+            this.remember(uuid, name);
+            return Optional.of(name);
+        } catch (final MongoException mongoException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to look " + uuid + " up in prison_names."));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Allows you to find a player's UUID in the Mongo database.
+     * If the name was used by several players (after a name change), the one who logged in most recently owns it.
+     *
+     * @param lowerName ~ The lowercase name of the player.
+     * @return The UUID of the player (or empty if no player who has logged in has the name).
+     */
+    private Optional<UUID> find(final String lowerName) {
+        try {
+            final Document document = this.collection.find(Filters.eq("lowerName", lowerName)).sort(Sorts.descending("seen")).first();
+            if (document == null) {
+                return Optional.empty();
+            }
+            final UUID uuid = UUID.fromString(document.getString("_id"));
+            this.remember(uuid, document.getString("name"));
+            return Optional.of(uuid);
+        } catch (final MongoException mongoException) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to look " + lowerName + " up in prison_names."));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Allows you to remember a player's name and UUID in memory.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @param name ~ The name of the player.
+     */
+    private synchronized void remember(final UUID uuid, final String name) {
+        final String lowerName = name.toLowerCase(Locale.ROOT);
+        final String previousName = this.names.put(uuid, name);
+        if (previousName != null && !previousName.equalsIgnoreCase(name)) {
+            this.uuids.remove(previousName.toLowerCase(Locale.ROOT), uuid);
+        }
+        this.uuids.put(lowerName, uuid);
+        this.misses.remove(lowerName);
+        this.nameMisses.remove(uuid);
+    }
+
+    /**
+     * Allows you to create a least recently used cache.
+     *
+     * @param maximumSize ~ The maximum amount of entries.
+     * @return The cache.
+     */
+    private <K, V> LinkedHashMap<K, V> createCache(final int maximumSize) {
+        return new LinkedHashMap<K, V>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return this.size() > maximumSize;
+            }
+        };
+    }
+
+}
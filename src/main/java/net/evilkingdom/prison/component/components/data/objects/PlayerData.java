@@ -4,21 +4,24 @@ package net.evilkingdom.prison.component.components.data.objects;
  * Made with love by https://kodirati.com/.
  */
 
-import com.google.gson.JsonObject;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndReplaceOptions;
-import net.evilkingdom.commons.datapoint.DataImplementor;
-import net.evilkingdom.commons.datapoint.objects.Datapoint;
-import net.evilkingdom.commons.datapoint.objects.Datasite;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.data.enums.DataWriteResult;
+import net.evilkingdom.prison.component.components.leaderboard.LeaderboardComponent;
+import net.evilkingdom.prison.component.components.leaderboard.enums.LeaderboardType;
 import org.bson.Document;
 import org.bukkit.Bukkit;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PlayerData {
 
@@ -27,9 +30,13 @@ public class PlayerData {
     private final UUID uuid;
     private Optional<UUID> mine;
     private double multiplier;
-    private long rank, tokens, gems, blocksMined;
+    private long rank, tokens, gems, blocksMined, journalSequence, version;
+    private final DataChanges changes;
 
-    private static final HashSet<PlayerData> cache = new HashSet<PlayerData>();
+    private static final ConcurrentHashMap<UUID, PlayerData> cache = new ConcurrentHashMap<UUID, PlayerData>();
+    private static final ConcurrentHashMap<UUID, CompletableFuture<PlayerData>> loading = new ConcurrentHashMap<UUID, CompletableFuture<PlayerData>>();
+    private static final Set<UUID> preloading = ConcurrentHashMap.newKeySet();
+    private static final Set<PlayerData> dirty = ConcurrentHashMap.newKeySet();
 
     /**
      * Allows you to create a PlayerData.
@@ -44,8 +51,40 @@ public class PlayerData {
         this.tokens = 0L;
         this.gems = 0L;
         this.blocksMined = 0L;
+        this.journalSequence = 0L;
+        this.version = 0L;
         this.multiplier = 1.0;
         this.mine = Optional.empty();
+        this.changes = new DataChanges(false);
+    }
+
+    /**
+     * Allows you to create a PlayerData that exists in the Mongo database.
+     * Used by the codec (see PlayerDataCodec) when the data is loaded.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @param mine ~ The player's mine.
+     * @param rank ~ The player's rank.
+     * @param tokens ~ The player's tokens.
+     * @param gems ~ The player's gems.
+     * @param blocksMined ~ The player's blocks mined.
+     * @param multiplier ~ The player's multiplier.
+     * @param journalSequence ~ The sequence number of the player's latest saved currency journal entry.
+     * @param version ~ The player's version.
+     */
+    public PlayerData(final UUID uuid, final Optional<UUID> mine, final long rank, final long tokens, final long gems, final long blocksMined, final double multiplier, final long journalSequence, final long version) {
+        this.plugin = Prison.getPlugin();
+
+        this.uuid = uuid;
+        this.mine = mine;
+        this.rank = rank;
+        this.tokens = tokens;
+        this.gems = gems;
+        this.blocksMined = blocksMined;
+        this.multiplier = multiplier;
+        this.journalSequence = journalSequence;
+        this.version = version;
+        this.changes = new DataChanges(true);
     }
 
     /**
@@ -54,70 +93,244 @@ public class PlayerData {
      * @return If the data exists or not.
      */
     public CompletableFuture<Boolean> exists() {
-        if (cache.contains(this)) {
-            return CompletableFuture.supplyAsync(() -> true);
+        if (this.isCached()) {
+            return CompletableFuture.completedFuture(true);
         } else {
-            final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-            final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-            final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_players")).findFirst().get();
-            return datapoint.exists(this.uuid.toString());
+            return this.plugin.getComponentManager().getDataComponent().getPlayerRepository().exists(this.uuid.toString());
         }
     }
 
     /**
-     * Allows you to load the data from the Mongo database.
-     * Runs asynchronously in order to keep the server from lagging.
+     * Allows you to save the data to the Mongo database.
+     * Only the changed fields are sent, with the counters being incremented instead of overwritten.
+     * If an update is already being written, the save waits for it and then sends whatever changed since.
+     * If the update conflicts with another instance's write, it's rebased onto that write and sent again.
      *
-     * @return If the data could be loaded or not.
+     * @param asynchronous ~ If the save is asynchronous (should always be unless it's an emergency saves).
+     * @return If the save was successful or not.
      */
-    private CompletableFuture<Boolean> load() {
-        final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-        final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-        final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_players")).findFirst().get();
-        return datapoint.get(this.uuid.toString()).thenApply(optionalJsonObject -> {
-            if (optionalJsonObject.isEmpty()) {
-                return false;
-            }
-            final JsonObject jsonObject = optionalJsonObject.get();
-            if (jsonObject.has("mine")) {
-                this.mine = Optional.of(UUID.fromString(jsonObject.get("mine").getAsString()));
-            }
-            if (jsonObject.has("tokens")) {
-                this.tokens = jsonObject.get("tokens").getAsLong();
+    public CompletableFuture<Boolean> save(final boolean asynchronous) {
+        dirty.remove(this);
+        final Optional<Document> optionalUpdate = this.toUpdate();
+        if (optionalUpdate.isEmpty()) {
+            if (this.changes.isWriting()) {
+                return this.changes.getWrite().thenCompose(unused -> this.save(asynchronous));
             }
-            if (jsonObject.has("gems")) {
-                this.gems = jsonObject.get("gems").getAsLong();
-            }
-            if (jsonObject.has("rank")) {
-                this.rank = jsonObject.get("rank").getAsLong();
-            }
-            if (jsonObject.has("blocksMined")) {
-                this.blocksMined = jsonObject.get("blocksMined").getAsLong();
+            return CompletableFuture.completedFuture(true);
+        }
+        final Document update = optionalUpdate.get();
+        return this.plugin.getComponentManager().getDataComponent().update("prison_players", this.uuid.toString(), update, asynchronous).thenCompose(writeResult -> {
+            switch (writeResult) {
+                case SUCCESS -> this.acknowledge(update);
+                case FAILURE -> this.restore(update);
+                case CONFLICT -> {
+                    return this.rebase(update).thenCompose(rebased -> rebased ? this.save(asynchronous) : CompletableFuture.completedFuture(false));
+                }
             }
-            if (jsonObject.has("multiplier")) {
-                this.multiplier = jsonObject.get("multiplier").getAsDouble();
+            return CompletableFuture.completedFuture(writeResult == DataWriteResult.SUCCESS);
+        });
+    }
+
+    /**
+     * Allows you to drain the data's changes into an update for the Mongo database.
+     * The update bumps the data's version, so it only applies if nobody else has written the document since (see DataComponent#getFilter).
+     * Only one update is written at a time, so nothing is drained until the previous update is acknowledged, restored or rebased.
+     *
+     * @return The update (or empty if nothing changed or an update is being written).
+     */
+    public synchronized Optional<Document> toUpdate() {
+        final Optional<Document> optionalUpdate = this.changes.drain(() -> this.serialize());
+        optionalUpdate.ifPresent(update -> {
+            this.version++;
+            ((Document) update.computeIfAbsent("$set", field -> new Document())).append("version", this.version);
+        });
+        return optionalUpdate;
+    }
+
+    /**
+     * Allows you to drain the data's unsaved changes into updates for the shutdown fallback (see DataFallback).
+     * The update being written (if any) comes first, followed by the changes made since, each bumping the version once.
+     * Both are versioned, so replaying one that was already written conflicts instead of applying its deltas twice.
+     * An update being rebased has had its version taken off and its changes put back (see PlayerData#rebase), so it's left out.
+     *
+     * @return The updates (or empty if everything is saved).
+     */
+    public synchronized ArrayList<Document> toFallback() {
+        final ArrayList<Document> updates = new ArrayList<Document>();
+        this.changes.getWriting().filter(update -> update.get("$set", Document.class) != null && update.get("$set", Document.class).containsKey("version")).ifPresent(updates::add);
+        this.changes.drainPending(() -> this.serialize()).ifPresent(update -> {
+            this.version++;
+            ((Document) update.computeIfAbsent("$set", field -> new Document())).append("version", this.version);
+            updates.add(update);
+        });
+        return updates;
+    }
+
+    /**
+     * Allows you to acknowledge an update being sent.
+     * The currency journal's entries that the update covers are no longer needed.
+     *
+     * @param update ~ The update that was sent.
+     */
+    public void acknowledge(final Document update) {
+        final Document setDocument = update.get("$set", Document.class);
+        final Optional<String> optionalJournalField = this.getJournalField();
+        if (setDocument != null && optionalJournalField.isPresent() && setDocument.containsKey(optionalJournalField.get())) {
+            this.plugin.getComponentManager().getDataComponent().getJournal().acknowledge(this.uuid, ((Number) setDocument.get(optionalJournalField.get())).longValue());
+        }
+        this.complete();
+    }
+
+    /**
+     * Allows you to restore an update that failed to be sent.
+     * The data is marked as dirty so the changes are sent with the next flush.
+     *
+     * @param update ~ The update that failed.
+     */
+    public synchronized void restore(final Document update) {
+        final Document setDocument = update.get("$set", Document.class);
+        final Object version = setDocument == null ? null : setDocument.remove("version");
+        if (version instanceof Number && ((Number) version).longValue() == this.version) {
+            this.version--;
+        }
+        this.changes.restore(update);
+        this.markDirty();
+        this.changes.complete();
+    }
+
+    /**
+     * Allows you to rebase an update that conflicted with another instance's write.
+     * The update's changes are put back, the document is reloaded and the changes are applied on top of it, so they're sent again with the next write instead of being lost.
+     * The currency journal's entries that the update covers stay unacknowledged until they're actually written.
+     *
+     * @param update ~ The update that conflicted.
+     * @return If the data was rebased (or false if the document couldn't be reloaded, the changes are then retried on the next flush).
+     */
+    public CompletableFuture<Boolean> rebase(final Document update) {
+        synchronized (this) {
+            final Document setDocument = update.get("$set", Document.class);
+            final Object version = setDocument == null ? null : setDocument.remove("version");
+            if (version instanceof Number && ((Number) version).longValue() == this.version) {
+                this.version--;
             }
+            this.changes.restore(update);
+        }
+        return this.plugin.getComponentManager().getDataComponent().getPlayerRepository().find(this.uuid.toString()).thenApply(optionalPlayerData -> {
+            this.rebase(optionalPlayerData);
             return true;
+        }).exceptionally(throwable -> {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to reload " + this.uuid + " from prison_players after a conflicting write, its changes will be retried on the next flush."));
+            this.complete();
+            return false;
         });
     }
 
     /**
-     * Allows you to save the data to the Mongo database.
+     * Allows you to rebase the data's changes onto a reloaded copy of it.
+     * The counters become the reloaded values plus the deltas waiting to be sent, and the fields waiting to be sent keep their values.
+     * The journal sequence is kept, it belongs to this instance's currency journal.
      *
-     * @param asynchronous ~ If the save is asynchronous (should always be unless it's an emergency saves).
+     * @param optionalPlayerData ~ The reloaded copy of the data (or empty if the document no longer exists, it's then written in full).
+     */
+    private void rebase(final Optional<PlayerData> optionalPlayerData) {
+        synchronized (this) {
+            if (optionalPlayerData.isEmpty()) {
+                this.changes.setPersisted(false);
+                this.version = 0L;
+            } else {
+                final PlayerData playerData = optionalPlayerData.get();
+                this.changes.setPersisted(true);
+                if (!this.changes.isChanged("mine")) {
+                    this.mine = playerData.mine;
+                }
+                if (!this.changes.isChanged("multiplier")) {
+                    this.multiplier = playerData.multiplier;
+                }
+                if (!this.changes.isChanged("rank")) {
+                    this.rank = playerData.rank;
+                }
+                this.tokens = playerData.tokens + this.changes.getIncrement("tokens");
+                this.gems = playerData.gems + this.changes.getIncrement("gems");
+                this.blocksMined = playerData.blocksMined + this.changes.getIncrement("blocksMined");
+                this.version = playerData.version;
+            }
+        }
+        this.rank(LeaderboardType.RANK, this.rank);
+        this.rank(LeaderboardType.TOKENS, this.tokens);
+        this.rank(LeaderboardType.GEMS, this.gems);
+        this.rank(LeaderboardType.BLOCKS_MINED, this.blocksMined);
+        this.complete();
+    }
+
+    /**
+     * Allows you to complete the update being written.
+     * If the data changed while it was being written, it's marked as dirty so the changes are sent with the next flush.
+     */
+    private void complete() {
+        this.changes.complete();
+        if (!this.changes.isEmpty()) {
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Allows you to refresh the data from a newer copy of it (written by another instance).
+     * Nothing is refreshed if the data has changes waiting to be sent or being written, they're rebased onto the newer copy when their write conflicts instead (see PlayerData#rebase).
+     * The journal sequence is kept, it belongs to this instance's currency journal.
+     *
+     * @param playerData ~ The newer copy of the data.
+     * @return If the data was refreshed or not.
+     */
+    public synchronized boolean refresh(final PlayerData playerData) {
+        if (playerData.version <= this.version || !this.changes.isEmpty() || this.changes.isWriting()) {
+            return false;
+        }
+        this.mine = playerData.mine;
+        this.multiplier = playerData.multiplier;
+        this.rank = playerData.rank;
+        this.tokens = playerData.tokens;
+        this.gems = playerData.gems;
+        this.blocksMined = playerData.blocksMined;
+        this.version = playerData.version;
+        this.rank(LeaderboardType.RANK, this.rank);
+        this.rank(LeaderboardType.TOKENS, this.tokens);
+        this.rank(LeaderboardType.GEMS, this.gems);
+        this.rank(LeaderboardType.BLOCKS_MINED, this.blocksMined);
+        return true;
+    }
+
+    /**
+     * Allows you to serialize the data.
+     *
+     * @return The serialized data.
+     */
+    private Document serialize() {
+        final Document document = new Document();
+        this.mine.ifPresent(mine -> document.append("mine", mine.toString()));
+        document.append("tokens", this.tokens);
+        document.append("gems", this.gems);
+        document.append("rank", this.rank);
+        document.append("blocksMined", this.blocksMined);
+        document.append("multiplier", this.multiplier);
+        this.getJournalField().ifPresent(journalField -> document.append(journalField, this.journalSequence));
+        return document;
+    }
+
+    /**
+     * Allows you to mark the data as dirty.
+     * Dirty data is picked up by the write-behind flush (see DataComponent#flush).
+     */
+    public void markDirty() {
+        dirty.add(this);
+    }
+
+    /**
+     * Allows you to retrieve if the data is dirty.
+     *
+     * @return If the data is dirty.
      */
-    public void save(final boolean asynchronous) {
-        final JsonObject jsonObject = new JsonObject();
-        this.mine.ifPresent(mine -> jsonObject.addProperty("mine", mine.toString()));
-        jsonObject.addProperty("tokens", this.tokens);
-        jsonObject.addProperty("gems", this.gems);
-        jsonObject.addProperty("rank", this.rank);
-        jsonObject.addProperty("blocksMined", this.blocksMined);
-        jsonObject.addProperty("multiplier", this.multiplier);
-        final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-        final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-        final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_players")).findFirst().get();
-        datapoint.save(jsonObject, this.uuid.toString(), asynchronous);
+    public boolean isDirty() {
+        return dirty.contains(this);
     }
 
     /**
@@ -125,8 +338,11 @@ public class PlayerData {
      *
      * @param gems ~ The data's gems to set.
      */
-    public void setGems(final long gems) {
+    public synchronized void setGems(final long gems) {
+        this.journal("gems", gems - this.gems);
         this.gems = gems;
+        this.markDirty();
+        this.rank(LeaderboardType.GEMS, gems);
     }
 
     /**
@@ -143,8 +359,14 @@ public class PlayerData {
      *
      * @param mine ~ The data's mine to set.
      */
-    public void setMine(final Optional<UUID> mine) {
+    public synchronized void setMine(final Optional<UUID> mine) {
+        if (mine.isPresent()) {
+            this.changes.set("mine", mine.get().toString());
+        } else {
+            this.changes.unset("mine");
+        }
         this.mine = mine;
+        this.markDirty();
     }
 
     /**
@@ -161,8 +383,64 @@ public class PlayerData {
      *
      * @param tokens ~ The data's tokens to set.
      */
-    public void setTokens(final long tokens) {
+    public synchronized void setTokens(final long tokens) {
+        this.journal("tokens", tokens - this.tokens);
         this.tokens = tokens;
+        this.markDirty();
+        this.rank(LeaderboardType.TOKENS, tokens);
+    }
+
+    /**
+     * Allows you to record a currency change.
+     * The change is appended to the currency journal before being recorded, so it survives a crash until it's saved.
+     *
+     * @param currency ~ The currency (either "tokens" or "gems").
+     * @param delta ~ The amount the currency changed by.
+     */
+    private void journal(final String currency, final long delta) {
+        if (delta == 0L) {
+            return;
+        }
+        long sequence;
+        try {
+            sequence = this.plugin.getComponentManager().getDataComponent().getJournal().append(this.uuid, currency, delta);
+        } catch (final IOException ioException) {
+            sequence = -1L;
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Data] Failed to journal a " + currency + " change for " + this.uuid + ", it won't survive a crash until it's saved."));
+        }
+        this.changes.increment(currency, delta);
+        final Optional<String> optionalJournalField = this.getJournalField();
+        if (sequence > this.journalSequence && optionalJournalField.isPresent()) {
+            this.journalSequence = sequence;
+            this.changes.set(optionalJournalField.get(), sequence);
+        }
+    }
+
+    /**
+     * Allows you to retrieve the field holding the journal sequence of this instance's currency journal.
+     * Every instance's journal numbers its entries on its own, so each one keeps its own sequence under "journalSequences".
+     *
+     * @return The field (or empty if the currency journal couldn't be opened).
+     */
+    private Optional<String> getJournalField() {
+        final String journal = this.plugin.getComponentManager().getDataComponent().getJournal().getIdentifier();
+        if (journal == null) {
+            return Optional.empty();
+        }
+        return Optional.of("journalSequences." + journal);
+    }
+
+    /**
+     * Allows you to update the data on a leaderboard.
+     *
+     * @param leaderboardType ~ The leaderboard's type.
+     * @param value ~ The data's new value.
+     */
+    private void rank(final LeaderboardType leaderboardType, final long value) {
+        final LeaderboardComponent leaderboardComponent = this.plugin.getComponentManager().getLeaderboardComponent();
+        if (leaderboardComponent != null) {
+            leaderboardComponent.update(leaderboardType, this.uuid, value);
+        }
     }
 
     /**
@@ -179,8 +457,11 @@ public class PlayerData {
      *
      * @param blocksMined ~ The data's blocks mined to set.
      */
-    public void setBlocksMined(final long blocksMined) {
+    public synchronized void setBlocksMined(final long blocksMined) {
+        this.changes.increment("blocksMined", blocksMined - this.blocksMined);
         this.blocksMined = blocksMined;
+        this.markDirty();
+        this.rank(LeaderboardType.BLOCKS_MINED, blocksMined);
     }
 
     /**
@@ -197,8 +478,10 @@ public class PlayerData {
      *
      * @param multiplier ~ The data's multiplier to set.
      */
-    public void setMultiplier(final double multiplier) {
+    public synchronized void setMultiplier(final double multiplier) {
+        this.changes.set("multiplier", multiplier);
         this.multiplier = multiplier;
+        this.markDirty();
     }
 
     /**
@@ -215,8 +498,12 @@ public class PlayerData {
      *
      * @param rank ~ The data's rank to set.
      */
-    public void setRank(final long rank) {
+    public synchronized void setRank(final long rank) {
+        this.changes.set("rank", rank);
         this.rank = rank;
+        this.markDirty();
+        SelfData.getViaCache().ifPresent(selfData -> selfData.updateHighestRank(rank));
+        this.rank(LeaderboardType.RANK, rank);
     }
 
     /**
@@ -228,6 +515,24 @@ public class PlayerData {
         return this.rank;
     }
 
+    /**
+     * Allows you to retrieve the sequence number of the data's latest currency journal entry (in this instance's currency journal).
+     *
+     * @return The sequence number of the data's latest currency journal entry.
+     */
+    public long getJournalSequence() {
+        return this.journalSequence;
+    }
+
+    /**
+     * Allows you to retrieve the data's version.
+     *
+     * @return The data's version (the amount of times it has been written).
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
     /**
      * Allows you to retrieve the data's UUID.
      *
@@ -239,16 +544,19 @@ public class PlayerData {
 
     /**
      * Allows you to cache the data.
+     * If another instance is already cached for the UUID, that one is kept so there is never two copies of the same player.
      */
     public void cache() {
-        cache.add(this);
+        cache.putIfAbsent(this.uuid, this);
+        preloading.remove(this.uuid);
+        loading.remove(this.uuid);
     }
 
     /**
      * Allows you to uncache the data.
      */
     public void uncache() {
-        cache.remove(this);
+        cache.remove(this.uuid, this);
     }
 
     /**
@@ -257,7 +565,7 @@ public class PlayerData {
      * @return If the data is cached.
      */
     public boolean isCached() {
-        return cache.contains(this);
+        return cache.get(this.uuid) == this;
     }
 
     /**
@@ -265,25 +573,92 @@ public class PlayerData {
      *
      * @return The cache.
      */
-    public static HashSet<PlayerData> getCache() {
-        return cache;
+    public static Collection<PlayerData> getCache() {
+        return cache.values();
+    }
+
+    /**
+     * Allows you to retrieve the dirty data.
+     *
+     * @return The dirty data.
+     */
+    public static Set<PlayerData> getDirty() {
+        return dirty;
     }
 
     /**
      * Allows you to retrieve a PlayerData from a UUID.
      * It will automatically either create a new PlayerData if it doesn't exist, load from the PlayerData if cached, or the fetch the PlayerData from the database.
+     * Concurrent calls for a player that is still being fetched share the same load, so the database is only read once and everyone gets the same instance.
      *
      * @param uuid ~ The player's UUID.
      * @return The self class.
      */
     public static CompletableFuture<PlayerData> get(final UUID uuid) {
-        final Optional<PlayerData> optionalPlayerData = cache.stream().filter(playerData -> playerData.getUUID() == uuid).findAny();
-        if (optionalPlayerData.isPresent()) {
-            return CompletableFuture.supplyAsync(() -> optionalPlayerData.get());
-        } else {
-            final PlayerData playerData = new PlayerData(uuid);
-            return playerData.load().thenApply(loadSuccessful -> playerData);
+        return get(uuid, false);
+    }
+
+    /**
+     * Allows you to retrieve a PlayerData from a UUID that is about to be cached (such as a player logging in).
+     * The load stays shared until the data is cached (see PlayerData#cache) or the preload is cancelled (see PlayerData#cancelPreload), so nothing can load a second copy in between.
+     *
+     * @param uuid ~ The player's UUID.
+     * @return The self class.
+     */
+    public static CompletableFuture<PlayerData> preload(final UUID uuid) {
+        return get(uuid, true);
+    }
+
+    /**
+     * Allows you to cancel a preload whose data won't be cached after all (such as a refused login).
+     *
+     * @param uuid ~ The player's UUID.
+     */
+    public static void cancelPreload(final UUID uuid) {
+        preloading.remove(uuid);
+        final CompletableFuture<PlayerData> future = loading.get(uuid);
+        if (future != null && future.isDone()) {
+            loading.remove(uuid, future);
+        }
+    }
+
+    /**
+     * Allows you to retrieve a PlayerData from a UUID.
+     *
+     * @param uuid ~ The player's UUID.
+     * @param preload ~ If the data is about to be cached, its load is then kept shared until it is.
+     * @return The self class.
+     */
+    private static CompletableFuture<PlayerData> get(final UUID uuid, final boolean preload) {
+        final PlayerData cachedPlayerData = cache.get(uuid);
+        if (cachedPlayerData != null) {
+            return CompletableFuture.completedFuture(cachedPlayerData);
+        }
+        if (preload) {
+            preloading.add(uuid);
+        }
+        final CompletableFuture<PlayerData> future = new CompletableFuture<PlayerData>();
+        final CompletableFuture<PlayerData> inFlightFuture = loading.putIfAbsent(uuid, future);
+        if (inFlightFuture != null) {
+            return inFlightFuture;
         }
+        final PlayerData racedPlayerData = cache.get(uuid);
+        if (racedPlayerData != null) {
+            loading.remove(uuid, future);
+            future.complete(racedPlayerData);
+            return future;
+        }
+        Prison.getPlugin().getComponentManager().getDataComponent().getPlayerRepository().find(uuid.toString()).whenComplete((optionalPlayerData, loadThrowable) -> {
+            if (loadThrowable != null || !preloading.contains(uuid)) {
+                loading.remove(uuid, future);
+            }
+            if (loadThrowable != null) {
+                future.completeExceptionally(loadThrowable);
+            } else {
+                future.complete(optionalPlayerData.orElseGet(() -> new PlayerData(uuid)));
+            }
+        });
+        return future;
     }
 
     /**
@@ -294,7 +669,7 @@ public class PlayerData {
      * @return The self class.
      */
     public static Optional<PlayerData> getViaCache(final UUID uuid) {
-        return cache.stream().filter(playerData -> playerData.getUUID() == uuid).findFirst();
+        return Optional.ofNullable(cache.get(uuid));
     }
 
 }
@@ -4,35 +4,36 @@ package net.evilkingdom.prison.component.components.data.objects;
  * Made with love by https://kodirati.com/.
  */
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndReplaceOptions;
-import net.evilkingdom.commons.datapoint.DataImplementor;
-import net.evilkingdom.commons.datapoint.objects.Datapoint;
-import net.evilkingdom.commons.datapoint.objects.Datasite;
 import net.evilkingdom.prison.component.components.mine.objects.MineLocation;
+import net.evilkingdom.prison.component.components.mine.objects.PlotAllocator;
 import net.evilkingdom.prison.Prison;
 import net.evilkingdom.prison.component.components.rank.objects.Rank;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.bson.Document;
 import org.bukkit.Material;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class SelfData {
 
     private final Prison plugin;
 
-    private final ArrayList<Rank> ranks;
-    private final HashSet<MineLocation> mineLocations;
+    private volatile Rank[] ranks;
+    private volatile int rankCount;
+    private final PlotAllocator plotAllocator;
+    private final AtomicBoolean dirty;
+    private Optional<Long> highestRank;
 
-    private static final HashSet<SelfData> cache = new HashSet<SelfData>();
+    private static volatile SelfData cache;
 
     /**
      * Allows you to create a SelfData.
@@ -40,8 +41,25 @@ public class SelfData {
     public SelfData() {
         this.plugin = Prison.getPlugin();
 
-        this.ranks = new ArrayList<Rank>();
-        this.mineLocations = new HashSet<MineLocation>();
+        this.ranks = new Rank[0];
+        this.rankCount = 0;
+        this.plotAllocator = new PlotAllocator();
+        this.dirty = new AtomicBoolean(false);
+        this.highestRank = Optional.empty();
+    }
+
+    /**
+     * Allows you to create a SelfData that exists in the Mongo database.
+     * Used by the codec (see SelfDataCodec) when the data is loaded.
+     *
+     * @param mineLocations ~ The mine locations (in the order they were generated).
+     * @param mineLocationIndex ~ The spiral index of the latest generated mine location (or empty if it wasn't recorded).
+     * @param highestRank ~ The highest rank any player has reached (or empty if it wasn't recorded).
+     */
+    public SelfData(final ArrayList<MineLocation> mineLocations, final Optional<Long> mineLocationIndex, final Optional<Long> highestRank) {
+        this();
+        this.plotAllocator.load(mineLocations, mineLocationIndex);
+        this.highestRank = highestRank;
     }
 
     /**
@@ -50,89 +68,165 @@ public class SelfData {
      * @return If the data exists or not.
      */
     public CompletableFuture<Boolean> exists() {
-        if (cache.contains(this)) {
+        if (cache == this) {
             return CompletableFuture.supplyAsync(() -> true);
         } else {
-            final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-            final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-            final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_self")).findFirst().get();
-            return datapoint.exists("self");
+            return this.plugin.getComponentManager().getDataComponent().getSelfRepository().exists("self");
         }
     }
 
     /**
-     * Allows you to load the data from the Mongo database.
+     * Allows you to save the data to the Mongo database.
      *
-     * @return If the data could be loaded or not.
-     */
-    private CompletableFuture<Boolean> load() {
-        final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-        final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-        final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_self")).findFirst().get();
-        return datapoint.get("self").thenApply(optionalJsonObject -> {
-            if (optionalJsonObject.isEmpty()) {
-                return false;
+     * @param asynchronous ~ If the save is asynchronous (should always be unless it's an emergency saves).
+     */
+    public void save(final boolean asynchronous) {
+        this.dirty.set(false);
+        this.plugin.getComponentManager().getDataComponent().getSelfRepository().replace("self", this, asynchronous).whenComplete((replaceSuccessful, replaceThrowable) -> {
+            if (!replaceSuccessful) {
+                this.markDirty();
             }
-            final JsonObject jsonObject = optionalJsonObject.get();
-            if (jsonObject.has("mineLocations")) {
-                jsonObject.get("mineLocations").getAsJsonArray().forEach(jsonElement -> this.mineLocations.add(new MineLocation(jsonElement.getAsJsonObject().get("x").getAsInt(), jsonElement.getAsJsonObject().get("z").getAsInt(), jsonElement.getAsJsonObject().get("used").getAsBoolean())));
-           }
-           return true;
         });
     }
 
     /**
-     * Allows you to save the data to the Mongo database.
+     * Allows you to retrieve the data as an update for the Mongo database.
+     * Used by the write-behind flush, which sends the updates in bulk instead of one by one.
      *
-     * @param asynchronous ~ If the save is asynchronous (should always be unless it's an emergency saves).
+     * @return The update.
      */
-    public void save(final boolean asynchronous) {
-        final JsonObject jsonObject = new JsonObject();
-        final JsonArray mineLocationsJsonArray = new JsonArray();
-        this.mineLocations.forEach(mineLocation -> {
-            final JsonObject mineLocationJsonObject = new JsonObject();
-            mineLocationJsonObject.addProperty("x", mineLocation.getX());
-            mineLocationJsonObject.addProperty("z", mineLocation.getZ());
-            mineLocationJsonObject.addProperty("used", mineLocation.isUsed());
-            mineLocationsJsonArray.add(mineLocationJsonObject);
-        });
-        jsonObject.add("mineLocations", mineLocationsJsonArray);
-        final DataImplementor dataImplementor = DataImplementor.get(this.plugin);
-        final Datasite datasite = dataImplementor.getSites().stream().filter(innerDatasite -> innerDatasite.getPlugin() == this.plugin).findFirst().get();
-        final Datapoint datapoint = datasite.getPoints().stream().filter(innerDatapoint -> innerDatapoint.getName().equals("prison_self")).findFirst().get();
-        datapoint.save(jsonObject, "self", asynchronous);
+    public Optional<Document> toUpdate() {
+        final BsonDocument setDocument = this.plugin.getComponentManager().getDataComponent().getSelfRepository().encode(this);
+        setDocument.remove("_id");
+        final BsonValue highestRank = setDocument.remove("highestRank");
+        final Document update = new Document("$set", setDocument);
+        if (highestRank != null) {
+            update.append("$max", new Document("highestRank", highestRank));
+        }
+        return Optional.of(update);
+    }
+
+    /**
+     * Allows you to mark the data as dirty.
+     * Dirty data is picked up by the write-behind flush (see DataComponent#flush).
+     */
+    public void markDirty() {
+        this.dirty.set(true);
+    }
+
+    /**
+     * Allows you to retrieve if the data is dirty.
+     *
+     * @return If the data is dirty.
+     */
+    public boolean isDirty() {
+        return this.dirty.get();
+    }
+
+    /**
+     * Allows you to clear the data's dirty state.
+     *
+     * @return If the data was dirty.
+     */
+    public boolean clearDirty() {
+        return this.dirty.getAndSet(false);
+    }
+
+    /**
+     * Allows you to retrieve the data's highest rank.
+     * This is the highest rank any player has ever reached, kept up to date on rank changes so it never needs to be found by going through every player.
+     *
+     * @return The data's highest rank (or empty if it has never been recorded).
+     */
+    public Optional<Long> getHighestRank() {
+        return this.highestRank;
     }
 
     /**
-     * Allows you to retrieve the data's ranks.
+     * Allows you to update the data's highest rank.
+     * It'll only change if the rank is higher than the current highest rank.
      *
-     * @return The data's ranks.
+     * @param rank ~ The rank to update with.
      */
-    public ArrayList<Rank> getRanks() {
-        return this.ranks;
+    public synchronized void updateHighestRank(final long rank) {
+        if (this.highestRank.isPresent() && this.highestRank.get() >= rank) {
+            return;
+        }
+        this.highestRank = Optional.of(rank);
+        this.markDirty();
+        this.plugin.getComponentManager().getRankComponent().ensureGenerated(rank);
     }
 
     /**
-     * Allows you to retrieve the data's mine locations.
+     * Allows you to retrieve one of the data's ranks.
+     * Ranks are stored at the index of their number, so this is a direct lookup rather than a search.
      *
-     * @return The data's mine locations.
+     * @param rank ~ The rank's number.
+     * @return The rank (or empty if it hasn't been generated yet).
      */
-    public HashSet<MineLocation> getMineLocations() {
-        return this.mineLocations;
+    public Optional<Rank> getRank(final long rank) {
+        final int rankCount = this.rankCount;
+        if (rank < 1L || rank > rankCount) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.ranks[(int) (rank - 1L)]);
+    }
+
+    /**
+     * Allows you to retrieve the amount of the data's ranks.
+     *
+     * @return The amount of the data's ranks (every rank up to it is available).
+     */
+    public int getRankCount() {
+        return this.rankCount;
+    }
+
+    /**
+     * Allows you to add ranks to the data.
+     * The ranks are placed at the index of their number, they're expected to follow on from the ranks already added.
+     *
+     * @param ranks ~ The ranks to add.
+     */
+    public synchronized void addRanks(final Collection<Rank> ranks) {
+        Rank[] rankArray = this.ranks;
+        int rankCount = this.rankCount;
+        for (final Rank rank : ranks) {
+            final int index = (int) (rank.getRank() - 1L);
+            if (index >= rankArray.length) {
+                rankArray = Arrays.copyOf(rankArray, Math.max(index + 1, rankArray.length * 2));
+            }
+            rankArray[index] = rank;
+            rankCount = Math.max(rankCount, index + 1);
+        }
+        this.ranks = rankArray;
+        this.rankCount = rankCount;
+    }
+
+    /**
+     * Allows you to retrieve the data's plot allocator.
+     * It holds the data's mine locations and hands out the unused ones.
+     *
+     * @return The data's plot allocator.
+     */
+    public PlotAllocator getPlotAllocator() {
+        return this.plotAllocator;
     }
 
     /**
      * Allows you to cache the data.
+     * There's only ever one SelfData, so it's kept in a single field rather than a collection (it's read every tick by the scoreboards).
      */
     public void cache() {
-        cache.add(this);
+        cache = this;
     }
 
     /**
      * Allows you to uncache the data.
      */
     public void uncache() {
-        cache.remove(this);
+        if (cache == this) {
+            cache = null;
+        }
     }
 
     /**
@@ -141,16 +235,7 @@ public class SelfData {
      * @return If the data is cached.
      */
     public boolean isCached() {
-        return cache.contains(this);
-    }
-
-    /**
-     * Allows you to retrieve the cache.
-     *
-     * @return The cache.
-     */
-    public static HashSet<SelfData> getCache() {
-        return cache;
+        return cache == this;
     }
 
     /**
@@ -160,12 +245,11 @@ public class SelfData {
      * @return The self class.
      */
     public static CompletableFuture<SelfData> get() {
-        final Optional<SelfData> optionalSelfData = cache.stream().findFirst();
-        if (optionalSelfData.isPresent()) {
-            return CompletableFuture.supplyAsync(() -> optionalSelfData.get());
+        final SelfData selfData = cache;
+        if (selfData != null) {
+            return CompletableFuture.supplyAsync(() -> selfData);
         } else {
-            final SelfData selfData = new SelfData();
-            return selfData.load().thenApply(loadSuccessful -> selfData);
+            return Prison.getPlugin().getComponentManager().getDataComponent().getSelfRepository().find("self").thenApply(optionalSelfData -> optionalSelfData.orElseGet(() -> new SelfData()));
         }
     }
 
@@ -176,7 +260,7 @@ public class SelfData {
      * @return The self class.
      */
     public static Optional<SelfData> getViaCache() {
-        return cache.stream().findFirst();
+        return Optional.ofNullable(cache);
     }
 
 }
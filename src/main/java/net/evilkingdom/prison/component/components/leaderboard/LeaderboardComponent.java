@@ -0,0 +1,185 @@
+package net.evilkingdom.prison.component.components.leaderboard;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
+import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.data.objects.PlayerData;
+import net.evilkingdom.prison.component.components.leaderboard.commands.TopCommand;
+import net.evilkingdom.prison.component.components.leaderboard.enums.LeaderboardType;
+import net.evilkingdom.prison.component.components.leaderboard.objects.Leaderboard;
+import net.evilkingdom.prison.component.components.leaderboard.objects.LeaderboardEntry;
+import org.bson.Document;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class LeaderboardComponent {
+
+    private final Prison plugin;
+
+    private BukkitTask task;
+    private final EnumMap<LeaderboardType, Leaderboard> leaderboards;
+
+    /**
+     * Allows you to create the component.
+     */
+    public LeaderboardComponent() {
+        this.plugin = Prison.getPlugin();
+
+        this.leaderboards = new EnumMap<LeaderboardType, Leaderboard>(LeaderboardType.class);
+    }
+
+    /**
+     * Allows you to initialize the component.
+     */
+    public void initialize() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aInitializing..."));
+        this.initializeLeaderboards();
+        this.initializeTask();
+        this.registerCommands();
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aInitialized."));
+    }
+
+    /**
+     * Allows you to terminate the component.
+     */
+    public void terminate() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Leaderboard] &cTerminating..."));
+        this.terminateTask();
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Leaderboard] &cTerminated."));
+    }
+
+    /**
+     * Allows you to register the commands.
+     */
+    private void registerCommands() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aRegistering commands..."));
+        new TopCommand().register();
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aRegistered commands."));
+    }
+
+    /**
+     * Allows you to initialize the leaderboards.
+     * Every leaderboard's field is indexed so seeding and reconciling them only reads the top of the index rather than every player.
+     */
+    private void initializeLeaderboards() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aInitializing leaderboards..."));
+        final int capacity = this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.leaderboard.capacity");
+        final MongoCollection<Document> collection = this.plugin.getComponentManager().getDataComponent().getMongoDatabase().getCollection("prison_players");
+        for (final LeaderboardType leaderboardType : LeaderboardType.values()) {
+            this.leaderboards.put(leaderboardType, new Leaderboard(capacity));
+            try {
+                collection.createIndex(Indexes.descending(leaderboardType.getField()));
+            } catch (final MongoException mongoException) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Leaderboard] Failed to index " + leaderboardType.getField() + " in prison_players, the leaderboard will be slower to reconcile."));
+            }
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> this.reconcile());
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aInitialized leaderboards."));
+    }
+
+    /**
+     * Allows you to initialize the task.
+     */
+    private void initializeTask() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aInitializing task..."));
+        final long interval = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.leaderboard.reconcile-interval");
+        this.task = Bukkit.getScheduler().runTaskTimerAsynchronously(this.plugin, () -> this.reconcile(), interval, interval);
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Leaderboard] &aInitialized task."));
+    }
+
+    /**
+     * Allows you to terminate the task.
+     */
+    private void terminateTask() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Leaderboard] &cTerminating task..."));
+        if (this.task != null) {
+            this.task.cancel();
+        }
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Leaderboard] &cTerminated task."));
+    }
+
+    /**
+     * Allows you to reconcile the leaderboards with the Mongo database.
+     * Reads the top of every leaderboard's index, then overlays the cached players (their values are newer than the saved ones) and rebuilds the leaderboard.
+     * This catches players who dropped out while offline players below them weren't tracked.
+     */
+    public void reconcile() {
+        final MongoCollection<Document> collection = this.plugin.getComponentManager().getDataComponent().getMongoDatabase().getCollection("prison_players");
+        for (final LeaderboardType leaderboardType : LeaderboardType.values()) {
+            final Leaderboard leaderboard = this.leaderboards.get(leaderboardType);
+            final HashMap<UUID, Long> values = new HashMap<UUID, Long>();
+            try (final MongoCursor<Document> cursor = collection.find(Filters.exists(leaderboardType.getField())).sort(Sorts.descending(leaderboardType.getField())).projection(Projections.include(leaderboardType.getField())).limit(leaderboard.getCapacity()).iterator()) {
+                while (cursor.hasNext()) {
+                    final Document document = cursor.next();
+                    final Object value = document.get(leaderboardType.getField());
+                    if (value instanceof Number) {
+                        values.put(UUID.fromString(document.getString("_id")), ((Number) value).longValue());
+                    }
+                }
+            } catch (final MongoException mongoException) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Leaderboard] Failed to reconcile the " + leaderboardType.getField() + " leaderboard, it will be retried on the next reconcile."));
+                continue;
+            }
+            PlayerData.getCache().forEach(playerData -> values.put(playerData.getUUID(), this.getValue(leaderboardType, playerData)));
+            leaderboard.rebuild(values.entrySet().stream().map(entry -> new LeaderboardEntry(entry.getKey(), entry.getValue())).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Allows you to update a player on the leaderboards.
+     * Should be called whenever one of the player's leaderboard values changes.
+     *
+     * @param leaderboardType ~ The leaderboard's type.
+     * @param uuid ~ The UUID of the player.
+     * @param value ~ The player's new value.
+     */
+    public void update(final LeaderboardType leaderboardType, final UUID uuid, final long value) {
+        final Leaderboard leaderboard = this.leaderboards.get(leaderboardType);
+        if (leaderboard == null) {
+            return;
+        }
+        leaderboard.update(uuid, value);
+    }
+
+    /**
+     * Allows you to retrieve a leaderboard.
+     *
+     * @param leaderboardType ~ The leaderboard's type.
+     * @return The leaderboard.
+     */
+    public Leaderboard getLeaderboard(final LeaderboardType leaderboardType) {
+        return this.leaderboards.get(leaderboardType);
+    }
+
+    /**
+     * Allows you to retrieve a player's value for a leaderboard.
+     *
+     * @param leaderboardType ~ The leaderboard's type.
+     * @param playerData ~ The player's data.
+     * @return The player's value.
+     */
+    public long getValue(final LeaderboardType leaderboardType, final PlayerData playerData) {
+        return switch (leaderboardType) {
+            case TOKENS -> playerData.getTokens();
+            case GEMS -> playerData.getGems();
+            case RANK -> playerData.getRank();
+            case BLOCKS_MINED -> playerData.getBlocksMined();
+        };
+    }
+
+}
@@ -0,0 +1,144 @@
+package net.evilkingdom.prison.component.components.leaderboard.commands;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.commons.command.abstracts.CommandHandler;
+import net.evilkingdom.commons.command.objects.Command;
+import net.evilkingdom.commons.utilities.number.NumberUtilities;
+import net.evilkingdom.commons.utilities.number.enums.NumberFormatType;
+import net.evilkingdom.commons.utilities.string.StringUtilities;
+import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.leaderboard.enums.LeaderboardType;
+import net.evilkingdom.prison.component.components.leaderboard.objects.Leaderboard;
+import net.evilkingdom.prison.component.components.leaderboard.objects.LeaderboardEntry;
+import org.bukkit.Sound;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+public class TopCommand extends CommandHandler {
+
+    private final Prison plugin;
+
+    /**
+     * Allows you to create the command.
+     */
+    public TopCommand() {
+        this.plugin = Prison.getPlugin();
+    }
+
+    /**
+     * Allows you to register the command.
+     */
+    public void register() {
+        final Command command = new Command(this.plugin, "top", new ArrayList<String>(Arrays.asList("leaderboard", "leaderboards", "baltop")), this);
+        command.register();
+    }
+
+    /**
+     * The execution of the command.
+     *
+     * @param sender ~ The command's sender.
+     * @param arguments ~ The command's arguments.
+     */
+    @Override
+    public void onExecution(final CommandSender sender, final String[] arguments) {
+        if (arguments.length < 1 || arguments.length > 2) {
+            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.leaderboard.commands.top.messages.invalid-usage").forEach(string -> sender.sendMessage(StringUtilities.colorize(string)));
+            this.playSound(sender, "error");
+            return;
+        }
+        final String leaderboardName = arguments[0].toLowerCase();
+        final LeaderboardType leaderboardType;
+        switch (leaderboardName) {
+            case "tokens" -> leaderboardType = LeaderboardType.TOKENS;
+            case "gems" -> leaderboardType = LeaderboardType.GEMS;
+            case "rank" -> leaderboardType = LeaderboardType.RANK;
+            case "blocks" -> leaderboardType = LeaderboardType.BLOCKS_MINED;
+            default -> {
+                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.leaderboard.commands.top.messages.invalid-leaderboard").forEach(string -> sender.sendMessage(StringUtilities.colorize(string)));
+                this.playSound(sender, "error");
+                return;
+            }
+        }
+        final Leaderboard leaderboard = this.plugin.getComponentManager().getLeaderboardComponent().getLeaderboard(leaderboardType);
+        final int pageSize = this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.leaderboard.commands.top.page-size");
+        final int pages = Math.max(1, (leaderboard.getSize() + pageSize - 1) / pageSize);
+        int page = 1;
+        if (arguments.length == 2) {
+            try {
+                page = Integer.parseInt(arguments[1]);
+            } catch (final NumberFormatException numberFormatException) {
+                page = -1;
+            }
+        }
+        if (page < 1 || page > pages) {
+            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.leaderboard.commands.top.messages.invalid-page").forEach(string -> sender.sendMessage(StringUtilities.colorize(string.replace("%pages%", String.valueOf(pages)))));
+            this.playSound(sender, "error");
+            return;
+        }
+        final String formattedPage = String.valueOf(page);
+        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.leaderboard.commands.top.messages.success.header").forEach(string -> sender.sendMessage(StringUtilities.colorize(string.replace("%leaderboard%", leaderboardName).replace("%page%", formattedPage).replace("%pages%", String.valueOf(pages)))));
+        final int start = (page - 1) * pageSize;
+        final ArrayList<LeaderboardEntry> entries = leaderboard.getEntries(start, pageSize);
+        final ArrayList<CompletableFuture<Optional<String>>> names = entries.stream().map(entry -> this.plugin.getComponentManager().getDataComponent().getNameIndex().findName(entry.getUUID())).collect(Collectors.toCollection(ArrayList::new));
+        CompletableFuture.allOf(names.toArray(new CompletableFuture[0])).whenComplete((unused, throwable) -> {
+            for (int index = 0; index < entries.size(); index++) {
+                final LeaderboardEntry entry = entries.get(index);
+                final String position = NumberUtilities.format(start + index + 1, NumberFormatType.COMMAS);
+                final String playerName = names.get(index).getNow(Optional.empty()).orElse(entry.getUUID().toString());
+                final String value = NumberUtilities.format(entry.getValue(), NumberFormatType.COMMAS);
+                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.leaderboard.commands.top.messages.success.entry").forEach(string -> sender.sendMessage(StringUtilities.colorize(string.replace("%position%", position).replace("%player%", playerName).replace("%value%", value))));
+            }
+            if (sender instanceof Player) {
+                final Player player = (Player) sender;
+                final OptionalInt optionalPosition = leaderboard.getPosition(player.getUniqueId());
+                if (optionalPosition.isPresent()) {
+                    final String position = NumberUtilities.format(optionalPosition.getAsInt() + 1, NumberFormatType.COMMAS);
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.leaderboard.commands.top.messages.success.footer.ranked").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%position%", position))));
+                } else {
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.leaderboard.commands.top.messages.success.footer.not-ranked").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%capacity%", NumberUtilities.format(leaderboard.getCapacity(), NumberFormatType.COMMAS)))));
+                }
+            }
+            this.playSound(sender, "success");
+        });
+    }
+
+    /**
+     * The tab completion of the command.
+     *
+     * @param sender ~ The command's sender.
+     * @param arguments ~ The command's arguments.
+     */
+    @Override
+    public ArrayList<String> onTabCompletion(final CommandSender sender, final String[] arguments) {
+        final ArrayList<String> tabCompletion = new ArrayList<String>();
+        if (arguments.length == 1) {
+            tabCompletion.addAll(Arrays.asList("tokens", "gems", "rank", "blocks"));
+        }
+        return tabCompletion;
+    }
+
+    /**
+     * Allows you to play one of the command's sounds to the sender (if they're a player).
+     *
+     * @param sender ~ The command's sender.
+     * @param sound ~ The sound (either "error" or "success").
+     */
+    private void playSound(final CommandSender sender, final String sound) {
+        if (!(sender instanceof Player)) {
+            return;
+        }
+        final Player player = (Player) sender;
+        player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.leaderboard.commands.top.sounds." + sound + ".sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.leaderboard.commands.top.sounds." + sound + ".volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.leaderboard.commands.top.sounds." + sound + ".pitch"));
+    }
+
+}
@@ -0,0 +1,32 @@
+package net.evilkingdom.prison.component.components.leaderboard.enums;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+public enum LeaderboardType {
+    TOKENS("tokens"),
+    GEMS("gems"),
+    RANK("rank"),
+    BLOCKS_MINED("blocksMined");
+
+    private final String field;
+
+    /**
+     * Allows you to create a Leaderboard Type.
+     *
+     * @param field ~ The player data's field the leaderboard is sorted by.
+     */
+    LeaderboardType(final String field) {
+        this.field = field;
+    }
+
+    /**
+     * Allows you to retrieve the player data's field the leaderboard is sorted by.
+     *
+     * @return The player data's field the leaderboard is sorted by.
+     */
+    public String getField() {
+        return this.field;
+    }
+}
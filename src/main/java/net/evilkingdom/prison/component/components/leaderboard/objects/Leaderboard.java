@@ -0,0 +1,243 @@
+package net.evilkingdom.prison.component.components.leaderboard.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import java.util.*;
+
+public class Leaderboard {
+
+    private final int capacity;
+    private final Node head;
+    private final HashMap<UUID, Node> nodes;
+    private final SplittableRandom random;
+    private int size;
+
+    private static final int MAX_LEVEL = 16;
+
+    /**
+     * Allows you to create a Leaderboard.
+     * It's an indexable skip list (every link knows how many entries it skips), so updates, positions and page lookups are all O(log n).
+     *
+     * @param capacity ~ The maximum amount of entries kept, anything below is dropped.
+     */
+    public Leaderboard(final int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.head = new Node(null, MAX_LEVEL);
+        Arrays.fill(this.head.widths, 1);
+        this.nodes = new HashMap<UUID, Node>();
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Allows you to update a player's value.
+     * The player is only kept if they make it into the leaderboard's capacity.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @param value ~ The player's value.
+     */
+    public synchronized void update(final UUID uuid, final long value) {
+        final Node existingNode = this.nodes.get(uuid);
+        if (existingNode != null) {
+            if (existingNode.entry.getValue() == value) {
+                return;
+            }
+            this.remove(existingNode.entry);
+        }
+        final LeaderboardEntry entry = new LeaderboardEntry(uuid, value);
+        if (this.size >= this.capacity && entry.compareTo(this.get(this.size - 1)) > 0) {
+            return;
+        }
+        this.insert(entry);
+        if (this.size > this.capacity) {
+            this.remove(this.get(this.size - 1));
+        }
+    }
+
+    /**
+     * Allows you to rebuild the leaderboard from scratch.
+     *
+     * @param entries ~ The entries (only the best ones up to the capacity are kept).
+     */
+    public synchronized void rebuild(final Collection<LeaderboardEntry> entries) {
+        Arrays.fill(this.head.nodes, null);
+        Arrays.fill(this.head.widths, 1);
+        this.nodes.clear();
+        this.size = 0;
+        entries.stream().sorted().limit(this.capacity).forEach(entry -> this.insert(entry));
+    }
+
+    /**
+     * Allows you to retrieve a page of the leaderboard.
+     *
+     * @param start ~ The position to start at (starting at 0).
+     * @param amount ~ The maximum amount of entries.
+     * @return The entries.
+     */
+    public synchronized ArrayList<LeaderboardEntry> getEntries(final int start, final int amount) {
+        final ArrayList<LeaderboardEntry> entries = new ArrayList<LeaderboardEntry>();
+        if (start < 0 || start >= this.size) {
+            return entries;
+        }
+        Node node = this.getNode(start);
+        while (node != null && entries.size() < amount) {
+            entries.add(node.entry);
+            node = node.nodes[0];
+        }
+        return entries;
+    }
+
+    /**
+     * Allows you to retrieve a player's position on the leaderboard.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @return The player's position (starting at 0, or empty if they're not on the leaderboard).
+     */
+    public synchronized OptionalInt getPosition(final UUID uuid) {
+        final Node existingNode = this.nodes.get(uuid);
+        if (existingNode == null) {
+            return OptionalInt.empty();
+        }
+        int position = 0;
+        Node node = this.head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            while (node.nodes[level] != null && node.nodes[level].entry.compareTo(existingNode.entry) <= 0) {
+                position += node.widths[level];
+                node = node.nodes[level];
+            }
+        }
+        return OptionalInt.of(position - 1);
+    }
+
+    /**
+     * Allows you to retrieve the amount of entries.
+     *
+     * @return The amount of entries.
+     */
+    public synchronized int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Allows you to retrieve the leaderboard's capacity.
+     *
+     * @return The leaderboard's capacity.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Allows you to retrieve the entry at a position.
+     *
+     * @param position ~ The position (starting at 0).
+     * @return The entry.
+     */
+    private LeaderboardEntry get(final int position) {
+        return this.getNode(position).entry;
+    }
+
+    /**
+     * Allows you to retrieve the node at a position.
+     *
+     * @param position ~ The position (starting at 0).
+     * @return The node.
+     */
+    private Node getNode(final int position) {
+        int remaining = position + 1;
+        Node node = this.head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            while (node.nodes[level] != null && node.widths[level] <= remaining) {
+                remaining -= node.widths[level];
+                node = node.nodes[level];
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Allows you to insert an entry.
+     *
+     * @param entry ~ The entry.
+     */
+    private void insert(final LeaderboardEntry entry) {
+        final Node[] previousNodes = new Node[MAX_LEVEL];
+        final int[] steps = new int[MAX_LEVEL];
+        Node node = this.head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            while (node.nodes[level] != null && node.nodes[level].entry.compareTo(entry) < 0) {
+                steps[level] += node.widths[level];
+                node = node.nodes[level];
+            }
+            previousNodes[level] = node;
+        }
+        final int height = Math.min(MAX_LEVEL, 1 + Integer.numberOfTrailingZeros(this.random.nextInt()));
+        final Node insertedNode = new Node(entry, height);
+        int distance = 0;
+        for (int level = 0; level < height; level++) {
+            final Node previousNode = previousNodes[level];
+            insertedNode.nodes[level] = previousNode.nodes[level];
+            previousNode.nodes[level] = insertedNode;
+            insertedNode.widths[level] = previousNode.widths[level] - distance;
+            previousNode.widths[level] = distance + 1;
+            distance += steps[level];
+        }
+        for (int level = height; level < MAX_LEVEL; level++) {
+            previousNodes[level].widths[level]++;
+        }
+        this.nodes.put(entry.getUUID(), insertedNode);
+        this.size++;
+    }
+
+    /**
+     * Allows you to remove an entry.
+     *
+     * @param entry ~ The entry.
+     */
+    private void remove(final LeaderboardEntry entry) {
+        final Node[] previousNodes = new Node[MAX_LEVEL];
+        Node node = this.head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            while (node.nodes[level] != null && node.nodes[level].entry.compareTo(entry) < 0) {
+                node = node.nodes[level];
+            }
+            previousNodes[level] = node;
+        }
+        final Node removedNode = previousNodes[0].nodes[0];
+        if (removedNode == null || removedNode.entry.compareTo(entry) != 0) {
+            return;
+        }
+        for (int level = 0; level < removedNode.nodes.length; level++) {
+            final Node previousNode = previousNodes[level];
+            previousNode.widths[level] += removedNode.widths[level] - 1;
+            previousNode.nodes[level] = removedNode.nodes[level];
+        }
+        for (int level = removedNode.nodes.length; level < MAX_LEVEL; level++) {
+            previousNodes[level].widths[level]--;
+        }
+        this.nodes.remove(entry.getUUID());
+        this.size--;
+    }
+
+    private static class Node {
+
+        private final LeaderboardEntry entry;
+        private final Node[] nodes;
+        private final int[] widths;
+
+        /**
+         * Allows you to create a Node.
+         *
+         * @param entry ~ The node's entry.
+         * @param height ~ The node's height (the amount of levels it links on).
+         */
+        private Node(final LeaderboardEntry entry, final int height) {
+            this.entry = entry;
+            this.nodes = new Node[height];
+            this.widths = new int[height];
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package net.evilkingdom.prison.component.components.leaderboard.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import java.util.UUID;
+
+public class LeaderboardEntry implements Comparable<LeaderboardEntry> {
+
+    private final UUID uuid;
+    private final long value;
+
+    /**
+     * Allows you to create a Leaderboard Entry.
+     *
+     * @param uuid ~ The UUID of the player.
+     * @param value ~ The player's value.
+     */
+    public LeaderboardEntry(final UUID uuid, final long value) {
+        this.uuid = uuid;
+        this.value = value;
+    }
+
+    /**
+     * Allows you to retrieve the entry's UUID.
+     *
+     * @return The entry's UUID.
+     */
+    public UUID getUUID() {
+        return this.uuid;
+    }
+
+    /**
+     * Allows you to retrieve the entry's value.
+     *
+     * @return The entry's value.
+     */
+    public long getValue() {
+        return this.value;
+    }
+
+    /**
+     * Orders the entries from the highest value to the lowest, players with the same value are ordered by their UUID so no two entries are equal.
+     */
+    @Override
+    public int compareTo(final LeaderboardEntry leaderboardEntry) {
+        final int comparison = Long.compare(leaderboardEntry.value, this.value);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return this.uuid.compareTo(leaderboardEntry.uuid);
+    }
+
+}
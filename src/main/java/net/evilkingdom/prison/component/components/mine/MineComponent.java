@@ -11,10 +11,17 @@ import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.prison.component.components.data.objects.MineData;
 import net.evilkingdom.prison.component.components.data.objects.SelfData;
 import net.evilkingdom.prison.component.components.mine.commands.MineCommand;
+import net.evilkingdom.prison.component.components.mine.enums.MineResetPriority;
 import net.evilkingdom.prison.component.components.mine.enums.MineTaskType;
 import net.evilkingdom.prison.component.components.mine.implementations.VoidGenerator;
+import net.evilkingdom.prison.component.components.mine.listeners.BlockListener;
 import net.evilkingdom.prison.component.components.mine.listeners.ConnectionListener;
+import net.evilkingdom.prison.component.components.mine.objects.MineFillBenchmark;
+import net.evilkingdom.prison.component.components.mine.objects.MineFillUnit;
 import net.evilkingdom.prison.component.components.mine.objects.MineLocation;
+import net.evilkingdom.prison.component.components.mine.objects.MineResetScheduler;
+import net.evilkingdom.prison.component.components.mine.objects.MineVolume;
+import net.evilkingdom.prison.component.components.mine.objects.PlotAllocator;
 import net.evilkingdom.prison.component.components.rank.objects.Rank;
 import net.evilkingdom.prison.Prison;
 import net.evilkingdom.prison.component.components.data.objects.PlayerData;
@@ -26,16 +33,21 @@ import org.checkerframework.checker.units.qual.C;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class MineComponent {
 
     private final Prison plugin;
 
+    private static final int PLOT_SIZE = 550;
+
     private World world;
-    private BukkitTask task;
+    private BukkitTask task, reconcileTask;
     private ArrayList<UUID> playersWaitingForCreation;
     private HashMap<UUID, ArrayList<MineTaskType>> tasks;
+    private ConcurrentHashMap<UUID, MineVolume> volumes;
+    private MineResetScheduler resetScheduler;
 
     /**
      * Allows you to create the component.
@@ -52,7 +64,10 @@ public class MineComponent {
         this.initializeWorld();
         this.tasks = new HashMap<UUID, ArrayList<MineTaskType>>();
         this.playersWaitingForCreation = new ArrayList<UUID>();
+        this.volumes = new ConcurrentHashMap<UUID, MineVolume>();
+        this.resetScheduler = new MineResetScheduler(this.world, this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.mine.reset-scheduler.blocks-per-tick"), this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.mine.reset-scheduler.time-per-tick"));
         this.initializeTask();
+        this.initializeBenchmark();
         this.registerCommands();
         this.registerListeners();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aInitialized."));
@@ -73,6 +88,7 @@ public class MineComponent {
     private void registerListeners() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aRegistering listeners..."));
         new ConnectionListener().register();
+        new BlockListener().register();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aRegistered listeners."));
     }
 
@@ -117,34 +133,62 @@ public class MineComponent {
 
     /**
      * Allows you to initialize the task.
+     * The task saves and uncaches the mines whose owner is offline once nobody is left in them (and no task is running on them), releasing their leases once they're saved (like the quit listener does).
      */
     public void initializeTask() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aInitializing task..."));
         this.task = Bukkit.getServer().getScheduler().runTaskTimer(this.plugin, () -> {
-            for (final Iterator<MineData> mineDataIterator = MineData.getCache().iterator(); mineDataIterator.hasNext();) {
-                final MineData mineData = mineDataIterator.next();
-                if (!Bukkit.getOfflinePlayer(mineData.getUUID()).isOnline()) {
-                    final ConstructorRegion constructorRegion = new ConstructorRegion(this.plugin, mineData.getCornerOne(), mineData.getCornerTwo());
-                    if (Bukkit.getOnlinePlayers().stream().map(onlinePlayer -> constructorRegion.isWithin(onlinePlayer.getLocation())).toList().isEmpty()) {
-                        mineDataIterator.remove();
-                    }
+            for (final MineData mineData : new ArrayList<MineData>(MineData.getCache())) {
+                if ((mineData.getOwner() != null && Bukkit.getPlayer(mineData.getOwner()) != null) || !this.tasks.getOrDefault(mineData.getUUID(), new ArrayList<MineTaskType>()).isEmpty()) {
+                    continue;
+                }
+                final ConstructorRegion constructorRegion = new ConstructorRegion(this.plugin, mineData.getCornerOne(), mineData.getCornerTwo());
+                if (Bukkit.getOnlinePlayers().stream().noneMatch(onlinePlayer -> constructorRegion.isWithin(onlinePlayer.getLocation()))) {
+                    mineData.save(true).thenAccept(saved -> {
+                        if (saved) {
+                            this.plugin.getComponentManager().getDataComponent().releaseLease("prison_mines", mineData.getUUID().toString());
+                        }
+                    });
+                    mineData.uncache();
                 }
-                this.getPercentage(mineData.getUUID()).whenComplete((minePercentage, minePercentageThrowable) -> {
-                    if (minePercentage <= this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.mine.reset-percentages.automatic")) {
-                        this.reset(mineData.getUUID());
-                    }
-                });
             }
         }, 0L, 100L);
+        final long reconcileInterval = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.mine.volume.reconcile-interval");
+        this.reconcileTask = Bukkit.getServer().getScheduler().runTaskTimer(this.plugin, () -> {
+            this.volumes.keySet().removeIf(uuid -> MineData.getViaCache(uuid).isEmpty());
+            for (final MineData mineData : MineData.getCache()) {
+                if (!this.tasks.getOrDefault(mineData.getUUID(), new ArrayList<MineTaskType>()).contains(MineTaskType.RESET)) {
+                    this.reconcile(mineData);
+                }
+            }
+        }, reconcileInterval, reconcileInterval);
+        this.resetScheduler.start();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aInitialized task."));
     }
 
+    /**
+     * Allows you to initialize the fill benchmark.
+     * It only runs if it's enabled, once the server has finished starting.
+     */
+    public void initializeBenchmark() {
+        if (!this.plugin.getComponentManager().getFileComponent().getConfiguration().getBoolean("components.mine.benchmark.enabled")) {
+            return;
+        }
+        final Location cornerOne = new Location(this.world, this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.mine.benchmark.x"), this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.mine.benchmark.y"), this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.mine.benchmark.z"));
+        final MineFillBenchmark mineFillBenchmark = new MineFillBenchmark(this.world, cornerOne, this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.mine.benchmark.size"), this.plugin.getComponentManager().getFileComponent().getConfiguration().getInt("components.mine.benchmark.rounds"));
+        Bukkit.getScheduler().runTaskLater(this.plugin, () -> mineFillBenchmark.start(), 100L);
+    }
+
     /**
      * Allows you to terminate the task.
      */
     public void terminateTask() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Mine] &cTerminating task..."));
         this.task.cancel();
+        if (this.reconcileTask != null) {
+            this.reconcileTask.cancel();
+        }
+        this.resetScheduler.stop();
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Mine] &cTerminated tasks."));
     }
 
@@ -166,6 +210,15 @@ public class MineComponent {
         return this.playersWaitingForCreation;
     }
 
+    /**
+     * Allows you to retrieve the reset scheduler.
+     *
+     * @return The reset scheduler.
+     */
+    public MineResetScheduler getResetScheduler() {
+        return this.resetScheduler;
+    }
+
     /**
      * Allows you to retrieve the world.
      *
@@ -177,11 +230,15 @@ public class MineComponent {
 
     /**
      * Allows you to reset a mine.
+     * The reset is queued on the reset scheduler straight away, and its blocks are picked asynchronously while it waits.
+     * Only the positions broken since the last reset are refilled, unless they can't be trusted (see MineVolume#drain), in which case the whole mine is filled.
+     * If the reset fails, it may have been partly written, so the broken positions are put back and the mine's count is reconciled with a scan (an automatic reset is armed again by MineComponent#resetAutomatically).
      *
      * @param uuid ~ The UUID of the mine.
+     * @param priority ~ The reset's priority (manual resets are served before automatic ones).
      * @return If the mine reset task was successful.
      */
-    public CompletableFuture<Boolean> reset(final UUID uuid) {
+    public CompletableFuture<Boolean> reset(final UUID uuid, final MineResetPriority priority) {
         if (this.tasks.getOrDefault(uuid, new ArrayList<MineTaskType>()).contains(MineTaskType.RESET)) {
             return CompletableFuture.supplyAsync(() -> false);
         }
@@ -192,21 +249,34 @@ public class MineComponent {
         final ArrayList<MineTaskType> tasks = this.tasks.getOrDefault(uuid, new ArrayList<MineTaskType>());
         tasks.add(MineTaskType.RESET);
         this.tasks.put(uuid, tasks);
-        return PlayerData.get(mineData.getOwner()).thenCompose(playerData -> {
+        final MineVolume mineVolume = this.getVolume(mineData);
+        final Optional<long[]> optionalBroken = mineVolume.drain();
+        final CompletableFuture<Optional<ArrayList<MineFillUnit>>> plan = PlayerData.get(mineData.getOwner()).thenApplyAsync(playerData -> {
             final SelfData selfData = SelfData.getViaCache().get();
-            final Rank rank = selfData.getRanks().stream().filter(dataRank -> dataRank.getRank().equals(playerData.getRank())).collect(Collectors.toList()).get(0);
-            final ConstructorRegion constructorRegion = new ConstructorRegion(this.plugin, mineData.getMineCornerOne(), mineData.getMineCornerTwo());
-            return constructorRegion.fill(rank.getBlockPallet()).thenApply(fillSuccessful -> {
-                final ArrayList<MineTaskType> newTasks = this.tasks.getOrDefault(uuid, new ArrayList<MineTaskType>());
-                newTasks.remove(MineTaskType.RESET);
-                this.tasks.put(uuid, newTasks);
-                return fillSuccessful;
-            });
+            final Optional<Rank> optionalRank = selfData.getRank(Math.min(playerData.getRank(), this.plugin.getComponentManager().getRankComponent().getMaximumRank()));
+            return optionalRank.map(rank -> optionalBroken.map(broken -> MineFillUnit.split(mineVolume, rank.getBlockPallet(), broken)).orElseGet(() -> MineFillUnit.split(mineVolume, rank.getBlockPallet())));
+        });
+        final long blocks = optionalBroken.map(broken -> MineVolume.count(broken)).orElse(mineVolume.getTotal());
+        return this.resetScheduler.submit(uuid, priority, blocks, plan).thenApply(fillSuccessful -> {
+            if (fillSuccessful) {
+                mineVolume.track();
+                mineVolume.setSolid(mineVolume.getTotal() - mineVolume.getBroken());
+            } else {
+                optionalBroken.ifPresent(broken -> mineVolume.restore(broken));
+            }
+            final ArrayList<MineTaskType> newTasks = this.tasks.getOrDefault(uuid, new ArrayList<MineTaskType>());
+            newTasks.remove(MineTaskType.RESET);
+            this.tasks.put(uuid, newTasks);
+            if (!fillSuccessful && this.resetScheduler.isRunning()) {
+                this.reconcile(mineData);
+            }
+            return fillSuccessful;
         });
     }
 
     /**
      * Allows you to get a mine's percentage.
+     * It's read from the mine's live block count, the mine is only scanned if the count isn't known yet.
      *
      * @param uuid ~ The mine's UUID.
      * @return The mine's percentage (out of 100).
@@ -216,17 +286,92 @@ public class MineComponent {
             return CompletableFuture.supplyAsync(() -> 100.0);
         }
         final MineData mineData = MineData.getViaCache(uuid).get();
+        final MineVolume mineVolume = this.getVolume(mineData);
+        if (mineVolume.isCounted()) {
+            return CompletableFuture.completedFuture(mineVolume.getPercentage());
+        }
+        return this.reconcile(mineData).thenApply(reconciledMineVolume -> reconciledMineVolume.getPercentage());
+    }
+
+    /**
+     * Allows you to reconcile a mine's live block count with a scan of its blocks.
+     * The count is exact after a reset and only drifts through changes the break listener doesn't see (pistons, explosions, other plugins), so this runs rarely.
+     *
+     * @param mineData ~ The mine's data.
+     * @return The mine's volume once it's reconciled.
+     */
+    public CompletableFuture<MineVolume> reconcile(final MineData mineData) {
+        final MineVolume mineVolume = this.getVolume(mineData);
+        final long breaks = mineVolume.getBreaks();
         final ConstructorRegion constructorRegion = new ConstructorRegion(this.plugin, mineData.getMineCornerOne(), mineData.getMineCornerTwo());
         return constructorRegion.getBlockComposition().thenApply(blockComposition -> {
-            double air = blockComposition.getOrDefault(Material.AIR, 0);
-            double total = blockComposition.values().stream().mapToInt(integer -> integer).sum();
-            return ((total - air) / total) * 100;
+            final long air = blockComposition.getOrDefault(Material.AIR, 0);
+            final long total = blockComposition.values().stream().mapToLong(integer -> integer).sum();
+            mineVolume.reconcile(total - air, breaks);
+            if (mineVolume.trip()) {
+                Bukkit.getScheduler().runTask(this.plugin, () -> this.resetAutomatically(mineData.getUUID(), mineVolume));
+            }
+            return mineVolume;
+        });
+    }
+
+    /**
+     * Allows you to retrieve a mine's volume.
+     * A new volume (with an unknown count) replaces the old one if the mine's inner corners have moved.
+     *
+     * @param mineData ~ The mine's data.
+     * @return The mine's volume.
+     */
+    public MineVolume getVolume(final MineData mineData) {
+        final Location cornerOne = mineData.getMineCornerOne();
+        final Location cornerTwo = mineData.getMineCornerTwo();
+        final MineVolume mineVolume = this.volumes.get(mineData.getUUID());
+        if (mineVolume != null && mineVolume.matches(cornerOne, cornerTwo)) {
+            return mineVolume;
+        }
+        final MineVolume newMineVolume = new MineVolume(cornerOne, cornerTwo, this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.reset-percentages.automatic"));
+        this.volumes.put(mineData.getUUID(), newMineVolume);
+        return newMineVolume;
+    }
+
+    /**
+     * Allows you to record a block being broken inside a mine's mine.
+     * Should only be called for solid blocks within the mine's mine (see MineComponent#isWithinInner).
+     * If the break takes the mine down to the automatic reset percentage, the mine is reset straight away.
+     * The first break in a mine whose count isn't known yet starts counting it.
+     *
+     * @param uuid ~ The mine's UUID.
+     * @param location ~ The broken block's location.
+     */
+    public void decrement(final UUID uuid, final Location location) {
+        final MineVolume mineVolume = this.volumes.get(uuid);
+        if (mineVolume == null) {
+            MineData.getViaCache(uuid).ifPresent(mineData -> this.reconcile(mineData));
+            return;
+        }
+        if (mineVolume.decrement(location.getBlockX(), location.getBlockY(), location.getBlockZ())) {
+            this.resetAutomatically(uuid, mineVolume);
+        }
+    }
+
+    /**
+     * Allows you to automatically reset a mine whose volume tripped.
+     * If the reset doesn't go through, the volume is armed again so the next break retries it.
+     *
+     * @param uuid ~ The mine's UUID.
+     * @param mineVolume ~ The mine's volume.
+     */
+    private void resetAutomatically(final UUID uuid, final MineVolume mineVolume) {
+        this.reset(uuid, MineResetPriority.AUTOMATIC).thenAccept(resetSuccessful -> {
+            if (!resetSuccessful) {
+                mineVolume.arm();
+            }
         });
     }
 
     /**
      * Allows you to create a mine.
-     * It uses the SelfData's mine locations and gets the first unused one- after it is used, it'll set it to used and generate another one for the next mine creation.
+     * It allocates a mine location from the SelfData's plot allocator- after it is used, it'll generate another one for the next mine creation.
      *
      * @param player ~ The mine's owner.
      * @param theme ~ The mine's theme.
@@ -239,14 +384,20 @@ public class MineComponent {
         this.tasks.put(uuid, tasks);
         this.playersWaitingForCreation.add(player.getUniqueId());
         return SelfData.get().thenApply(selfData -> {
-            final MineLocation mineLocation = selfData.getMineLocations().stream().filter(dataLocation -> !dataLocation.isUsed()).findFirst().get();
-            mineLocation.setUsed(true);
-            this.generateLocations(mineLocation.getX(), mineLocation.getZ(), 1).whenComplete((generatedLocations, generatedLocationsThrowable) -> {
-                selfData.getMineLocations().addAll(generatedLocations);
+            final PlotAllocator plotAllocator = selfData.getPlotAllocator();
+            final Optional<MineLocation> optionalMineLocation = plotAllocator.allocate();
+            if (optionalMineLocation.isEmpty()) {
+                return null;
+            }
+            selfData.markDirty();
+            this.generateLocations(plotAllocator.reserve(1), 1).whenComplete((generatedLocations, generatedLocationsThrowable) -> {
+                plotAllocator.add(generatedLocations);
+                selfData.markDirty();
             });
-            return mineLocation;
+            return optionalMineLocation.get();
         }).thenCompose(mineLocation -> {
             if (mineLocation == null) {
+                this.playersWaitingForCreation.remove(player.getUniqueId());
                 return CompletableFuture.supplyAsync(() -> Optional.empty());
             }
             final Location center = new Location(this.world, mineLocation.getX(), 175, mineLocation.getZ());
@@ -254,10 +405,12 @@ public class MineComponent {
             final File schematicFile = new File(this.plugin.getDataFolder() + File.separator + "schematics", this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.themes." + theme + ".schematic"));
             return constructorSchematic.load(schematicFile).thenCompose(loadSuccessful -> {
                 if (!loadSuccessful) {
+                    this.release(mineLocation);
                     return CompletableFuture.supplyAsync(() -> Optional.empty());
                 }
                 return constructorSchematic.paste().thenApply(pasteSuccessful -> {
                     if (!pasteSuccessful) {
+                        this.release(mineLocation);
                         return Optional.empty();
                     }
                     final MineData mineData = new MineData(uuid);
@@ -276,7 +429,7 @@ public class MineComponent {
                             mineData.save(true);
                             mineData.uncache();
                         } else {
-                            this.reset(uuid);
+                            this.reset(uuid, MineResetPriority.MANUAL);
                         }
                     });
                     return Optional.of(uuid);
@@ -285,6 +438,19 @@ public class MineComponent {
         });
     }
 
+    /**
+     * Allows you to release a mine location so it can be used by another mine.
+     *
+     * @param mineLocation ~ The mine location to release.
+     */
+    public void release(final MineLocation mineLocation) {
+        SelfData.getViaCache().ifPresent(selfData -> {
+            if (selfData.getPlotAllocator().release(mineLocation)) {
+                selfData.markDirty();
+            }
+        });
+    }
+
     /**
      * Allows you to change a mine's theme.
      *
@@ -303,6 +469,7 @@ public class MineComponent {
         final ArrayList<MineTaskType> tasks = this.tasks.getOrDefault(uuid, new ArrayList<MineTaskType>());
         tasks.add(MineTaskType.CHANGE_THEME);
         this.tasks.put(uuid, tasks);
+        this.getVolume(mineData).untrack();
         final ConstructorRegion constructorRegion = new ConstructorRegion(this.plugin, mineData.getCornerOne(), mineData.getCornerTwo());
         return constructorRegion.fill(Material.AIR).thenCompose(fillSuccessful -> {
             if (!fillSuccessful) {
@@ -322,7 +489,7 @@ public class MineComponent {
                     final ArrayList<MineTaskType> newTasks = this.tasks.getOrDefault(uuid, new ArrayList<MineTaskType>());
                     newTasks.remove(MineTaskType.CHANGE_THEME);
                     this.tasks.put(uuid, newTasks);
-                    this.reset(mineData.getUUID());
+                    this.reset(mineData.getUUID(), MineResetPriority.MANUAL);
                     return true;
                 });
             });
@@ -331,42 +498,79 @@ public class MineComponent {
 
     /**
      * Allows you to generate a certain amount of mine locations.
+     * The mine locations are taken straight from the spiral by index, so it doesn't matter how many have been generated before.
      *
-     * @param x ~ The x coordinate to start with.
-     * @param z ~ The z coordinate to start with.
+     * @param index ~ The spiral index to start after.
      * @param amount ~ The amount of mine locations to generate.
      * @return The mine locations.
      */
-    public CompletableFuture<ArrayList<MineLocation>> generateLocations(final int x, final int z, final long amount) {
+    public CompletableFuture<ArrayList<MineLocation>> generateLocations(final long index, final long amount) {
         return CompletableFuture.supplyAsync(() -> {
             final ArrayList<MineLocation> mineLocations = new ArrayList<MineLocation>();
-            boolean valid = false;
-            for (int i = 0; true; i++) {
-                final int[] point = GridUtilities.getPoint(i);
-                final int currentX;
-                final int currentZ;
-                if (i == 0) {
-                    currentX = 0;
-                    currentZ = 0;
-                } else {
-                    currentX = (point[0] * 550);
-                    currentZ = (point[1] * 550);
-                }
-                if (valid) {
-                    final MineLocation mineLocation = new MineLocation(currentX, currentZ, false);
-                    mineLocations.add(mineLocation);
-                }
-                if ((currentX == x) && (currentZ == z)) {
-                    valid = true;
-                }
-                if (mineLocations.size() == amount) {
-                    break;
-                }
+            for (long i = (index + 1); i < (index + amount + 1); i++) {
+                mineLocations.add(this.getLocation(i));
             }
             return mineLocations;
         });
     }
 
+    /**
+     * Allows you to retrieve the mine location at a spiral index.
+     *
+     * @param index ~ The spiral index.
+     * @return The mine location.
+     */
+    public MineLocation getLocation(final long index) {
+        if (index == 0L) {
+            return new MineLocation(0, 0, false);
+        }
+        final int[] point = GridUtilities.getPoint((int) index);
+        return new MineLocation((point[0] * PLOT_SIZE), (point[1] * PLOT_SIZE), false);
+    }
+
+    /**
+     * Allows you to find the highest spiral index of some mine locations.
+     * Only used for mine locations saved before the spiral index was recorded, it walks the spiral until every mine location has been found.
+     * The walk is bounded by the outermost ring of plots the mine locations are on (a square spiral has covered ring r by index (2r + 1)² - 1), and mine locations that aren't on the spiral are logged and skipped.
+     *
+     * @param mineLocations ~ The mine locations.
+     * @return The highest spiral index of the mine locations.
+     */
+    public long findIndex(final Collection<MineLocation> mineLocations) {
+        final HashSet<MineLocation> remainingMineLocations = new HashSet<MineLocation>();
+        long ring = 0L;
+        for (final MineLocation mineLocation : mineLocations) {
+            if (Math.floorMod(mineLocation.getX(), PLOT_SIZE) != 0 || Math.floorMod(mineLocation.getZ(), PLOT_SIZE) != 0) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Mine] The mine location at " + mineLocation.getX() + ", " + mineLocation.getZ() + " isn't on the plot grid, skipping it."));
+                continue;
+            }
+            remainingMineLocations.add(mineLocation);
+            ring = Math.max(ring, Math.max(Math.abs((long) mineLocation.getX()), Math.abs((long) mineLocation.getZ())) / PLOT_SIZE);
+        }
+        final long bound = Math.min(Integer.MAX_VALUE, (2L * ring + 1L) * (2L * ring + 1L));
+        long index = 0L;
+        for (long i = 0L; !remainingMineLocations.isEmpty() && i < bound; i++) {
+            if (remainingMineLocations.remove(this.getLocation(i))) {
+                index = i;
+            }
+        }
+        remainingMineLocations.forEach(mineLocation -> Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Mine] The mine location at " + mineLocation.getX() + ", " + mineLocation.getZ() + " isn't on the spiral, skipping it.")));
+        return index;
+    }
+
+    /**
+     * Allows you to retrieve the plot a location is on.
+     * Mines are laid out on a grid of plots centered on multiples of the plot size, so the plot is found with plain arithmetic.
+     *
+     * @param location ~ The location to retrieve from.
+     * @return The plot, packed as the plot's x in the high bits and the plot's z in the low bits.
+     */
+    public long getPlot(final Location location) {
+        final long plotX = Math.floorDiv(location.getBlockX() + (PLOT_SIZE / 2), PLOT_SIZE);
+        final long plotZ = Math.floorDiv(location.getBlockZ() + (PLOT_SIZE / 2), PLOT_SIZE);
+        return (plotX << 32) | (plotZ & 0xFFFFFFFFL);
+    }
+
     /**
      * Allows you to retrieve a mine from a location.
      *
@@ -374,10 +578,10 @@ public class MineComponent {
      * @return The mine's uuid (if the location leads to one).
      */
     public Optional<UUID> get(final Location location) {
-        return MineData.getCache().stream().filter(mineData -> {
+        return MineData.getViaCacheByPlot(this.getPlot(location)).filter(mineData -> {
             final ConstructorRegion constructorRegion = new ConstructorRegion(this.plugin, mineData.getCornerOne(), mineData.getCornerTwo());
             return constructorRegion.isWithin(location);
-        }).map(mineData -> mineData.getUUID()).findFirst();
+        }).map(mineData -> mineData.getUUID());
     }
 
     /**
@@ -17,17 +17,18 @@ import net.evilkingdom.commons.menu.MenuImplementor;
 import net.evilkingdom.commons.menu.objects.Menu;
 import net.evilkingdom.commons.menu.objects.MenuItem;
 import net.evilkingdom.commons.utilities.luckperms.LuckPermsUtilities;
-import net.evilkingdom.commons.utilities.mojang.MojangUtilities;
+import net.evilkingdom.commons.utilities.number.NumberUtilities;
+import net.evilkingdom.commons.utilities.number.enums.NumberFormatType;
 import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.commons.utilities.time.TimeUtilities;
 import net.evilkingdom.prison.component.components.data.objects.MineData;
 import net.evilkingdom.prison.Prison;
 import net.evilkingdom.prison.component.components.data.objects.PlayerData;
+import net.evilkingdom.prison.component.components.mine.enums.MineResetPriority;
 import net.evilkingdom.prison.component.components.mine.enums.MineTaskType;
 import net.minecraft.util.TimeUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.Sound;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -37,6 +38,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.persistence.PersistentDataType;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class MineCommand extends CommandHandler {
@@ -139,22 +141,23 @@ public class MineCommand extends CommandHandler {
                             player.chat("/mine go");
                             return;
                         }
-                        MojangUtilities.getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
+                        this.plugin.getComponentManager().getDataComponent().getNameIndex().getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
                             if (optionalTargetUUID.isEmpty()) {
                                 this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", arguments[1]))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.go.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.pitch"));
                                 return;
                             }
-                            final OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(optionalTargetUUID.get());
-                            PlayerData.get(offlineTarget.getUniqueId()).whenComplete((targetData, targetDataThrowable) -> {
+                            final UUID targetUUID = optionalTargetUUID.get();
+                            final String targetName = this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(targetUUID).orElse(arguments[1]);
+                            PlayerData.get(targetUUID).whenComplete((targetData, targetDataThrowable) -> {
                                 targetData.exists().whenComplete((targetDataExists, targetDataExistsThrowable) -> {
                                     if (!targetDataExists) {
-                                        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.go.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.pitch"));
                                         return;
                                     }
                                     if (targetData.getMine().isEmpty()) {
-                                        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-go.target-has-no-mine").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-go.target-has-no-mine").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.go.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.pitch"));
                                         return;
                                     }
@@ -165,12 +168,12 @@ public class MineCommand extends CommandHandler {
                                             return;
                                         }
                                         if (mineData.getBanned().contains(player.getUniqueId())) {
-                                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-go.banned-from-target-mine").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-go.banned-from-target-mine").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                             player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.go.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.pitch"));
                                             return;
                                         }
                                         if (mineData.isPrivate() && !mineData.getWhitelisted().contains(player.getUniqueId())) {
-                                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-go.target-mine-private").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.invalid-go.target-mine-private").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                             player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.go.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.error.pitch"));
                                             return;
                                         }
@@ -178,7 +181,7 @@ public class MineCommand extends CommandHandler {
                                             mineData.cache();
                                         }
                                         Bukkit.getScheduler().runTask(this.plugin, () -> player.teleport(mineData.getGo()));
-                                        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.success.with-target").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                        this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.go.messages.success.with-target").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.go.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.go.sounds.success.pitch"));
                                         final Border border = new Border(this.plugin, player, mineData.getCenter().toCenterLocation(), mineData.getBorderSize(), BorderColor.RED);
                                         Bukkit.getScheduler().runTaskLater(this.plugin, () -> border.show(), 5L);
@@ -250,9 +253,12 @@ public class MineCommand extends CommandHandler {
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.reset.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.reset.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.reset.sounds.error.pitch"));
                         return;
                     }
-                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.reset.messages.success.resetting").forEach(string -> player.sendMessage(StringUtilities.colorize(string)));
+                    final CompletableFuture<Boolean> reset = this.plugin.getComponentManager().getMineComponent().reset(mineData.getUUID(), MineResetPriority.MANUAL);
+                    final String position = NumberUtilities.format(this.plugin.getComponentManager().getMineComponent().getResetScheduler().getPosition(mineData.getUUID()).orElse(1), NumberFormatType.COMMAS);
+                    final String estimate = TimeUtilities.format(Math.max(50L, this.plugin.getComponentManager().getMineComponent().getResetScheduler().getEstimate(mineData.getUUID()).orElse(0L)));
+                    this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.reset.messages.success.resetting").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%position%", position).replace("%estimate%", estimate))));
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.reset.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.reset.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.reset.sounds.success.pitch"));
-                    this.plugin.getComponentManager().getMineComponent().reset(mineData.getUUID()).whenComplete((resetSuccessful, resetSuccessfulThrowable) -> {
+                    reset.whenComplete((resetSuccessful, resetSuccessfulThrowable) -> {
                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.reset.messages.success.reset").forEach(string -> player.sendMessage(StringUtilities.colorize(string)));
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.reset.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.reset.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.reset.sounds.success.pitch"));
                         final ArrayList<Long> durations = new ArrayList<Long>(LuckPermsUtilities.getPermissionsViaCache(player.getUniqueId()).stream().filter(permission -> permission.startsWith("prison.mine.commands.mine.sub-commands.reset.cooldown.")).map(permission -> TimeUtilities.get(permission.replaceFirst("prison.mine.commands.mine.sub-commands.reset.cooldown.", "")).get() / 50).collect(Collectors.toList()));
@@ -311,17 +317,18 @@ public class MineCommand extends CommandHandler {
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.ban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.pitch"));
                     return;
                 }
-                MojangUtilities.getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
+                this.plugin.getComponentManager().getDataComponent().getNameIndex().getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
                     if (optionalTargetUUID.isEmpty()) {
                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.ban.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", arguments[1]))));
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.ban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.pitch"));
                         return;
                     }
-                    final OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(optionalTargetUUID.get());
-                    PlayerData.get(offlineTarget.getUniqueId()).whenComplete((targetData, targetDataThrowable) -> {
+                    final UUID targetUUID = optionalTargetUUID.get();
+                    final String targetName = this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(targetUUID).orElse(arguments[1]);
+                    PlayerData.get(targetUUID).whenComplete((targetData, targetDataThrowable) -> {
                         targetData.exists().whenComplete((targetDataExists, targetDataExistsThrowable) -> {
                             if (!targetDataExists) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.ban.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.ban.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.ban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.pitch"));
                                 return;
                             }
@@ -332,16 +339,16 @@ public class MineCommand extends CommandHandler {
                                 return;
                             }
                             final MineData mineData = MineData.getViaCache(playerData.getMine().get()).get();
-                            if (mineData.getBanned().contains(offlineTarget.getUniqueId())) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.ban.messages.invalid-ban.already-banned").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            if (mineData.getBanned().contains(targetUUID)) {
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.ban.messages.invalid-ban.already-banned").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.ban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.error.pitch"));
                                 return;
                             }
-                            mineData.getBanned().add(offlineTarget.getUniqueId());
-                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.ban.messages.success.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            mineData.addBanned(targetUUID);
+                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.ban.messages.success.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                             player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.ban.sounds.success.player.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.success.player.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.success.player.pitch"));
-                            if (offlineTarget.isOnline()) {
-                                final Player target = offlineTarget.getPlayer();
+                            if (Bukkit.getPlayer(targetUUID) != null) {
+                                final Player target = Bukkit.getPlayer(targetUUID);
                                 if (this.plugin.getComponentManager().getMineComponent().isWithin(mineData.getUUID(), target.getLocation())) {
                                     final SelfData selfData = SelfData.getViaCache().get();
                                     Bukkit.getScheduler().runTask(this.plugin, () -> target.teleport(selfData.getSpawn()));
@@ -369,17 +376,18 @@ public class MineCommand extends CommandHandler {
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.pitch"));
                     return;
                 }
-                MojangUtilities.getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
+                this.plugin.getComponentManager().getDataComponent().getNameIndex().getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
                     if (optionalTargetUUID.isEmpty()) {
                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", arguments[1]))));
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.pitch"));
                         return;
                     }
-                    final OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(optionalTargetUUID.get());
-                    PlayerData.get(offlineTarget.getUniqueId()).whenComplete((targetData, targetDataThrowable) -> {
+                    final UUID targetUUID = optionalTargetUUID.get();
+                    final String targetName = this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(targetUUID).orElse(arguments[1]);
+                    PlayerData.get(targetUUID).whenComplete((targetData, targetDataThrowable) -> {
                         targetData.exists().whenComplete((targetDataExists, targetDataExistsThrowable) -> {
                             if (!targetDataExists) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.pitch"));
                                 return;
                             }
@@ -390,13 +398,13 @@ public class MineCommand extends CommandHandler {
                                 return;
                             }
                             final MineData mineData = MineData.getViaCache(playerData.getMine().get()).get();
-                            if (!mineData.getBanned().contains(offlineTarget.getUniqueId())) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.invalid-unban.not-banned").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            if (!mineData.getBanned().contains(targetUUID)) {
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.invalid-unban.not-banned").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unban.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unban.sounds.error.pitch"));
                                 return;
                             }
-                            mineData.getBanned().remove(offlineTarget.getUniqueId());
-                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.success").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            mineData.removeBanned(targetUUID);
+                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.success").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                             player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.ban.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.ban.sounds.success.pitch"));
                         });
                     });
@@ -454,17 +462,18 @@ public class MineCommand extends CommandHandler {
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.whitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.pitch"));
                     return;
                 }
-                MojangUtilities.getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
+                this.plugin.getComponentManager().getDataComponent().getNameIndex().getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
                     if (optionalTargetUUID.isEmpty()) {
                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.whitelist.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", arguments[1]))));
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.whitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.pitch"));
                         return;
                     }
-                    final OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(optionalTargetUUID.get());
-                    PlayerData.get(offlineTarget.getUniqueId()).whenComplete((targetData, targetDataThrowable) -> {
+                    final UUID targetUUID = optionalTargetUUID.get();
+                    final String targetName = this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(targetUUID).orElse(arguments[1]);
+                    PlayerData.get(targetUUID).whenComplete((targetData, targetDataThrowable) -> {
                         targetData.exists().whenComplete((targetDataExists, targetDataExistsThrowable) -> {
                             if (!targetDataExists) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.whitelist.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.whitelist.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.whitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.pitch"));
                                 return;
                             }
@@ -475,13 +484,13 @@ public class MineCommand extends CommandHandler {
                                 return;
                             }
                             final MineData mineData = MineData.getViaCache(playerData.getMine().get()).get();
-                            if (mineData.getWhitelisted().contains(offlineTarget.getUniqueId())) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.whitelist.messages.invalid-whitelist.already-whitelisted").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            if (mineData.getWhitelisted().contains(targetUUID)) {
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.whitelist.messages.invalid-whitelist.already-whitelisted").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.whitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.error.pitch"));
                                 return;
                             }
-                            mineData.getWhitelisted().add(offlineTarget.getUniqueId());
-                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.whitelist.messages.success").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            mineData.addWhitelisted(targetUUID);
+                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.whitelist.messages.success").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                             player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.whitelist.sounds.success.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.success.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.whitelist.sounds.success.pitch"));
                         });
                     });
@@ -503,17 +512,18 @@ public class MineCommand extends CommandHandler {
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.pitch"));
                     return;
                 }
-                MojangUtilities.getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
+                this.plugin.getComponentManager().getDataComponent().getNameIndex().getUUID(arguments[1]).whenComplete((optionalTargetUUID, uuidThrowable) -> {
                     if (optionalTargetUUID.isEmpty()) {
                         this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unwhitelist.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", arguments[1]))));
                         player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.pitch"));
                         return;
                     }
-                    final OfflinePlayer offlineTarget = Bukkit.getOfflinePlayer(optionalTargetUUID.get());
-                    PlayerData.get(offlineTarget.getUniqueId()).whenComplete((targetData, targetDataThrowable) -> {
+                    final UUID targetUUID = optionalTargetUUID.get();
+                    final String targetName = this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(targetUUID).orElse(arguments[1]);
+                    PlayerData.get(targetUUID).whenComplete((targetData, targetDataThrowable) -> {
                         targetData.exists().whenComplete((targetDataExists, targetDataExistsThrowable) -> {
                             if (!targetDataExists) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unwhitelist.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unwhitelist.messages.invalid-player.does-not-exist").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.pitch"));
                                 return;
                             }
@@ -524,16 +534,16 @@ public class MineCommand extends CommandHandler {
                                 return;
                             }
                             final MineData mineData = MineData.getViaCache(playerData.getMine().get()).get();
-                            if (!mineData.getWhitelisted().contains(offlineTarget.getUniqueId())) {
-                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.invalid-unwhitelist.not-whitelisted").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            if (!mineData.getWhitelisted().contains(targetUUID)) {
+                                this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unban.messages.invalid-unwhitelist.not-whitelisted").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                                 player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.error.pitch"));
                                 return;
                             }
-                            mineData.getWhitelisted().remove(offlineTarget.getUniqueId());
-                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unwhitelist.messages.success.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", offlineTarget.getName()))));
+                            mineData.removeWhitelisted(targetUUID);
+                            this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unwhitelist.messages.success.player").forEach(string -> player.sendMessage(StringUtilities.colorize(string.replace("%player%", targetName))));
                             player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.unwhitelist.sounds.success.player.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.success.player.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.unwhitelist.sounds.success.player.pitch"));
-                            if (offlineTarget.isOnline()) {
-                                final Player target = offlineTarget.getPlayer();
+                            if (Bukkit.getPlayer(targetUUID) != null) {
+                                final Player target = Bukkit.getPlayer(targetUUID);
                                 final SelfData selfData = SelfData.getViaCache().get();
                                 Bukkit.getScheduler().runTask(this.plugin, () -> target.teleport(selfData.getSpawn()));
                                 this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.commands.mine.sub-commands.unwhitelist.messages.success.target").forEach(string -> target.sendMessage(StringUtilities.colorize(string.replace("%player%", player.getName()))));
@@ -608,7 +618,7 @@ public class MineCommand extends CommandHandler {
                     case "unban" -> {
                         if (playerData.getMine().isPresent()) {
                             final MineData mineData = MineData.getViaCache(playerData.getMine().get()).get();
-                            tabCompletion.addAll(mineData.getBanned().stream().map(playerUUID -> Bukkit.getOfflinePlayer(playerUUID).getName()).collect(Collectors.toList()));
+                            tabCompletion.addAll(mineData.getBanned().stream().map(playerUUID -> this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(playerUUID)).flatMap(Optional::stream).collect(Collectors.toList()));
                         }
                     }
                     case "whitelist" -> {
@@ -620,7 +630,7 @@ public class MineCommand extends CommandHandler {
                     case "unwhitelist" -> {
                         if (playerData.getMine().isPresent()) {
                             final MineData mineData = MineData.getViaCache(playerData.getMine().get()).get();
-                            tabCompletion.addAll(mineData.getWhitelisted().stream().map(playerUUID -> Bukkit.getOfflinePlayer(playerUUID).getName()).collect(Collectors.toList()));
+                            tabCompletion.addAll(mineData.getWhitelisted().stream().map(playerUUID -> this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(playerUUID)).flatMap(Optional::stream).collect(Collectors.toList()));
                         }
                     }
                 }
@@ -1207,7 +1217,7 @@ public class MineCommand extends CommandHandler {
                 final MenuItem menuItem = new MenuItem(slotItem, inventoryClickEvent -> {
                     inventoryClickEvent.setCancelled(true);
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.pitch"));
-                    player.chat("/mine unban " + Bukkit.getOfflinePlayer(bannedUUID).getName());
+                    player.chat("/mine unban " + this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(bannedUUID).orElse(bannedUUID.toString()));
                     this.updatePanelBansMenu(player, 0);
                 });
                 menu.getItems().put(slot, menuItem);
@@ -1362,7 +1372,7 @@ public class MineCommand extends CommandHandler {
                 final MenuItem menuItem = new MenuItem(slotItem, inventoryClickEvent -> {
                     inventoryClickEvent.setCancelled(true);
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.pitch"));
-                    player.chat("/mine unban " + Bukkit.getOfflinePlayer(bannedUUID).getName());
+                    player.chat("/mine unban " + this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(bannedUUID).orElse(bannedUUID.toString()));
                     this.updatePanelBansMenu(player, page);
                 });
                 menu.getItems().put(slot, menuItem);
@@ -1516,7 +1526,7 @@ public class MineCommand extends CommandHandler {
                 final MenuItem menuItem = new MenuItem(slotItem, inventoryClickEvent -> {
                     inventoryClickEvent.setCancelled(true);
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.pitch"));
-                    player.chat("/mine unwhitelist " + Bukkit.getOfflinePlayer(whitelistedUUID).getName());
+                    player.chat("/mine unwhitelist " + this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(whitelistedUUID).orElse(whitelistedUUID.toString()));
                     this.updatePanelWhitelistedMenu(player, 0);
                 });
                 menu.getItems().put(slot, menuItem);
@@ -1651,7 +1661,7 @@ public class MineCommand extends CommandHandler {
                 final MenuItem menuItem = new MenuItem(slotItem, inventoryClickEvent -> {
                     inventoryClickEvent.setCancelled(true);
                     player.playSound(player.getLocation(), Sound.valueOf(this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.sound")), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.volume"), (float) this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.mine.commands.mine.sub-commands.panel.menus.user-control.sounds.click.pitch"));
-                    player.chat("/mine unwhitelist " + Bukkit.getOfflinePlayer(whitelistedUUID).getName());
+                    player.chat("/mine unwhitelist " + this.plugin.getComponentManager().getDataComponent().getNameIndex().getName(whitelistedUUID).orElse(whitelistedUUID.toString()));
                     this.updatePanelWhitelistedMenu(player, 0);
                 });
                 menu.getItems().put(slot, menuItem);
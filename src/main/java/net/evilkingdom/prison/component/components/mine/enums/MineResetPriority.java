@@ -0,0 +1,10 @@
+package net.evilkingdom.prison.component.components.mine.enums;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+public enum MineResetPriority {
+    MANUAL,
+    AUTOMATIC;
+}
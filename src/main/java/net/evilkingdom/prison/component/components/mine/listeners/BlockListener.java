@@ -12,6 +12,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
@@ -58,4 +59,20 @@ public class BlockListener implements Listener {
         }
     }
 
+    /**
+     * The listener for players breaking blocks (once the break is final).
+     * Keeps the mine's live block count up to date.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBroken(final BlockBreakEvent blockBreakEvent) {
+        final Block block = blockBreakEvent.getBlock();
+        if (block.getWorld() != this.plugin.getComponentManager().getMineComponent().getWorld() || block.getType().isAir()) {
+            return;
+        }
+        final Optional<UUID> optionalMineUUID = this.plugin.getComponentManager().getMineComponent().get(block.getLocation());
+        if (optionalMineUUID.isPresent() && this.plugin.getComponentManager().getMineComponent().isWithinInner(optionalMineUUID.get(), block.getLocation())) {
+            this.plugin.getComponentManager().getMineComponent().decrement(optionalMineUUID.get(), block.getLocation());
+        }
+    }
+
 }
@@ -0,0 +1,109 @@
+package net.evilkingdom.prison.component.components.mine.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.commons.utilities.string.StringUtilities;
+import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.rank.objects.BlockPallet;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+public class MineFillBenchmark {
+
+    private final Prison plugin;
+
+    private final World world;
+    private final MineVolume mineVolume;
+    private final BlockPallet blockPallet, airBlockPallet;
+    private final int rounds;
+
+    /**
+     * Allows you to create a Mine Fill Benchmark.
+     * It times the mine fill against real chunks of the mines' world (so the server's own costs are included), next to the old fill, which wrote every block through Block#setType.
+     * Both fills are timed on the main thread and written in one go, without the reset scheduler's budget, and start from air so no block is skipped for already matching.
+     *
+     * @param world ~ The mines' world.
+     * @param cornerOne ~ The benchmark's lowest corner (it should be far away from every mine).
+     * @param size ~ The benchmark's size (a cube, so 100 is a million blocks).
+     * @param rounds ~ The amount of rounds (the first one is a warmup and also loads the chunks).
+     */
+    public MineFillBenchmark(final World world, final Location cornerOne, final int size, final int rounds) {
+        this.plugin = Prison.getPlugin();
+
+        this.world = world;
+        this.mineVolume = new MineVolume(cornerOne, cornerOne.clone().add(size - 1, size - 1, size - 1), 50.0);
+        this.blockPallet = new BlockPallet(new Material[] {Material.STONE, Material.COBBLESTONE, Material.COAL_ORE, Material.IRON_ORE, Material.GOLD_ORE, Material.DIAMOND_ORE}, new double[] {40.0, 25.0, 15.0, 10.0, 7.0, 3.0});
+        this.airBlockPallet = new BlockPallet(new Material[] {Material.AIR}, new double[] {100.0});
+        this.rounds = Math.max(2, rounds);
+    }
+
+    /**
+     * Allows you to start the benchmark.
+     * A round runs every second, so a round's writes don't all land in the same tick.
+     */
+    public void start() {
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aStarting the fill benchmark (" + this.mineVolume.getTotal() + " blocks, " + this.rounds + " rounds)..."));
+        this.run(0);
+    }
+
+    /**
+     * Allows you to run a round of the benchmark.
+     *
+     * @param round ~ The round (starting at 0, the warmup).
+     */
+    private void run(final int round) {
+        this.clear();
+        final long planningStart = System.nanoTime();
+        final ArrayList<MineFillUnit> mineFillUnits = MineFillUnit.split(this.mineVolume, this.blockPallet);
+        final long writingStart = System.nanoTime();
+        mineFillUnits.forEach(mineFillUnit -> mineFillUnit.apply(this.world, Integer.MAX_VALUE));
+        final long newEnd = System.nanoTime();
+        this.clear();
+        final SplittableRandom random = new SplittableRandom();
+        final long oldStart = System.nanoTime();
+        for (int x = this.mineVolume.getMinimumX(); x <= this.mineVolume.getMaximumX(); x++) {
+            for (int y = this.mineVolume.getMinimumY(); y <= this.mineVolume.getMaximumY(); y++) {
+                for (int z = this.mineVolume.getMinimumZ(); z <= this.mineVolume.getMaximumZ(); z++) {
+                    this.world.getBlockAt(x, y, z).setType(this.blockPallet.getBlock(random), false);
+                }
+            }
+        }
+        final long oldEnd = System.nanoTime();
+        if (round == 0) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aFill benchmark warmup done."));
+        } else {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aFill benchmark round " + round + " (per million blocks): new fill " + this.format(newEnd - planningStart) + " ms (planning " + this.format(writingStart - planningStart) + " ms, writing " + this.format(newEnd - writingStart) + " ms), old fill " + this.format(oldEnd - oldStart) + " ms."));
+        }
+        if (round + 1 < this.rounds) {
+            Bukkit.getScheduler().runTaskLater(this.plugin, () -> this.run(round + 1), 20L);
+            return;
+        }
+        this.clear();
+        Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Mine] &aFinished the fill benchmark."));
+    }
+
+    /**
+     * Allows you to clear the benchmark's blocks to air.
+     */
+    private void clear() {
+        MineFillUnit.split(this.mineVolume, this.airBlockPallet).forEach(mineFillUnit -> mineFillUnit.apply(this.world, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Allows you to format a time per million blocks.
+     *
+     * @param nanoseconds ~ The time it took for the benchmark's blocks.
+     * @return The time per million blocks (in milliseconds, to one decimal place).
+     */
+    private String format(final long nanoseconds) {
+        return String.format("%.1f", (nanoseconds / 1000000.0) * (1000000.0 / this.mineVolume.getTotal()));
+    }
+
+}
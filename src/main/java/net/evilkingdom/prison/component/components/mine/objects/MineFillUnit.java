@@ -0,0 +1,276 @@
+package net.evilkingdom.prison.component.components.mine.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import net.evilkingdom.prison.component.components.rank.objects.BlockPallet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ThreadedLevelLightEngine;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.craftbukkit.v1_18_R2.CraftWorld;
+import org.bukkit.craftbukkit.v1_18_R2.util.CraftMagicNumbers;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class MineFillUnit {
+
+    private final int chunkX, chunkZ, minimumX, minimumY, minimumZ, maximumX, maximumY, maximumZ;
+    private final BlockState[] blocks;
+    private final short[] positions;
+    private int applied;
+
+    /**
+     * Allows you to create a Mine Fill Unit.
+     * It's the part of a mine's fill within a single chunk section, with its blocks already picked (and resolved to the server's block states) so applying it only writes them.
+     * This unit fills every block between its bounds.
+     *
+     * @param minimumX ~ The unit's lowest x coordinate.
+     * @param minimumY ~ The unit's lowest y coordinate.
+     * @param minimumZ ~ The unit's lowest z coordinate.
+     * @param maximumX ~ The unit's highest x coordinate (inclusive, within the same chunk section).
+     * @param maximumY ~ The unit's highest y coordinate (inclusive, within the same chunk section).
+     * @param maximumZ ~ The unit's highest z coordinate (inclusive, within the same chunk section).
+     * @param blockPallet ~ The block pallet to pick the blocks from.
+     * @param random ~ The random to pick the blocks with.
+     */
+    public MineFillUnit(final int minimumX, final int minimumY, final int minimumZ, final int maximumX, final int maximumY, final int maximumZ, final BlockPallet blockPallet, final SplittableRandom random) {
+        this.chunkX = minimumX >> 4;
+        this.chunkZ = minimumZ >> 4;
+        this.minimumX = minimumX;
+        this.minimumY = minimumY;
+        this.minimumZ = minimumZ;
+        this.maximumX = maximumX;
+        this.maximumY = maximumY;
+        this.maximumZ = maximumZ;
+        this.blocks = new BlockState[(maximumX - minimumX + 1) * (maximumY - minimumY + 1) * (maximumZ - minimumZ + 1)];
+        for (int index = 0; index < this.blocks.length; index++) {
+            this.blocks[index] = MineFillUnit.getState(blockPallet.getBlock(random));
+        }
+        this.positions = null;
+    }
+
+    /**
+     * Allows you to create a Mine Fill Unit.
+     * This unit only fills the given positions within its chunk section.
+     *
+     * @param chunkX ~ The unit's chunk x coordinate.
+     * @param sectionY ~ The unit's chunk section y coordinate.
+     * @param chunkZ ~ The unit's chunk z coordinate.
+     * @param positions ~ The unit's positions within the chunk section (packed as y << 8 | z << 4 | x).
+     * @param blockPallet ~ The block pallet to pick the blocks from.
+     * @param random ~ The random to pick the blocks with.
+     */
+    private MineFillUnit(final int chunkX, final int sectionY, final int chunkZ, final short[] positions, final BlockPallet blockPallet, final SplittableRandom random) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minimumX = chunkX << 4;
+        this.minimumY = sectionY << 4;
+        this.minimumZ = chunkZ << 4;
+        this.maximumX = this.minimumX + 15;
+        this.maximumY = this.minimumY + 15;
+        this.maximumZ = this.minimumZ + 15;
+        this.blocks = new BlockState[positions.length];
+        for (int index = 0; index < this.blocks.length; index++) {
+            this.blocks[index] = MineFillUnit.getState(blockPallet.getBlock(random));
+        }
+        this.positions = positions;
+    }
+
+    /**
+     * Allows you to split a mine's volume into fill units, one per chunk section.
+     * Should be called asynchronously, picking the blocks is the expensive part of planning a fill.
+     *
+     * @param mineVolume ~ The mine's volume.
+     * @param blockPallet ~ The block pallet to pick the blocks from.
+     * @return The fill units.
+     */
+    public static ArrayList<MineFillUnit> split(final MineVolume mineVolume, final BlockPallet blockPallet) {
+        final ArrayList<MineFillUnit> mineFillUnits = new ArrayList<MineFillUnit>();
+        final SplittableRandom random = new SplittableRandom();
+        for (int chunkX = mineVolume.getMinimumX() >> 4; chunkX <= mineVolume.getMaximumX() >> 4; chunkX++) {
+            for (int chunkZ = mineVolume.getMinimumZ() >> 4; chunkZ <= mineVolume.getMaximumZ() >> 4; chunkZ++) {
+                for (int sectionY = mineVolume.getMinimumY() >> 4; sectionY <= mineVolume.getMaximumY() >> 4; sectionY++) {
+                    final int minimumX = Math.max(mineVolume.getMinimumX(), chunkX << 4);
+                    final int minimumY = Math.max(mineVolume.getMinimumY(), sectionY << 4);
+                    final int minimumZ = Math.max(mineVolume.getMinimumZ(), chunkZ << 4);
+                    final int maximumX = Math.min(mineVolume.getMaximumX(), (chunkX << 4) + 15);
+                    final int maximumY = Math.min(mineVolume.getMaximumY(), (sectionY << 4) + 15);
+                    final int maximumZ = Math.min(mineVolume.getMaximumZ(), (chunkZ << 4) + 15);
+                    mineFillUnits.add(new MineFillUnit(minimumX, minimumY, minimumZ, maximumX, maximumY, maximumZ, blockPallet, random));
+                }
+            }
+        }
+        return mineFillUnits;
+    }
+
+    /**
+     * Allows you to split a mine's broken positions into fill units, one per chunk section that has any.
+     * Should be called asynchronously, like MineFillUnit#split(MineVolume, BlockPallet).
+     *
+     * @param mineVolume ~ The mine's volume.
+     * @param blockPallet ~ The block pallet to pick the blocks from.
+     * @param broken ~ The mine's broken positions (see MineVolume#drain).
+     * @return The fill units.
+     */
+    public static ArrayList<MineFillUnit> split(final MineVolume mineVolume, final BlockPallet blockPallet, final long[] broken) {
+        final int sizeX = mineVolume.getMaximumX() - mineVolume.getMinimumX() + 1;
+        final int sizeZ = mineVolume.getMaximumZ() - mineVolume.getMinimumZ() + 1;
+        final int minimumChunkX = mineVolume.getMinimumX() >> 4;
+        final int minimumSectionY = mineVolume.getMinimumY() >> 4;
+        final int minimumChunkZ = mineVolume.getMinimumZ() >> 4;
+        final int chunksZ = (mineVolume.getMaximumZ() >> 4) - minimumChunkZ + 1;
+        final int sectionsY = (mineVolume.getMaximumY() >> 4) - minimumSectionY + 1;
+        final int[] counts = new int[((mineVolume.getMaximumX() >> 4) - minimumChunkX + 1) * chunksZ * sectionsY];
+        final short[][] positions = new short[counts.length][];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int word = 0; word < broken.length; word++) {
+                for (long bits = broken[word]; bits != 0L; bits &= bits - 1L) {
+                    final long index = ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+                    final int x = mineVolume.getMinimumX() + (int) (index % sizeX);
+                    final int z = mineVolume.getMinimumZ() + (int) ((index / sizeX) % sizeZ);
+                    final int y = mineVolume.getMinimumY() + (int) (index / sizeX / sizeZ);
+                    final int section = (((x >> 4) - minimumChunkX) * chunksZ + ((z >> 4) - minimumChunkZ)) * sectionsY + ((y >> 4) - minimumSectionY);
+                    if (pass == 0) {
+                        counts[section]++;
+                    } else {
+                        positions[section][--counts[section]] = (short) ((y & 15) << 8 | (z & 15) << 4 | (x & 15));
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int section = 0; section < counts.length; section++) {
+                    positions[section] = new short[counts[section]];
+                }
+            }
+        }
+        final ArrayList<MineFillUnit> mineFillUnits = new ArrayList<MineFillUnit>();
+        final SplittableRandom random = new SplittableRandom();
+        for (int section = 0; section < positions.length; section++) {
+            if (positions[section].length == 0) {
+                continue;
+            }
+            final int chunkX = minimumChunkX + section / sectionsY / chunksZ;
+            final int chunkZ = minimumChunkZ + (section / sectionsY) % chunksZ;
+            final int sectionY = minimumSectionY + section % sectionsY;
+            mineFillUnits.add(new MineFillUnit(chunkX, sectionY, chunkZ, positions[section], blockPallet, random));
+        }
+        return mineFillUnits;
+    }
+
+    /**
+     * Allows you to resolve a block to its server block state.
+     * Only called while planning, so applying a unit never has to look a block up.
+     *
+     * @param material ~ The block.
+     * @return The block's default block state.
+     */
+    private static BlockState getState(final Material material) {
+        return CraftMagicNumbers.getBlock(material).defaultBlockState();
+    }
+
+    /**
+     * Allows you to apply the unit, up to a limit of blocks.
+     * Must be called on the main thread. Blocks are written straight into the chunk section's palette, without locking it, physics or neighbour updates, and blocks that already match are skipped.
+     * Every call then queues the light checks for the blocks it changed and relights them in one go, and sends the blocks it changed to the chunk's viewers as one section update.
+     * The unit carries on from where it stopped the next time it's applied, so a tick's block budget can end in the middle of it (and each part sends its own section update).
+     * Blocks with a block entity (on either side of the change) go through the level instead, so their block entities are kept right.
+     *
+     * @param world ~ The mines' world.
+     * @param limit ~ The maximum amount of blocks to write.
+     * @return The amount of blocks that were written (whether or not they changed).
+     */
+    public int apply(final World world, final int limit) {
+        final ServerLevel level = ((CraftWorld) world).getHandle();
+        final LevelChunk chunk = level.getChunk(this.chunkX, this.chunkZ);
+        final LevelChunkSection section = chunk.getSection(chunk.getSectionIndex(this.minimumY));
+        final boolean empty = section.hasOnlyAir();
+        final ShortOpenHashSet changed = new ShortOpenHashSet();
+        final LongArrayList lightChecks = new LongArrayList();
+        final BlockPos.MutableBlockPos blockPos = new BlockPos.MutableBlockPos();
+        final int sizeX = this.maximumX - this.minimumX + 1;
+        final int sizeZ = this.maximumZ - this.minimumZ + 1;
+        final int start = this.applied;
+        final int end = (int) Math.min(this.blocks.length, (long) start + Math.max(0, limit));
+        for (int index = start; index < end; index++) {
+            final int x, y, z;
+            if (this.positions != null) {
+                final short position = this.positions[index];
+                x = this.minimumX + (position & 15);
+                y = this.minimumY + (position >> 8);
+                z = this.minimumZ + ((position >> 4) & 15);
+            } else {
+                x = this.minimumX + index % sizeX;
+                y = this.minimumY + index / sizeX / sizeZ;
+                z = this.minimumZ + (index / sizeX) % sizeZ;
+            }
+            final BlockState state = this.blocks[index];
+            final BlockState previousState = section.getBlockState(x & 15, y & 15, z & 15);
+            if (previousState == state) {
+                continue;
+            }
+            blockPos.set(x, y, z);
+            if (previousState.hasBlockEntity() || state.hasBlockEntity()) {
+                level.setBlock(blockPos, state, Block.UPDATE_CLIENTS);
+                continue;
+            }
+            section.setBlockState(x & 15, y & 15, z & 15, state, false);
+            for (final Map.Entry<Heightmap.Types, Heightmap> heightmap : chunk.getHeightmaps()) {
+                heightmap.getValue().update(x & 15, y, z & 15, state);
+            }
+            if (previousState.getLightEmission() != state.getLightEmission() || previousState.getLightBlock(level, blockPos) != state.getLightBlock(level, blockPos) || previousState.useShapeForLightOcclusion() || state.useShapeForLightOcclusion()) {
+                lightChecks.add(blockPos.asLong());
+            }
+            changed.add((short) ((x & 15) << 8 | (z & 15) << 4 | (y & 15)));
+        }
+        this.applied = end;
+        if (changed.isEmpty()) {
+            return end - start;
+        }
+        chunk.setUnsaved(true);
+        final SectionPos sectionPos = SectionPos.of(this.chunkX, this.minimumY >> 4, this.chunkZ);
+        final ThreadedLevelLightEngine lightEngine = level.getChunkSource().getLightEngine();
+        if (empty != section.hasOnlyAir()) {
+            lightEngine.updateSectionStatus(sectionPos, section.hasOnlyAir());
+        }
+        for (int index = 0; index < lightChecks.size(); index++) {
+            lightEngine.checkBlock(BlockPos.of(lightChecks.getLong(index)));
+        }
+        lightEngine.tryScheduleUpdate();
+        final ClientboundSectionBlocksUpdatePacket packet = new ClientboundSectionBlocksUpdatePacket(sectionPos, changed, section, false);
+        level.getChunkSource().chunkMap.getPlayers(chunk.getPos(), false).forEach(serverPlayer -> serverPlayer.connection.send(packet));
+        return end - start;
+    }
+
+    /**
+     * Allows you to retrieve the amount of blocks in the unit that haven't been written yet.
+     *
+     * @return The amount of blocks left to write.
+     */
+    public int getRemaining() {
+        return this.blocks.length - this.applied;
+    }
+
+    /**
+     * Allows you to retrieve the amount of blocks in the unit.
+     *
+     * @return The amount of blocks in the unit.
+     */
+    public int getSize() {
+        return this.blocks.length;
+    }
+
+}
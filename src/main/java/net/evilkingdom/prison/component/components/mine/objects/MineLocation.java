@@ -7,7 +7,7 @@ package net.evilkingdom.prison.component.components.mine.objects;
 public class MineLocation {
 
     private final int x, z;
-    private boolean used;
+    private volatile boolean used;
 
     /**
      * Allows you to create a Mine Location.
@@ -58,4 +58,30 @@ public class MineLocation {
         this.used = used;
     }
 
+    /**
+     * Allows you to retrieve the mine location's squared distance from the origin.
+     *
+     * @return The mine location's squared distance from the origin.
+     */
+    public long getDistanceSquared() {
+        return ((long) this.x * this.x) + ((long) this.z * this.z);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof MineLocation)) {
+            return false;
+        }
+        final MineLocation mineLocation = (MineLocation) object;
+        return this.x == mineLocation.x && this.z == mineLocation.z;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * this.x) + this.z;
+    }
+
 }
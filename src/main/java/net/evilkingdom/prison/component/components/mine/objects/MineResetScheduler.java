@@ -0,0 +1,266 @@
+package net.evilkingdom.prison.component.components.mine.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import net.evilkingdom.commons.utilities.string.StringUtilities;
+import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.mine.enums.MineResetPriority;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MineResetScheduler {
+
+    private final Prison plugin;
+
+    private final World world;
+    private final long blocksPerTick, timePerTick;
+    private final AtomicLong sequence;
+    private final ConcurrentLinkedQueue<Job> submittedJobs;
+    private final ConcurrentHashMap<UUID, Job> jobs;
+    private final EnumMap<MineResetPriority, ArrayDeque<Job>> queues;
+    private BukkitTask task;
+
+    /**
+     * Allows you to create a Mine Reset Scheduler.
+     * Every mine reset is queued here and written a few fill units per tick, so many mines resetting at once can't stall a tick.
+     * Mines are served round-robin (a unit each in turn), with manual resets always served before automatic ones.
+     *
+     * @param world ~ The mines' world.
+     * @param blocksPerTick ~ The maximum amount of blocks written per tick.
+     * @param timePerTick ~ The maximum amount of time spent writing per tick (in microseconds).
+     */
+    public MineResetScheduler(final World world, final long blocksPerTick, final long timePerTick) {
+        this.plugin = Prison.getPlugin();
+
+        this.world = world;
+        this.blocksPerTick = Math.max(1L, blocksPerTick);
+        this.timePerTick = TimeUnit.MICROSECONDS.toNanos(Math.max(1L, timePerTick));
+        this.sequence = new AtomicLong(0L);
+        this.submittedJobs = new ConcurrentLinkedQueue<Job>();
+        this.jobs = new ConcurrentHashMap<UUID, Job>();
+        this.queues = new EnumMap<MineResetPriority, ArrayDeque<Job>>(MineResetPriority.class);
+        for (final MineResetPriority priority : MineResetPriority.values()) {
+            this.queues.put(priority, new ArrayDeque<Job>());
+        }
+    }
+
+    /**
+     * Allows you to start the scheduler.
+     */
+    public void start() {
+        this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, () -> this.tick(), 1L, 1L);
+    }
+
+    /**
+     * Allows you to stop the scheduler.
+     * Every queued reset is completed as unsuccessful.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        this.jobs.values().forEach(job -> job.future.complete(false));
+        this.jobs.clear();
+        this.submittedJobs.clear();
+        this.queues.values().forEach(queue -> queue.clear());
+    }
+
+    /**
+     * Allows you to retrieve if the scheduler is running.
+     *
+     * @return If the scheduler is running (it isn't once it's stopped).
+     */
+    public boolean isRunning() {
+        return this.task != null;
+    }
+
+    /**
+     * Allows you to submit a mine's reset.
+     * The reset is queued straight away (so it has a position), and only starts being written once its plan is ready.
+     *
+     * @param uuid ~ The mine's UUID.
+     * @param priority ~ The reset's priority.
+     * @param blocks ~ The amount of blocks the reset writes (used for the estimates until the plan is ready).
+     * @param plan ~ The reset's fill units (or empty if the reset can't go ahead).
+     * @return If the reset was successful or not.
+     */
+    public CompletableFuture<Boolean> submit(final UUID uuid, final MineResetPriority priority, final long blocks, final CompletableFuture<Optional<ArrayList<MineFillUnit>>> plan) {
+        final Job job = new Job(uuid, priority, this.sequence.getAndIncrement(), blocks);
+        this.jobs.put(uuid, job);
+        this.submittedJobs.add(job);
+        plan.whenComplete((optionalMineFillUnits, throwable) -> {
+            if (throwable != null || optionalMineFillUnits.isEmpty()) {
+                job.failed = true;
+                return;
+            }
+            job.remaining.set(optionalMineFillUnits.get().stream().mapToLong(mineFillUnit -> mineFillUnit.getSize()).sum());
+            job.mineFillUnits = new ArrayDeque<MineFillUnit>(optionalMineFillUnits.get());
+        });
+        return job.future;
+    }
+
+    /**
+     * Allows you to retrieve a mine's position in the queue.
+     * Manual resets are ahead of automatic ones, and resets with the same priority are in the order they were submitted.
+     *
+     * @param uuid ~ The mine's UUID.
+     * @return The mine's position (starting at 1, or empty if it isn't queued).
+     */
+    public OptionalInt getPosition(final UUID uuid) {
+        final Job job = this.jobs.get(uuid);
+        if (job == null) {
+            return OptionalInt.empty();
+        }
+        final long ahead = this.jobs.values().stream().filter(otherJob -> otherJob.priority.ordinal() < job.priority.ordinal() || (otherJob.priority == job.priority && otherJob.sequence < job.sequence)).count();
+        return OptionalInt.of((int) ahead + 1);
+    }
+
+    /**
+     * Allows you to retrieve an estimate of how long until a mine's reset is done.
+     * Every higher priority reset finishes first, and the resets with the same priority share the block budget evenly until the smaller ones finish.
+     *
+     * @param uuid ~ The mine's UUID.
+     * @return The estimate (in milliseconds, or empty if it isn't queued).
+     */
+    public OptionalLong getEstimate(final UUID uuid) {
+        final Job job = this.jobs.get(uuid);
+        if (job == null) {
+            return OptionalLong.empty();
+        }
+        final long remaining = job.remaining.get();
+        long blocks = 0L;
+        for (final Job otherJob : this.jobs.values()) {
+            if (otherJob.priority.ordinal() < job.priority.ordinal()) {
+                blocks += otherJob.remaining.get();
+            } else if (otherJob.priority == job.priority) {
+                blocks += Math.min(remaining, otherJob.remaining.get());
+            }
+        }
+        final long ticks = (blocks + this.blocksPerTick - 1L) / this.blocksPerTick;
+        return OptionalLong.of(ticks * 50L);
+    }
+
+    /**
+     * Allows you to retrieve the amount of queued resets.
+     *
+     * @return The amount of queued resets.
+     */
+    public int getSize() {
+        return this.jobs.size();
+    }
+
+    /**
+     * The scheduler's tick.
+     * Writes fill units, a unit per mine in turn, until the tick's block or time budget is spent.
+     * A unit never writes more than what's left of the block budget, the rest of it is written first on the mine's next turn.
+     */
+    private void tick() {
+        for (Job job = this.submittedJobs.poll(); job != null; job = this.submittedJobs.poll()) {
+            this.queues.get(job.priority).add(job);
+        }
+        final long deadline = System.nanoTime() + this.timePerTick;
+        long budget = this.blocksPerTick;
+        while (budget > 0L && System.nanoTime() - deadline < 0L) {
+            final Job job = this.next();
+            if (job == null) {
+                return;
+            }
+            final MineFillUnit mineFillUnit = job.mineFillUnits.poll();
+            final int written;
+            try {
+                written = mineFillUnit.apply(this.world, (int) Math.min(Integer.MAX_VALUE, budget));
+            } catch (final RuntimeException runtimeException) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Mine] Failed to write a fill unit for the mine " + job.uuid + ", stopping its reset (" + runtimeException + ")."));
+                runtimeException.printStackTrace();
+                this.finish(job, false);
+                continue;
+            }
+            budget -= written;
+            job.remaining.addAndGet(-written);
+            if (mineFillUnit.getRemaining() > 0) {
+                job.mineFillUnits.addFirst(mineFillUnit);
+            } else if (job.mineFillUnits.isEmpty()) {
+                this.finish(job, true);
+            }
+        }
+    }
+
+    /**
+     * Allows you to retrieve the next reset to write a fill unit for.
+     * The reset is moved to the back of its queue, so every ready reset is served in turn.
+     *
+     * @return The next reset (or null if no reset is ready).
+     */
+    private Job next() {
+        for (final ArrayDeque<Job> queue : this.queues.values()) {
+            for (int index = queue.size(); index > 0; index--) {
+                final Job job = queue.poll();
+                if (job.failed) {
+                    this.finish(job, false);
+                    continue;
+                }
+                queue.add(job);
+                if (job.mineFillUnits != null && !job.mineFillUnits.isEmpty()) {
+                    return job;
+                }
+                if (job.mineFillUnits != null) {
+                    this.finish(job, true);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Allows you to finish a reset.
+     * An unsuccessful reset may have been partly written already, so whoever submitted it has to reconcile the mine (see MineComponent#reset).
+     *
+     * @param job ~ The reset.
+     * @param successful ~ If the reset was successful or not.
+     */
+    private void finish(final Job job, final boolean successful) {
+        this.queues.get(job.priority).remove(job);
+        this.jobs.remove(job.uuid, job);
+        job.future.complete(successful);
+    }
+
+    private static class Job {
+
+        private final UUID uuid;
+        private final MineResetPriority priority;
+        private final long sequence;
+        private final AtomicLong remaining;
+        private final CompletableFuture<Boolean> future;
+        private volatile ArrayDeque<MineFillUnit> mineFillUnits;
+        private volatile boolean failed;
+
+        /**
+         * Allows you to create a Job.
+         *
+         * @param uuid ~ The mine's UUID.
+         * @param priority ~ The reset's priority.
+         * @param sequence ~ The order the reset was submitted in.
+         * @param blocks ~ The amount of blocks the reset writes.
+         */
+        private Job(final UUID uuid, final MineResetPriority priority, final long sequence, final long blocks) {
+            this.uuid = uuid;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.remaining = new AtomicLong(blocks);
+            this.future = new CompletableFuture<Boolean>();
+        }
+
+    }
+
+}
@@ -0,0 +1,311 @@
+package net.evilkingdom.prison.component.components.mine.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import org.bukkit.Location;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class MineVolume {
+
+    private final int minimumX, minimumY, minimumZ, maximumX, maximumY, maximumZ;
+    private final long total, threshold;
+    private final AtomicLong solid, breaks;
+    private final AtomicBoolean armed;
+    private final AtomicLongArray broken;
+    private volatile boolean counted, tracked;
+
+    /**
+     * Allows you to create a Mine Volume.
+     * It keeps a live count of a mine's solid blocks, so the mine's percentage is read without scanning its blocks.
+     * The count is set when the mine is reset or reconciled and decremented whenever a block inside is broken.
+     * It also remembers which positions were broken (a bit per block, indexed x first, then z, then y), so a reset only has to refill those.
+     *
+     * @param cornerOne ~ The mine's inner corner one.
+     * @param cornerTwo ~ The mine's inner corner two.
+     * @param automaticPercentage ~ The percentage the mine is automatically reset at (out of 100).
+     */
+    public MineVolume(final Location cornerOne, final Location cornerTwo, final double automaticPercentage) {
+        this.minimumX = Math.min(cornerOne.getBlockX(), cornerTwo.getBlockX());
+        this.minimumY = Math.min(cornerOne.getBlockY(), cornerTwo.getBlockY());
+        this.minimumZ = Math.min(cornerOne.getBlockZ(), cornerTwo.getBlockZ());
+        this.maximumX = Math.max(cornerOne.getBlockX(), cornerTwo.getBlockX());
+        this.maximumY = Math.max(cornerOne.getBlockY(), cornerTwo.getBlockY());
+        this.maximumZ = Math.max(cornerOne.getBlockZ(), cornerTwo.getBlockZ());
+        this.total = (long) (this.maximumX - this.minimumX + 1) * (this.maximumY - this.minimumY + 1) * (this.maximumZ - this.minimumZ + 1);
+        this.threshold = (long) Math.floor(this.total * (automaticPercentage / 100.0));
+        this.solid = new AtomicLong(0L);
+        this.breaks = new AtomicLong(0L);
+        this.armed = new AtomicBoolean(true);
+        this.broken = new AtomicLongArray((int) ((this.total + 63L) >>> 6));
+        this.counted = false;
+        this.tracked = false;
+    }
+
+    /**
+     * Allows you to retrieve if the volume spans the given corners.
+     * Used to notice the mine's inner corners moving (after a retheme), which makes the count meaningless.
+     *
+     * @param cornerOne ~ The mine's inner corner one.
+     * @param cornerTwo ~ The mine's inner corner two.
+     * @return If the volume spans the corners.
+     */
+    public boolean matches(final Location cornerOne, final Location cornerTwo) {
+        return this.minimumX == Math.min(cornerOne.getBlockX(), cornerTwo.getBlockX()) && this.minimumY == Math.min(cornerOne.getBlockY(), cornerTwo.getBlockY()) && this.minimumZ == Math.min(cornerOne.getBlockZ(), cornerTwo.getBlockZ()) && this.maximumX == Math.max(cornerOne.getBlockX(), cornerTwo.getBlockX()) && this.maximumY == Math.max(cornerOne.getBlockY(), cornerTwo.getBlockY()) && this.maximumZ == Math.max(cornerOne.getBlockZ(), cornerTwo.getBlockZ());
+    }
+
+    /**
+     * Allows you to record a block inside the volume being broken.
+     *
+     * @param x ~ The block's x coordinate.
+     * @param y ~ The block's y coordinate.
+     * @param z ~ The block's z coordinate.
+     * @return If the break took the mine down to its automatic reset percentage (see MineVolume#trip).
+     */
+    public boolean decrement(final int x, final int y, final int z) {
+        if (x >= this.minimumX && x <= this.maximumX && y >= this.minimumY && y <= this.maximumY && z >= this.minimumZ && z <= this.maximumZ) {
+            final long index = ((long) (y - this.minimumY) * (this.maximumZ - this.minimumZ + 1) + (z - this.minimumZ)) * (this.maximumX - this.minimumX + 1) + (x - this.minimumX);
+            final long bit = 1L << index;
+            this.broken.accumulateAndGet((int) (index >>> 6), bit, (word, mask) -> word | mask);
+        }
+        this.breaks.incrementAndGet();
+        this.solid.updateAndGet(solid -> Math.max(0L, solid - 1L));
+        return this.trip();
+    }
+
+    /**
+     * Allows you to trip the volume's automatic reset.
+     * It only trips once, when the count is known and at or below the automatic reset percentage, and isn't armed again until the count is back above it (after a reset).
+     *
+     * @return If the volume tripped (the mine should be reset).
+     */
+    public boolean trip() {
+        return this.counted && this.solid.get() <= this.threshold && this.armed.compareAndSet(true, false);
+    }
+
+    /**
+     * Allows you to arm the volume's automatic reset again.
+     * Used when a tripped reset didn't go through, so the next break retries it.
+     */
+    public void arm() {
+        this.armed.set(true);
+    }
+
+    /**
+     * Allows you to set the amount of solid blocks.
+     * Should be called when the mine is filled, since the amount is then known exactly.
+     *
+     * @param solid ~ The amount of solid blocks.
+     */
+    public void setSolid(final long solid) {
+        this.solid.set(Math.max(0L, Math.min(this.total, solid)));
+        this.counted = true;
+        if (this.solid.get() > this.threshold) {
+            this.armed.set(true);
+        }
+    }
+
+    /**
+     * Allows you to take the broken positions for a reset, clearing them.
+     * They're only handed out if they can be trusted (see MineVolume#track), otherwise the reset has to be a full fill.
+     *
+     * @return The broken positions (a bit per block, or empty if the reset has to be a full fill).
+     */
+    public Optional<long[]> drain() {
+        final boolean wasTracked = this.tracked;
+        final long[] broken = new long[this.broken.length()];
+        for (int index = 0; index < broken.length; index++) {
+            broken[index] = this.broken.getAndSet(index, 0L);
+        }
+        return wasTracked ? Optional.of(broken) : Optional.empty();
+    }
+
+    /**
+     * Allows you to put drained broken positions back.
+     * Used when a differential reset didn't go through, so the next one refills them.
+     *
+     * @param broken ~ The broken positions (see MineVolume#drain).
+     */
+    public void restore(final long[] broken) {
+        for (int index = 0; index < broken.length; index++) {
+            if (broken[index] != 0L) {
+                this.broken.accumulateAndGet(index, broken[index], (word, mask) -> word | mask);
+            }
+        }
+    }
+
+    /**
+     * Allows you to start trusting the broken positions.
+     * Should only be called once the whole mine has been filled, since any position broken before that was never recorded.
+     */
+    public void track() {
+        this.tracked = true;
+    }
+
+    /**
+     * Allows you to stop trusting the broken positions, so the next reset is a full fill.
+     * Should be called whenever blocks inside may have changed without being recorded.
+     */
+    public void untrack() {
+        this.tracked = false;
+    }
+
+    /**
+     * Allows you to retrieve the amount of broken positions.
+     *
+     * @return The amount of broken positions.
+     */
+    public long getBroken() {
+        long broken = 0L;
+        for (int index = 0; index < this.broken.length(); index++) {
+            broken += Long.bitCount(this.broken.get(index));
+        }
+        return broken;
+    }
+
+    /**
+     * Allows you to retrieve the amount of broken positions in drained broken positions.
+     *
+     * @param broken ~ The broken positions (see MineVolume#drain).
+     * @return The amount of broken positions.
+     */
+    public static long count(final long[] broken) {
+        long count = 0L;
+        for (final long word : broken) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Allows you to reconcile the amount of solid blocks with a scan of the mine.
+     * Blocks broken while the scan was running are taken off, since the scan may have read them before they were broken.
+     * If more blocks are missing than the breaks during the scan explain, blocks were removed without being recorded and the broken positions stop being trusted.
+     *
+     * @param scannedSolid ~ The amount of solid blocks the scan counted.
+     * @param breaksBefore ~ The amount of breaks before the scan started (see MineVolume#getBreaks).
+     * @return The amount the count had drifted by (0 if it wasn't known yet).
+     */
+    public long reconcile(final long scannedSolid, final long breaksBefore) {
+        final long solid = Math.min(this.total, Math.max(0L, scannedSolid - (this.breaks.get() - breaksBefore)));
+        final boolean wasCounted = this.counted;
+        final long previousSolid = this.solid.getAndSet(solid);
+        this.counted = true;
+        if (wasCounted && previousSolid - solid > this.breaks.get() - breaksBefore) {
+            this.tracked = false;
+        }
+        if (solid > this.threshold) {
+            this.armed.set(true);
+        }
+        return wasCounted ? previousSolid - solid : 0L;
+    }
+
+    /**
+     * Allows you to retrieve the amount of blocks broken inside the volume since it was created.
+     *
+     * @return The amount of blocks broken.
+     */
+    public long getBreaks() {
+        return this.breaks.get();
+    }
+
+    /**
+     * Allows you to retrieve if the amount of solid blocks is known.
+     * It isn't until the mine is reset or reconciled for the first time.
+     *
+     * @return If the amount of solid blocks is known.
+     */
+    public boolean isCounted() {
+        return this.counted;
+    }
+
+    /**
+     * Allows you to retrieve the amount of solid blocks.
+     *
+     * @return The amount of solid blocks.
+     */
+    public long getSolid() {
+        return this.solid.get();
+    }
+
+    /**
+     * Allows you to retrieve the volume's minimum x coordinate.
+     *
+     * @return The volume's minimum x coordinate (inclusive).
+     */
+    public int getMinimumX() {
+        return this.minimumX;
+    }
+
+    /**
+     * Allows you to retrieve the volume's maximum x coordinate.
+     *
+     * @return The volume's maximum x coordinate (inclusive).
+     */
+    public int getMaximumX() {
+        return this.maximumX;
+    }
+
+    /**
+     * Allows you to retrieve the volume's minimum y coordinate.
+     *
+     * @return The volume's minimum y coordinate (inclusive).
+     */
+    public int getMinimumY() {
+        return this.minimumY;
+    }
+
+    /**
+     * Allows you to retrieve the volume's maximum y coordinate.
+     *
+     * @return The volume's maximum y coordinate (inclusive).
+     */
+    public int getMaximumY() {
+        return this.maximumY;
+    }
+
+    /**
+     * Allows you to retrieve the volume's minimum z coordinate.
+     *
+     * @return The volume's minimum z coordinate (inclusive).
+     */
+    public int getMinimumZ() {
+        return this.minimumZ;
+    }
+
+    /**
+     * Allows you to retrieve the volume's maximum z coordinate.
+     *
+     * @return The volume's maximum z coordinate (inclusive).
+     */
+    public int getMaximumZ() {
+        return this.maximumZ;
+    }
+
+    /**
+     * Allows you to retrieve the amount of blocks.
+     *
+     * @return The amount of blocks.
+     */
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Allows you to retrieve the volume's percentage.
+     *
+     * @return The volume's percentage of solid blocks (out of 100).
+     */
+    public double getPercentage() {
+        if (this.total == 0L) {
+            return 100.0;
+        }
+        return ((double) this.solid.get() / this.total) * 100.0;
+    }
+
+}
@@ -0,0 +1,152 @@
+package net.evilkingdom.prison.component.components.mine.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+public class PlotAllocator {
+
+    private final LinkedHashMap<MineLocation, MineLocation> locations;
+    private final ArrayDeque<MineLocation> fresh;
+    private final PriorityQueue<MineLocation> freed;
+    private Optional<Long> index;
+
+    /**
+     * Allows you to create a Plot Allocator.
+     * Every method is synchronized, so two mine creations can never be handed the same plot.
+     */
+    public PlotAllocator() {
+        this.locations = new LinkedHashMap<MineLocation, MineLocation>();
+        this.fresh = new ArrayDeque<MineLocation>();
+        this.freed = new PriorityQueue<MineLocation>(Comparator.comparingLong(MineLocation::getDistanceSquared).thenComparingInt(MineLocation::getX).thenComparingInt(MineLocation::getZ));
+        this.index = Optional.empty();
+    }
+
+    /**
+     * Allows you to load mine locations into the allocator.
+     * Unused locations are treated as freed, so the ones nearest the origin are handed out first.
+     *
+     * @param mineLocations ~ The mine locations (in the order they were generated).
+     * @param index ~ The spiral index of the latest generated mine location (or empty if it wasn't recorded).
+     */
+    public synchronized void load(final Collection<MineLocation> mineLocations, final Optional<Long> index) {
+        this.index = index;
+        mineLocations.forEach(mineLocation -> {
+            if (this.locations.putIfAbsent(mineLocation, mineLocation) != null) {
+                return;
+            }
+            if (!mineLocation.isUsed()) {
+                this.freed.add(mineLocation);
+            }
+        });
+    }
+
+    /**
+     * Allows you to add newly generated mine locations to the allocator.
+     * They are handed out in the order they are added, after any freed locations.
+     *
+     * @param mineLocations ~ The mine locations (in the order they were generated).
+     */
+    public synchronized void add(final Collection<MineLocation> mineLocations) {
+        mineLocations.forEach(mineLocation -> {
+            if (this.locations.putIfAbsent(mineLocation, mineLocation) != null) {
+                return;
+            }
+            if (!mineLocation.isUsed()) {
+                this.fresh.add(mineLocation);
+            }
+        });
+    }
+
+    /**
+     * Allows you to allocate a mine location.
+     * Freed locations are reused nearest to the origin first, otherwise the next generated location is used.
+     *
+     * @return The allocated mine location (or empty if there are none free).
+     */
+    public synchronized Optional<MineLocation> allocate() {
+        MineLocation mineLocation = this.freed.poll();
+        if (mineLocation == null) {
+            mineLocation = this.fresh.poll();
+        }
+        if (mineLocation == null) {
+            return Optional.empty();
+        }
+        mineLocation.setUsed(true);
+        return Optional.of(mineLocation);
+    }
+
+    /**
+     * Allows you to release a mine location so it can be allocated again.
+     *
+     * @param mineLocation ~ The mine location to release.
+     * @return If the mine location was released (false if it isn't known or wasn't used).
+     */
+    public synchronized boolean release(final MineLocation mineLocation) {
+        final MineLocation knownMineLocation = this.locations.get(mineLocation);
+        if (knownMineLocation == null || !knownMineLocation.isUsed()) {
+            return false;
+        }
+        knownMineLocation.setUsed(false);
+        this.freed.add(knownMineLocation);
+        return true;
+    }
+
+    /**
+     * Allows you to reserve spiral indexes for new mine locations.
+     * The indexes are reserved atomically, so concurrent creations never generate the same mine location.
+     *
+     * @param amount ~ The amount of indexes to reserve.
+     * @return The spiral index the reserved indexes follow on from.
+     */
+    public synchronized long reserve(final long amount) {
+        final long index = this.index.orElse(0L);
+        this.index = Optional.of(index + amount);
+        return index;
+    }
+
+    /**
+     * Allows you to retrieve the spiral index of the latest generated mine location.
+     *
+     * @return The spiral index of the latest generated mine location (or empty if it isn't known).
+     */
+    public synchronized Optional<Long> getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Allows you to set the spiral index of the latest generated mine location.
+     *
+     * @param index ~ The spiral index of the latest generated mine location.
+     */
+    public synchronized void setIndex(final long index) {
+        this.index = Optional.of(index);
+    }
+
+    /**
+     * Allows you to retrieve if the allocator has no mine locations.
+     *
+     * @return If the allocator has no mine locations.
+     */
+    public synchronized boolean isEmpty() {
+        return this.locations.isEmpty();
+    }
+
+    /**
+     * Allows you to retrieve the mine locations.
+     *
+     * @return A copy of the mine locations (in the order they were generated).
+     */
+    public synchronized ArrayList<MineLocation> getLocations() {
+        return new ArrayList<MineLocation>(this.locations.keySet());
+    }
+
+}
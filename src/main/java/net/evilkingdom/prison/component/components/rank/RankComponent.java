@@ -6,25 +6,50 @@ package net.evilkingdom.prison.component.components.rank;
 
 import net.evilkingdom.commons.utilities.string.StringUtilities;
 import net.evilkingdom.prison.Prison;
+import net.evilkingdom.prison.component.components.data.objects.SelfData;
+import net.evilkingdom.prison.component.components.rank.objects.BlockPallet;
 import net.evilkingdom.prison.component.components.rank.objects.Rank;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class RankComponent {
 
     private final Prison plugin;
 
+    private long[] prices;
+    private int pricesSize;
+    private long firstPrice;
+    private double multiplier;
+    private long segmentSize, maximumRank;
+    private Material[] blocks;
+    private final ConcurrentHashMap<BlockPallet, BlockPallet> blockPallets;
+    private final AtomicLong generated, requested;
+    private final AtomicBoolean generating;
+
+    private static final long MAXIMUM_RANK = Integer.MAX_VALUE - 8;
+
     /**
      * Allows you to create the component.
      */
     public RankComponent() {
         this.plugin = Prison.getPlugin();
+
+        this.prices = new long[0];
+        this.pricesSize = 0;
+        this.generated = new AtomicLong(0L);
+        this.requested = new AtomicLong(0L);
+        this.generating = new AtomicBoolean(false);
+        this.blockPallets = new ConcurrentHashMap<BlockPallet, BlockPallet>();
     }
 
     /**
@@ -32,6 +57,20 @@ public class RankComponent {
      */
     public void initialize() {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Rank] &aInitializing..."));
+        this.firstPrice = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.rank.1-2-price");
+        this.multiplier = this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.rank.multiplier");
+        this.segmentSize = Math.max(1L, this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.rank.segment-size"));
+        this.maximumRank = Math.max(1L, Math.min(MAXIMUM_RANK, this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.rank.maximum-rank")));
+        final List<Material> blocks = this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.blocks").stream().map(blockString -> {
+            final Material material = Material.getMaterial(blockString);
+            if (material == null || !material.isBlock()) {
+                Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Rank] The mine block " + blockString + " isn't a valid block, its slot in the block pallets will be left empty."));
+                return null;
+            }
+            return material;
+        }).collect(Collectors.toList());
+        Collections.reverse(blocks);
+        this.blocks = blocks.toArray(new Material[0]);
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Rank] &aInitialized."));
     }
 
@@ -43,6 +82,48 @@ public class RankComponent {
         Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&4[Prison » Component » Components » Rank] &cTerminated."));
     }
 
+    /**
+     * Allows you to make sure the ranks are generated up to (and a segment past) a rank.
+     * Ranks are generated a segment at a time, the next segment only being generated once a rank gets within half a segment of the end.
+     * Ranks are never generated past the maximum rank, a rank past it is refused (and only the ranks up to the maximum rank are generated).
+     * If a segment is already being generated, the rank is remembered and generated for as soon as that segment is done.
+     *
+     * @param rank ~ The rank that has been reached.
+     * @return If a new segment was generated.
+     */
+    public CompletableFuture<Boolean> ensureGenerated(final long rank) {
+        if (rank > this.maximumRank) {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Rank] Refused to generate rank " + rank + ", it's past the maximum rank (" + this.maximumRank + ")."));
+        }
+        final long cappedRank = Math.min(rank, this.maximumRank);
+        this.requested.accumulateAndGet(cappedRank, Math::max);
+        final long generated = this.generated.get();
+        if ((cappedRank + (this.segmentSize / 2)) < generated) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (generated >= this.maximumRank || !this.generating.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        final long target = Math.min(this.maximumRank, Math.max(this.requested.get(), generated) + this.segmentSize);
+        final long startTime = System.nanoTime();
+        return this.generate(generated, target).thenApply(ranks -> {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&2[Prison » Component » Components » Rank] &aGenerated ranks " + (generated + 1) + " to " + target + " in " + ((System.nanoTime() - startTime) / 1000000L) + "ms."));
+            Bukkit.getScheduler().runTask(this.plugin, () -> {
+                SelfData.getViaCache().ifPresent(selfData -> selfData.addRanks(ranks));
+                this.generated.set(target);
+                this.generating.set(false);
+                if (this.requested.get() + (this.segmentSize / 2) >= target) {
+                    this.ensureGenerated(this.requested.get());
+                }
+            });
+            return true;
+        }).exceptionally(throwable -> {
+            Bukkit.getConsoleSender().sendMessage(StringUtilities.colorize("&c[Prison » Component » Components » Rank] Failed to generate ranks " + (generated + 1) + " to " + target + ", they will be retried when the next rank is reached."));
+            this.generating.set(false);
+            return false;
+        });
+    }
+
     /**
      * Allows you to generate a certain amount of ranks.
      *
@@ -54,13 +135,8 @@ public class RankComponent {
         return CompletableFuture.supplyAsync(() -> {
             ArrayList<Rank> ranks = new ArrayList<Rank>();
             for (long rankNumber = (startingRank + 1); rankNumber < (amount + 1); rankNumber++) {
-                long price = this.plugin.getComponentManager().getFileComponent().getConfiguration().getLong("components.rank.1-2-price");
-                if (rankNumber > 1) {
-                    for (long interiorRankNumber = 1; interiorRankNumber <= rankNumber; interiorRankNumber++) {
-                        price = Math.round((price * this.plugin.getComponentManager().getFileComponent().getConfiguration().getDouble("components.rank.multiplier")));
-                    }
-                }
-                final HashMap<Material, Double> blockPallet = this.generateBlockPallet(rankNumber);
+                final long price = this.getPrice(rankNumber);
+                final BlockPallet blockPallet = this.generateBlockPallet(rankNumber);
                 final Rank rank = new Rank(rankNumber, price, blockPallet);
                 ranks.add(rank);
             }
@@ -68,25 +144,111 @@ public class RankComponent {
         });
     }
 
+    /**
+     * Allows you to retrieve a rank's price.
+     * The prices are kept in a primitive table that grows a segment at a time, each price being the previous price multiplied by the multiplier.
+     * Prices that would overflow stay at the highest possible price, and ranks past the maximum rank cost the same as it (so the table never grows past it).
+     *
+     * @param rank ~ The rank (starting at 1).
+     * @return The rank's price.
+     */
+    public synchronized long getPrice(final long rank) {
+        if (rank < 1L) {
+            return this.firstPrice;
+        }
+        final long cappedRank = Math.min(rank, this.maximumRank);
+        if (cappedRank > this.pricesSize) {
+            this.growPrices(cappedRank);
+        }
+        return this.prices[(int) (cappedRank - 1)];
+    }
+
+    /**
+     * Allows you to grow the price table so it covers a rank.
+     * The table grows by at least a segment (or doubles) so it isn't copied for every rank.
+     *
+     * @param rank ~ The rank the table must cover (at most the maximum rank).
+     */
+    private void growPrices(final long rank) {
+        final int newSize = (int) Math.min(this.maximumRank, Math.max(rank, Math.max(this.pricesSize + this.segmentSize, this.pricesSize * 2L)));
+        final long[] newPrices = Arrays.copyOf(this.prices, newSize);
+        for (int index = this.pricesSize; index < newSize; index++) {
+            final long rankNumber = index + 1L;
+            if (rankNumber == 1L) {
+                newPrices[index] = this.firstPrice;
+            } else if (rankNumber == 2L) {
+                newPrices[index] = this.multiplyPrice(this.multiplyPrice(this.firstPrice));
+            } else {
+                newPrices[index] = this.multiplyPrice(newPrices[index - 1]);
+            }
+        }
+        this.prices = newPrices;
+        this.pricesSize = newSize;
+    }
+
+    /**
+     * Allows you to multiply a price by the multiplier.
+     * Saturates at the highest possible price instead of overflowing.
+     *
+     * @param price ~ The price to multiply.
+     * @return The multiplied price.
+     */
+    private long multiplyPrice(final long price) {
+        if (price == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        final double multipliedPrice = price * this.multiplier;
+        if (multipliedPrice >= Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(multipliedPrice);
+    }
+
     /**
      * Allows you to generate a block pallet for a rank.
      * Automatically calculates the block pallet using the positioning of the block on the list as well as the rank.
+     * Invalid blocks keep their position on the list (so the other blocks' rarities don't shift) but are left out of the pallet.
+     * Identical pallets are interned, so ranks with the same pallet share a single instance (and its alias table).
      *
      * @param rank ~ The rank to generate a block pallet for.
      * @return The block pallet for the rank.
      */
-    private HashMap<Material, Double> generateBlockPallet(final long rank) {
-        final ArrayList<Material> blocks = new ArrayList<Material>(this.plugin.getComponentManager().getFileComponent().getConfiguration().getStringList("components.mine.blocks").stream().map(blockString -> Material.getMaterial(blockString)).collect(Collectors.toList()));
-        Collections.reverse(blocks);
-        final HashMap<Material, Double> blockPercentages = new HashMap<Material, Double>();
-        for (int i = 0; i < blocks.size(); i++) {
-            final Material block = blocks.get(i);
-            final double rarity = Math.min(Math.max(0.05 * rank - 50 + i * (100d / blocks.size()), 0), 100);
-            if (rarity > 0) {
-                blockPercentages.put(block, rarity);
+    private BlockPallet generateBlockPallet(final long rank) {
+        final Material[] blocks = new Material[this.blocks.length];
+        final double[] percentages = new double[this.blocks.length];
+        int size = 0;
+        for (int i = 0; i < this.blocks.length; i++) {
+            final double rarity = Math.min(Math.max(0.05 * rank - 50 + i * (100d / this.blocks.length), 0), 100);
+            if (rarity > 0 && this.blocks[i] != null) {
+                blocks[size] = this.blocks[i];
+                percentages[size] = rarity;
+                size++;
             }
         }
-        return blockPercentages;
+        return this.intern(new BlockPallet(Arrays.copyOf(blocks, size), Arrays.copyOf(percentages, size)));
+    }
+
+    /**
+     * Allows you to retrieve the maximum rank.
+     *
+     * @return The maximum rank (ranks past it are never generated).
+     */
+    public long getMaximumRank() {
+        return this.maximumRank;
+    }
+
+    /**
+     * Allows you to intern a block pallet.
+     *
+     * @param blockPallet ~ The block pallet to intern.
+     * @return The shared instance of the block pallet.
+     */
+    public BlockPallet intern(final BlockPallet blockPallet) {
+        final BlockPallet internedBlockPallet = this.blockPallets.putIfAbsent(blockPallet, blockPallet);
+        if (internedBlockPallet == null) {
+            return blockPallet;
+        }
+        return internedBlockPallet;
     }
 
 }
@@ -0,0 +1,149 @@
+package net.evilkingdom.prison.component.components.rank.objects;
+
+/*
+ * Made with love by https://kodirati.com/.
+ */
+
+import org.bukkit.Material;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class BlockPallet {
+
+    private final Material[] blocks;
+    private final double[] percentages;
+    private final double[] probabilities;
+    private final int[] aliases;
+    private final int hashCode;
+    private final Map<Material, Double> percentagesMap;
+
+    private static final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(SplittableRandom::new);
+
+    /**
+     * Allows you to create a block pallet.
+     * The pallet is immutable, so identical pallets can be shared between ranks (see RankComponent#intern).
+     *
+     * @param blocks ~ The pallet's blocks.
+     * @param percentages ~ The pallet's percentages (the weight of the block at the same index, they don't have to add up to 100).
+     */
+    public BlockPallet(final Material[] blocks, final double[] percentages) {
+        if (blocks.length != percentages.length) {
+            throw new IllegalArgumentException("A block pallet needs a percentage for every block.");
+        }
+        this.blocks = blocks.clone();
+        this.percentages = percentages.clone();
+        this.probabilities = new double[blocks.length];
+        this.aliases = new int[blocks.length];
+        this.hashCode = (31 * Arrays.hashCode(this.blocks)) + Arrays.hashCode(this.percentages);
+        final HashMap<Material, Double> percentagesMap = new HashMap<Material, Double>();
+        for (int index = 0; index < this.blocks.length; index++) {
+            percentagesMap.put(this.blocks[index], this.percentages[index]);
+        }
+        this.percentagesMap = Collections.unmodifiableMap(percentagesMap);
+        this.buildAliasTable();
+    }
+
+    /**
+     * Allows you to build the pallet's alias table (Walker's alias method).
+     * Every slot holds the probability of keeping its own block and the block it otherwise aliases to, so picking a block is a single slot lookup.
+     */
+    private void buildAliasTable() {
+        final int size = this.blocks.length;
+        if (size == 0) {
+            return;
+        }
+        final double total = Arrays.stream(this.percentages).sum();
+        final double[] scaled = new double[size];
+        final ArrayDeque<Integer> small = new ArrayDeque<Integer>();
+        final ArrayDeque<Integer> large = new ArrayDeque<Integer>();
+        for (int index = 0; index < size; index++) {
+            scaled[index] = (this.percentages[index] / total) * size;
+            if (scaled[index] < 1.0) {
+                small.add(index);
+            } else {
+                large.add(index);
+            }
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            final int smallIndex = small.poll();
+            final int largeIndex = large.poll();
+            this.probabilities[smallIndex] = scaled[smallIndex];
+            this.aliases[smallIndex] = largeIndex;
+            scaled[largeIndex] = (scaled[largeIndex] + scaled[smallIndex]) - 1.0;
+            if (scaled[largeIndex] < 1.0) {
+                small.add(largeIndex);
+            } else {
+                large.add(largeIndex);
+            }
+        }
+        while (!large.isEmpty()) {
+            final int index = large.poll();
+            this.probabilities[index] = 1.0;
+            this.aliases[index] = index;
+        }
+        while (!small.isEmpty()) {
+            final int index = small.poll();
+            this.probabilities[index] = 1.0;
+            this.aliases[index] = index;
+        }
+    }
+
+    /**
+     * Allows you to pick a block from the pallet.
+     * Uses the calling thread's own random, so fills running on different threads never contend.
+     *
+     * @return The picked block (or air if the pallet is empty).
+     */
+    public Material getBlock() {
+        return this.getBlock(random.get());
+    }
+
+    /**
+     * Allows you to pick a block from the pallet.
+     *
+     * @param random ~ The random to pick with.
+     * @return The picked block (or air if the pallet is empty).
+     */
+    public Material getBlock(final SplittableRandom random) {
+        if (this.blocks.length == 0) {
+            return Material.AIR;
+        }
+        final int index = random.nextInt(this.blocks.length);
+        if (random.nextDouble() < this.probabilities[index]) {
+            return this.blocks[index];
+        }
+        return this.blocks[this.aliases[index]];
+    }
+
+    /**
+     * Allows you to retrieve the pallet's percentages.
+     *
+     * @return The pallet's percentages (an unmodifiable view, the pallet is shared by every rank with it and its alias table must keep matching them).
+     */
+    public Map<Material, Double> getPercentages() {
+        return this.percentagesMap;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof BlockPallet)) {
+            return false;
+        }
+        final BlockPallet blockPallet = (BlockPallet) object;
+        return this.hashCode == blockPallet.hashCode && Arrays.equals(this.blocks, blockPallet.blocks) && Arrays.equals(this.percentages, blockPallet.percentages);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+}
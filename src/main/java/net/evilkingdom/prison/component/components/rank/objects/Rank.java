@@ -4,14 +4,10 @@ package net.evilkingdom.prison.component.components.rank.objects;
  * Made with love by https://kodirati.com/.
  */
 
-import org.bukkit.Material;
-
-import java.util.HashMap;
-
 public class Rank {
 
     private long rank, price;
-    private HashMap<Material, Double> blockPallet;
+    private final BlockPallet blockPallet;
 
     /**
      * Allows you to create a rank.
@@ -20,7 +16,7 @@ public class Rank {
      * @param price ~ The rank's price.
      * @param blockPallet ~ The rank's block pallet.
      */
-    public Rank(final long rank, final long price, final HashMap<Material, Double> blockPallet) {
+    public Rank(final long rank, final long price, final BlockPallet blockPallet) {
         this.rank = rank;
         this.price = price;
         this.blockPallet = blockPallet;
@@ -31,7 +27,7 @@ public class Rank {
      *
      * @return The rank's block pallet.
      */
-    public HashMap<Material, Double> getBlockPallet() {
+    public BlockPallet getBlockPallet() {
         return this.blockPallet;
     }
 
@@ -79,7 +79,11 @@ public class ScoreboardComponent {
             final String multiplier = NumberUtilities.format(playerData.getMultiplier(), NumberFormatType.MULTIPLIER);
             final String rank = NumberUtilities.format(playerData.getRank(), NumberFormatType.LETTERS);
             final String nextRank = NumberUtilities.format((playerData.getRank() + 1), NumberFormatType.LETTERS);
-            final Rank nextRankData = selfData.getRanks().stream().filter(selfDataRank -> selfDataRank.getRank() == (playerData.getRank() + 1L)).findFirst().get();
+            final Optional<Rank> optionalNextRankData = selfData.getRank(playerData.getRank() + 1L);
+            if (optionalNextRankData.isEmpty()) {
+                return;
+            }
+            final Rank nextRankData = optionalNextRankData.get();
             final String nextRankPrice = this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.currency.symbols.tokens") + NumberUtilities.format(nextRankData.getPrice(), NumberFormatType.LETTERS);
             long rankProgress = nextRankData.getPrice() - playerData.getTokens();
             if (rankProgress < 0) {
@@ -105,7 +109,11 @@ public class ScoreboardComponent {
         final String multiplier = NumberUtilities.format(playerData.getMultiplier(), NumberFormatType.MULTIPLIER);
         final String rank = NumberUtilities.format(playerData.getRank(), NumberFormatType.LETTERS);
         final String nextRank = NumberUtilities.format((playerData.getRank() + 1), NumberFormatType.LETTERS);
-        final Rank nextRankData = selfData.getRanks().stream().filter(selfDataRank -> selfDataRank.getRank() == (playerData.getRank() + 1L)).findFirst().get();
+        final Optional<Rank> optionalNextRankData = selfData.getRank(playerData.getRank() + 1L);
+        if (optionalNextRankData.isEmpty()) {
+            return;
+        }
+        final Rank nextRankData = optionalNextRankData.get();
         final String nextRankPrice = this.plugin.getComponentManager().getFileComponent().getConfiguration().getString("components.currency.symbols.tokens") + NumberUtilities.format(nextRankData.getPrice(), NumberFormatType.LETTERS);
         long rankProgress = nextRankData.getPrice() - playerData.getTokens();
         if (rankProgress < 0) {